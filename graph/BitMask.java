@@ -0,0 +1,297 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size set of ids held as a `long[]` bitset, used as vertex or edge mask.
+ * A membership test is a single word operation, and masks combine word by word, e.g. the union of
+ * two outage scenarios is `a.copy().or(b)`.
+ * Bits at or beyond `size()` are never set; reading them returns false.
+ */
+public final class BitMask {
+
+    private final long[] words;
+
+    private final int size;
+
+    /**
+     * Constructor: an empty mask.
+     * @param size number of ids (`0 .. size - 1`)
+     */
+    public BitMask(int size) {
+        this.words = new long[(size + 63) >>> 6];
+        this.size = size;
+    }
+
+    private BitMask(long[] words, int size) {
+        this.words = words;
+        this.size = size;
+    }
+
+    /**
+     * A mask with every id set.
+     * @param size number of ids
+     * @return the full mask
+     */
+    public static BitMask full(int size) {
+        BitMask mask = new BitMask(size);
+        Arrays.fill(mask.words, -1L);
+        mask.trim();
+        return mask;
+    }
+
+    /**
+     * A mask with the given ids set.
+     * @param size number of ids
+     * @param ids ids to set
+     * @return the mask
+     * @throws IndexOutOfBoundsException when an id is outside `[0, size)`.
+     */
+    public static BitMask of(int size, int... ids) {
+        BitMask mask = new BitMask(size);
+        for (int id : ids) {
+            mask.set(id);
+        }
+        return mask;
+    }
+
+    /**
+     * Get the number of ids the mask covers
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether `i` is in the mask
+     * @param i id (any value; ids outside `[0, size)` are not in the mask)
+     * @return true if set
+     */
+    public boolean get(int i) {
+        return i >= 0 && i < size && (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Adds `i` to the mask.
+     * @param i id
+     * @throws IndexOutOfBoundsException when `i` is outside `[0, size)`.
+     */
+    public void set(int i) {
+        checkIndex(i);
+        words[i >>> 6] |= 1L << i;
+    }
+
+    /**
+     * Removes `i` from the mask.
+     * @param i id
+     * @throws IndexOutOfBoundsException when `i` is outside `[0, size)`.
+     */
+    public void clear(int i) {
+        checkIndex(i);
+        words[i >>> 6] &= ~(1L << i);
+    }
+
+    /**
+     * Adds or removes `i`.
+     * @param i id
+     * @param value true to add
+     * @throws IndexOutOfBoundsException when `i` is outside `[0, size)`.
+     */
+    public void set(int i, boolean value) {
+        if (value) {
+            set(i);
+        } else {
+            clear(i);
+        }
+    }
+
+    /**
+     * Get 64 bits of the mask at once, for scans
+     * @param index word index (`ids 64 * index .. 64 * index + 63`)
+     * @return the word
+     */
+    public long getWord(int index) {
+        return words[index];
+    }
+
+    /**
+     * Get the number of words
+     * @return `ceil(size / 64)`
+     */
+    public int getWordCount() {
+        return words.length;
+    }
+
+    /**
+     * Keeps the ids that are also in `other` (intersection), in place.
+     * @param other mask of the same size
+     * @return this mask
+     * @throws IllegalArgumentException when the sizes differ.
+     */
+    public BitMask and(BitMask other) {
+        checkSize(other);
+        for (int k = 0; k < words.length; k++) {
+            words[k] &= other.words[k];
+        }
+        return this;
+    }
+
+    /**
+     * Adds the ids of `other` (union), in place.
+     * @param other mask of the same size
+     * @return this mask
+     * @throws IllegalArgumentException when the sizes differ.
+     */
+    public BitMask or(BitMask other) {
+        checkSize(other);
+        for (int k = 0; k < words.length; k++) {
+            words[k] |= other.words[k];
+        }
+        return this;
+    }
+
+    /**
+     * Removes the ids of `other` (difference), in place.
+     * @param other mask of the same size
+     * @return this mask
+     * @throws IllegalArgumentException when the sizes differ.
+     */
+    public BitMask andNot(BitMask other) {
+        checkSize(other);
+        for (int k = 0; k < words.length; k++) {
+            words[k] &= ~other.words[k];
+        }
+        return this;
+    }
+
+    /**
+     * Flips every id (complement), in place.
+     * @return this mask
+     */
+    public BitMask not() {
+        for (int k = 0; k < words.length; k++) {
+            words[k] = ~words[k];
+        }
+        trim();
+        return this;
+    }
+
+    /**
+     * Get a copy of the mask
+     * @return an independent mask with the same ids
+     */
+    public BitMask copy() {
+        return new BitMask(words.clone(), size);
+    }
+
+    /**
+     * Get a copy of the mask with another size (ids beyond the new size are dropped, new ids are not set)
+     * @param newSize number of ids of the copy
+     * @return the resized copy
+     */
+    public BitMask copy(int newSize) {
+        BitMask mask = new BitMask(Arrays.copyOf(words, (newSize + 63) >>> 6), newSize);
+        mask.trim();
+        return mask;
+    }
+
+    /**
+     * Get the number of ids in the mask
+     * @return number of set bits
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Whether the mask holds no id
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the first id in the mask at or after `from`
+     * @param from id to start at
+     * @return the id, or -1 if there is none
+     */
+    public int nextSetBit(int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        if (from >= size) {
+            return -1;
+        }
+        int k = from >>> 6;
+        long word = words[k] & (-1L << from);
+        while (word == 0) {
+            if (++k == words.length) {
+                return -1;
+            }
+            word = words[k];
+        }
+        return (k << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof BitMask)) {
+            return false;
+        }
+        BitMask other = (BitMask) o;
+        return size == other.size && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(words) + size;
+    }
+
+    /**
+     * Convert the mask into its string format.
+     * @return the ids in the mask, e.g. `{1, 5, 6}`.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(i);
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Clears the bits past `size` in the last word.
+     */
+    private void trim() {
+        if ((size & 63) != 0) {
+            words[words.length - 1] &= (1L << size) - 1;
+        }
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Id " + i + " is out of range [0, " + size + ")");
+        }
+    }
+
+    private void checkSize(BitMask other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Mask sizes differ: " + size + " and " + other.size);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable compressed sparse row (CSR) representation of a graph.
+ * Vertices are identified by dense integer ids in `[0, getVertexCount())`. The neighbors
+ * of vertex `v` are stored in `targets[offsets[v] .. offsets[v + 1])`, so a neighbor scan
+ * is a sequential walk over a primitive array.
+ * For undirected graphs every edge is stored twice (once in each endpoint's row).
+ */
+public class CSRGraph implements IndexedGraph {
+
+    private final int[] offsets;
+
+    private final int[] targets;
+
+    private final double[] weights;
+
+    private final int[] values;
+
+    private final String[] labels;
+
+    private final boolean isUndirected;
+
+    // Values in increasing order and the id of each, only built when `values` is not sorted (e.g. after a reordering)
+    private final int[] sortedValues;
+
+    private final int[] sortedIds;
+
+    /**
+     * Constructor: the arrays are used as they are, not copied.
+     * @param offsets row offsets (length = |V| + 1)
+     * @param targets neighbor ids (length = offsets[|V|])
+     * @param weights edge weights parallel to `targets`, or null for an unweighted graph
+     * @param values original `Node` value of each id (distinct, in any order), or null if ids are the values
+     * @param labels label of each id (entries may be null), or null to use the string format of the value
+     * @param isUndirected Whether the graph is undirected or not.
+     */
+    public CSRGraph(int[] offsets, int[] targets, double[] weights, int[] values, String[] labels, boolean isUndirected) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.values = values;
+        this.labels = labels;
+        this.isUndirected = isUndirected;
+        boolean sorted = true;
+        for (int v = 1; values != null && v < values.length && sorted; v++) {
+            sorted = values[v - 1] < values[v];
+        }
+        if (sorted) {
+            this.sortedValues = values;
+            this.sortedIds = null;
+        } else {
+            long[] pairs = new long[values.length];
+            for (int v = 0; v < values.length; v++) {
+                pairs[v] = ((long) values[v] << 32) | v;
+            }
+            Arrays.sort(pairs);
+            this.sortedValues = new int[values.length];
+            this.sortedIds = new int[values.length];
+            for (int k = 0; k < pairs.length; k++) {
+                sortedValues[k] = (int) (pairs[k] >> 32);
+                sortedIds[k] = (int) pairs[k];
+            }
+        }
+    }
+
+    /**
+     * Builds a CSR graph from an edge list using a counting sort on the source ids.
+     * Self-edges are dropped. For undirected graphs each edge is inserted in both directions.
+     * @param vertexCount number of vertices (ids must lie in `[0, vertexCount)`)
+     * @param src source ids of the edges
+     * @param dest destination ids of the edges
+     * @param weights edge weights (parallel to `src`), or null for an unweighted graph
+     * @param edgeCount number of valid entries in `src`/`dest`/`weights`
+     * @param isUndirected Whether the graph is undirected or not.
+     * @return the CSR graph
+     * @throws IndexOutOfBoundsException when an edge endpoint is outside `[0, vertexCount)`.
+     */
+    public static CSRGraph fromEdgeList(int vertexCount, int[] src, int[] dest, double[] weights, int edgeCount, boolean isUndirected) {
+        int[] offsets = new int[vertexCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            int s = src[i];
+            int d = dest[i];
+            if (s < 0 || s >= vertexCount || d < 0 || d >= vertexCount) {
+                throw new IndexOutOfBoundsException("Edge (" + s + ", " + d + ") is out of range [0, " + vertexCount + ")");
+            }
+            if (s != d) {
+                offsets[s + 1]++;
+                if (isUndirected) {
+                    offsets[d + 1]++;
+                }
+            }
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] targets = new int[offsets[vertexCount]];
+        double[] csrWeights = weights == null ? null : new double[targets.length];
+        int[] cursor = Arrays.copyOf(offsets, vertexCount);
+        for (int i = 0; i < edgeCount; i++) {
+            int s = src[i];
+            int d = dest[i];
+            if (s == d) {
+                continue;
+            }
+            int pos = cursor[s]++;
+            targets[pos] = d;
+            if (csrWeights != null) {
+                csrWeights[pos] = weights[i];
+            }
+            if (isUndirected) {
+                pos = cursor[d]++;
+                targets[pos] = s;
+                if (csrWeights != null) {
+                    csrWeights[pos] = weights[i];
+                }
+            }
+        }
+        return new CSRGraph(offsets, targets, csrWeights, null, null, isUndirected);
+    }
+
+    /**
+     * Builds a CSR snapshot of the alive part of a `Graph`.
+     * Vertices are renumbered densely in increasing order of their `getValue()`;
+     * use `getValue(int)` / `indexOf(int)` to map between ids and values.
+     * Edge weights are carried over when the graph is weighted.
+     * @param graph the graph object
+     * @return the CSR graph
+     */
+    public static <T extends Node> CSRGraph fromGraph(Graph<T> graph) {
+        int n = 0;
+        for (T v : graph.getVertices()) {
+            if (graph.isAlive(v)) {
+                n++;
+            }
+        }
+        int[] values = new int[n];
+        int i = 0;
+        for (T v : graph.getVertices()) {
+            if (graph.isAlive(v)) {
+                values[i++] = v.getValue();
+            }
+        }
+        Arrays.sort(values);
+        String[] labels = new String[n];
+        int[] offsets = new int[n + 1];
+        for (T v : graph.getVertices()) {
+            if (!graph.isAlive(v)) {
+                continue;
+            }
+            int id = Arrays.binarySearch(values, v.getValue());
+            labels[id] = v.getLabel();
+            int degree = 0;
+            for (T w : graph.getAdjList(v)) {
+                if (graph.isAlive(w) && w.getValue() != v.getValue()) {
+                    degree++;
+                }
+            }
+            offsets[id + 1] = degree;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] targets = new int[offsets[n]];
+        double[] weights = graph.isWeighted() ? new double[offsets[n]] : null;
+        for (T v : graph.getVertices()) {
+            if (!graph.isAlive(v)) {
+                continue;
+            }
+            int pos = offsets[Arrays.binarySearch(values, v.getValue())];
+            List<T> adjList = graph.getAdjList(v);
+            for (T w : adjList) {
+                if (graph.isAlive(w) && w.getValue() != v.getValue()) {
+                    if (weights != null) {
+                        weights[pos] = graph.getWeight(v, w);
+                    }
+                    targets[pos++] = Arrays.binarySearch(values, w.getValue());
+                }
+            }
+        }
+        return new CSRGraph(offsets, targets, weights, values, labels, graph.isUndirected());
+    }
+
+    @Override
+    public int getVertexCount() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public int getEdgesCount() {
+        return isUndirected ? targets.length / 2 : targets.length;
+    }
+
+    @Override
+    public int getArcCount() {
+        return targets.length;
+    }
+
+    @Override
+    public boolean isUndirected() {
+        return isUndirected;
+    }
+
+    @Override
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    @Override
+    public int adjStart(int v) {
+        return offsets[v];
+    }
+
+    @Override
+    public int adjEnd(int v) {
+        return offsets[v + 1];
+    }
+
+    @Override
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    @Override
+    public int getTarget(int i) {
+        return targets[i];
+    }
+
+    @Override
+    public double getWeight(int i) {
+        return weights == null ? 0.0 : weights[i];
+    }
+
+    @Override
+    public int getValue(int v) {
+        return values == null ? v : values[v];
+    }
+
+    @Override
+    public int indexOf(int value) {
+        if (values == null) {
+            return (value >= 0 && value < getVertexCount()) ? value : -1;
+        }
+        int k = Arrays.binarySearch(sortedValues, value);
+        return sortedIds == null || k < 0 ? k : sortedIds[k];
+    }
+
+    @Override
+    public String getLabel(int v) {
+        return labels == null || labels[v] == null ? String.valueOf(getValue(v)) : labels[v];
+    }
+
+    /**
+     * Convert the graph into its equivalent string format.
+     * @return the string format of the graph.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int v = 0; v < getVertexCount(); v++) {
+            builder.append(getLabel(v)).append(": ");
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                builder.append(getLabel(targets[i])).append(" ");
+            }
+            builder.append("\n");
+        }
+        return builder.toString();
+    }
+}
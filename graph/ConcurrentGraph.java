@@ -0,0 +1,563 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * A graph keyed by dense int ids that accepts topology updates from any thread while other threads read it.
+ *
+ * The graph is a sequence of immutable `Snapshot`s (epochs). Readers take the current snapshot with one
+ * volatile read and keep a consistent view for as long as they hold it, without locks and without being
+ * disturbed by writers. Writers copy only the parts they touch (the adjacency array of each edited vertex,
+ * the chunk of 1024 vertices around it and the chunk table) and publish the new snapshot with a
+ * compare-and-set, so concurrent writers never block each other either; a writer that loses the race
+ * re-applies its edits on top of the newer snapshot.
+ *
+ * A published array is never written again, but within one `update` each part is copied at most once:
+ * an update pays one copy of the chunk table (one reference per 1024 ids), of every chunk it touches
+ * (1024 references and sizes) and of every adjacency array it edits. Adjacency arrays keep spare capacity
+ * and grow geometrically, so the edits themselves cost O(1) amortized per added edge and O(degree) per
+ * removed edge. Batching edits into one `update` therefore spreads the copies over all of them.
+ *
+ * Unlike `Graph`, the alive / disabled state of a vertex is part of the snapshot rather than of a shared
+ * `Node` object: disabling a vertex produces a new epoch and leaves older snapshots untouched.
+ */
+public class ConcurrentGraph {
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int[] EMPTY = new int[0];
+
+    private final AtomicReference<Snapshot> current;
+
+    /**
+     * Constructor
+     * @param isUndirected Whether the graph is undirected or not.
+     */
+    public ConcurrentGraph(boolean isUndirected) {
+        this.current = new AtomicReference<>(new Snapshot(0, isUndirected, 0, new int[0][][], new int[0][], new long[0][], 0, 0));
+    }
+
+    /**
+     * Get the latest published snapshot
+     * @return consistent, immutable view of the graph
+     */
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Applies a group of edits atomically: readers see either none or all of them.
+     * The edits may be run more than once when another writer publishes first, so `edits` must not have
+     * side effects other than the calls on the `Editor`.
+     * @param edits the edits to apply
+     * @return the snapshot holding the edits
+     */
+    public Snapshot update(Consumer<Editor> edits) {
+        while (true) {
+            Snapshot base = current.get();
+            Editor editor = new Editor(base);
+            edits.accept(editor);
+            if (!editor.changed) {
+                return base;
+            }
+            Snapshot next = editor.build();
+            if (current.compareAndSet(base, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Adds a new vertex with the next free id
+     * @return id of the vertex
+     */
+    public int addVertex() {
+        int[] id = new int[1];
+        update(editor -> id[0] = editor.addVertex());
+        return id[0];
+    }
+
+    /**
+     * Adds vertex `v` (and every missing id below it), if not already present
+     * @param v vertex id
+     * @throws IndexOutOfBoundsException when `v` is negative.
+     */
+    public void addVertex(int v) {
+        update(editor -> editor.addVertex(v));
+    }
+
+    /**
+     * Adds edge between `source` and `destination` vertices (missing vertices are added)
+     * @param source Source vertex
+     * @param destination Destination vertex.
+     * @throws IndexOutOfBoundsException when a vertex id is negative.
+     */
+    public void addEdge(int source, int destination) {
+        update(editor -> editor.addEdge(source, destination));
+    }
+
+    /**
+     * Remove one edge between the vertices `src` and `dest` (if it exists)
+     * @param src Source vertex
+     * @param dest Destination vertex
+     * @return true if an edge was removed
+     */
+    public boolean removeEdge(int src, int dest) {
+        boolean[] removed = new boolean[1];
+        update(editor -> removed[0] = editor.removeEdge(src, dest));
+        return removed[0];
+    }
+
+    /**
+     * Disables a vertex in the next snapshot as if it is not present in the graph.
+     * @param v vertex id
+     */
+    public void disableVertex(int v) {
+        update(editor -> editor.disableVertex(v));
+    }
+
+    /**
+     * Enables a vertex in the next snapshot if it is disabled
+     * @param v vertex id
+     */
+    public void enableVertex(int v) {
+        update(editor -> editor.enableVertex(v));
+    }
+
+    /**
+     * An immutable version of the graph.
+     */
+    public static final class Snapshot {
+        private final long epoch;
+        private final boolean isUndirected;
+        private final int vertexCount;
+        private final int[][][] adj;
+        private final int[][] sizes;
+        private final long[][] dead;
+        private final int deadCount;
+        private final long arcCount;
+
+        Snapshot(long epoch, boolean isUndirected, int vertexCount, int[][][] adj, int[][] sizes, long[][] dead, int deadCount, long arcCount) {
+            this.epoch = epoch;
+            this.isUndirected = isUndirected;
+            this.vertexCount = vertexCount;
+            this.adj = adj;
+            this.sizes = sizes;
+            this.dead = dead;
+            this.deadCount = deadCount;
+            this.arcCount = arcCount;
+        }
+
+        /**
+         * Get the epoch of this snapshot (increases by one with every published update)
+         * @return epoch number
+         */
+        public long getEpoch() {
+            return epoch;
+        }
+
+        /**
+         * Whether the graph is undirected
+         * @return true if the graph is undirected
+         */
+        public boolean isUndirected() {
+            return isUndirected;
+        }
+
+        /**
+         * Get the number of vertex ids in use (alive or disabled); ids lie in `[0, getIdBound())`
+         * @return one past the largest vertex id
+         */
+        public int getIdBound() {
+            return vertexCount;
+        }
+
+        /**
+         * Get the number of vertices in the graph (i.e., |V|), disabled vertices excluded
+         * @return Number of vertices in the graph
+         */
+        public int getVertexCount() {
+            return vertexCount - deadCount;
+        }
+
+        /**
+         * Get the number of edges in the graph (edges touching a disabled vertex excluded)
+         * @return Number of edges in the graph
+         */
+        public int getEdgesCount() {
+            long count = 0;
+            if (deadCount == 0) {
+                count = arcCount;
+            } else {
+                for (int v = 0; v < vertexCount; v++) {
+                    if (isAlive(v)) {
+                        int[] list = adjList(v);
+                        int size = size(v);
+                        for (int i = 0; i < size; i++) {
+                            if (isAlive(list[i])) {
+                                count++;
+                            }
+                        }
+                    }
+                }
+            }
+            return (int) (isUndirected ? count / 2 : count);
+        }
+
+        /**
+         * Check if the given vertex is in the graph.
+         * @param v vertex id
+         * @return True if `v` is in the graph, else False
+         */
+        public boolean hasVertex(int v) {
+            return v >= 0 && v < vertexCount;
+        }
+
+        /**
+         * Get the alive status of a vertex in this snapshot
+         * @param v vertex id
+         * @return true if `v` is in the graph and enabled
+         */
+        public boolean isAlive(int v) {
+            return hasVertex(v) && (dead[v >>> CHUNK_BITS][(v & CHUNK_MASK) >>> 6] & (1L << v)) == 0;
+        }
+
+        /**
+         * Get the number of stored neighbors of `v` (disabled neighbors included)
+         * @param v vertex id
+         * @return degree of `v`
+         */
+        public int degree(int v) {
+            adjList(v);
+            return size(v);
+        }
+
+        /**
+         * Get the `i`-th stored neighbor of `v`
+         * @param v vertex id
+         * @param i position in `[0, degree(v))`
+         * @return vertex id of the neighbor
+         * @throws IndexOutOfBoundsException when `v` is not in the graph or `i` is out of range.
+         */
+        public int getNeighbor(int v, int i) {
+            int[] list = adjList(v);
+            if (i < 0 || i >= size(v)) {
+                throw new IndexOutOfBoundsException("Index " + i + " out of bounds for degree " + size(v));
+            }
+            return list[i];
+        }
+
+        /**
+         * Get a copy of the adjacency list of `v`
+         * @param v vertex id
+         * @return neighbor ids of `v`
+         */
+        public int[] getAdjList(int v) {
+            return Arrays.copyOf(adjList(v), size(v));
+        }
+
+        /**
+         * Check if there's an edge between the vertices `s` and `d`.
+         * @param s Source vertex
+         * @param d Destination vertex.
+         * @return True if there's an edge between `s` and `d`. False, otherwise.
+         */
+        public boolean hasEdge(int s, int d) {
+            if (!hasVertex(s)) {
+                return false;
+            }
+            int[] list = adjList(s);
+            int size = size(s);
+            for (int i = 0; i < size; i++) {
+                if (list[i] == d) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Build a CSR copy of the alive part of this snapshot so the `IndexedGraph` engines can run on it.
+         * Alive vertices are renumbered densely in increasing id order; `getValue(int)` returns the id.
+         * @return graph with compressed sparse row representation.
+         */
+        public CSRGraph toCSRGraph() {
+            int n = getVertexCount();
+            int[] values = new int[n];
+            int[] ids = new int[vertexCount];
+            int k = 0;
+            for (int v = 0; v < vertexCount; v++) {
+                if (isAlive(v)) {
+                    ids[v] = k;
+                    values[k++] = v;
+                }
+            }
+            int[] offsets = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                int[] list = adjList(values[v]);
+                int size = size(values[v]);
+                int count = 0;
+                for (int i = 0; i < size; i++) {
+                    if (isAlive(list[i]) && list[i] != values[v]) {
+                        count++;
+                    }
+                }
+                offsets[v + 1] = offsets[v] + count;
+            }
+            int[] targets = new int[offsets[n]];
+            for (int v = 0; v < n; v++) {
+                int[] list = adjList(values[v]);
+                int size = size(values[v]);
+                int pos = offsets[v];
+                for (int i = 0; i < size; i++) {
+                    if (isAlive(list[i]) && list[i] != values[v]) {
+                        targets[pos++] = ids[list[i]];
+                    }
+                }
+            }
+            return new CSRGraph(offsets, targets, null, values, null, isUndirected);
+        }
+
+        private int[] adjList(int v) {
+            if (!hasVertex(v)) {
+                throw new IndexOutOfBoundsException("Vertex " + v + " is not in the graph");
+            }
+            return adj[v >>> CHUNK_BITS][v & CHUNK_MASK];
+        }
+
+        /**
+         * Number of neighbors of `v` in use at the front of its adjacency array (the rest is spare capacity).
+         */
+        private int size(int v) {
+            return sizes[v >>> CHUNK_BITS][v & CHUNK_MASK];
+        }
+    }
+
+    /**
+     * Collects the edits of one `update` on private copies of the touched parts of a snapshot.
+     * A chunk, the size table of a chunk or an adjacency array is copied the first time the update touches it
+     * and edited in place afterwards (`ownAdj`, `ownDead`, `ownList` record what is private already).
+     */
+    public static final class Editor {
+        private final Snapshot base;
+        private int vertexCount;
+        private int[][][] adj;
+        private int[][] sizes;
+        private long[][] dead;
+        private int deadCount;
+        private long arcCount;
+        private boolean[] ownAdj;
+        private boolean[] ownDead;
+        private boolean[][] ownList;
+        private boolean changed;
+
+        Editor(Snapshot base) {
+            this.base = base;
+            this.vertexCount = base.vertexCount;
+            this.adj = base.adj;
+            this.sizes = base.sizes;
+            this.dead = base.dead;
+            this.deadCount = base.deadCount;
+            this.arcCount = base.arcCount;
+        }
+
+        /**
+         * Adds a new vertex with the next free id
+         * @return id of the vertex
+         */
+        public int addVertex() {
+            int v = vertexCount;
+            addVertex(v);
+            return v;
+        }
+
+        /**
+         * Adds vertex `v` (and every missing id below it), if not already present
+         * @param v vertex id
+         * @throws IndexOutOfBoundsException when `v` is negative.
+         */
+        public void addVertex(int v) {
+            if (v < 0) {
+                throw new IndexOutOfBoundsException("Negative vertex id " + v);
+            }
+            if (v < vertexCount) {
+                return;
+            }
+            int chunks = (v >>> CHUNK_BITS) + 1;
+            ownTables(chunks);
+            for (int c = 0; c < chunks; c++) {
+                if (adj[c] == null) {
+                    adj[c] = new int[CHUNK_SIZE][];
+                    Arrays.fill(adj[c], EMPTY);
+                    sizes[c] = new int[CHUNK_SIZE];
+                    dead[c] = new long[CHUNK_SIZE / 64];
+                    ownAdj[c] = true;
+                    ownDead[c] = true;
+                    ownList[c] = new boolean[CHUNK_SIZE];
+                }
+            }
+            vertexCount = v + 1;
+            changed = true;
+        }
+
+        /**
+         * Adds edge between `source` and `destination` vertices (missing vertices are added)
+         * @param source Source vertex
+         * @param destination Destination vertex.
+         * @throws IndexOutOfBoundsException when a vertex id is negative.
+         */
+        public void addEdge(int source, int destination) {
+            if (source < 0 || destination < 0) {
+                throw new IndexOutOfBoundsException("Negative vertex id " + Math.min(source, destination));
+            }
+            addVertex(Math.max(source, destination));
+            append(source, destination);
+            if (base.isUndirected) {
+                append(destination, source);
+            }
+            changed = true;
+        }
+
+        /**
+         * Remove one edge between the vertices `src` and `dest` (if it exists)
+         * @param src Source vertex
+         * @param dest Destination vertex
+         * @return true if an edge was removed
+         */
+        public boolean removeEdge(int src, int dest) {
+            if (src < 0 || src >= vertexCount || dest < 0 || dest >= vertexCount || !remove(src, dest)) {
+                return false;
+            }
+            if (base.isUndirected) {
+                remove(dest, src);
+            }
+            changed = true;
+            return true;
+        }
+
+        /**
+         * Disables a vertex as if it is not present in the graph.
+         * @param v vertex id
+         * @throws IndexOutOfBoundsException when `v` is not in the graph.
+         */
+        public void disableVertex(int v) {
+            setDead(v, true);
+        }
+
+        /**
+         * Enables a vertex if it is disabled
+         * @param v vertex id
+         * @throws IndexOutOfBoundsException when `v` is not in the graph.
+         */
+        public void enableVertex(int v) {
+            setDead(v, false);
+        }
+
+        private void setDead(int v, boolean isDead) {
+            if (v < 0 || v >= vertexCount) {
+                throw new IndexOutOfBoundsException("Vertex " + v + " is not in the graph");
+            }
+            int c = v >>> CHUNK_BITS;
+            int word = (v & CHUNK_MASK) >>> 6;
+            if (((dead[c][word] & (1L << v)) != 0) == isDead) {
+                return;
+            }
+            ownTables(adj.length);
+            if (!ownDead[c]) {
+                dead[c] = dead[c].clone();
+                ownDead[c] = true;
+            }
+            dead[c][word] ^= 1L << v;
+            deadCount += isDead ? 1 : -1;
+            changed = true;
+        }
+
+        /**
+         * Appends `w` to the adjacency array of `v`; the array is copied once per update, with room to grow.
+         */
+        private void append(int v, int w) {
+            int c = v >>> CHUNK_BITS;
+            int i = v & CHUNK_MASK;
+            int[][] chunk = ownChunk(c);
+            int[] list = chunk[i];
+            int size = sizes[c][i];
+            if (!ownList[c][i] || size == list.length) {
+                list = Arrays.copyOf(list, size == list.length ? Math.max(4, 2 * size) : list.length);
+                chunk[i] = list;
+                ownList[c][i] = true;
+            }
+            list[size] = w;
+            sizes[c][i] = size + 1;
+            arcCount++;
+        }
+
+        /**
+         * Removes the first `w` from the adjacency array of `v`, keeping the order of the others.
+         */
+        private boolean remove(int v, int w) {
+            int c = v >>> CHUNK_BITS;
+            int i = v & CHUNK_MASK;
+            int[] list = adj[c][i];
+            int size = sizes[c][i];
+            for (int k = 0; k < size; k++) {
+                if (list[k] == w) {
+                    int[][] chunk = ownChunk(c);
+                    if (!ownList[c][i]) {
+                        list = list.clone();
+                        chunk[i] = list;
+                        ownList[c][i] = true;
+                    }
+                    System.arraycopy(list, k + 1, list, k, size - k - 1);
+                    sizes[c][i] = size - 1;
+                    arcCount--;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Makes the chunk tables private to this editor (with room for `chunks` chunks).
+         */
+        private void ownTables(int chunks) {
+            if (ownAdj == null) {
+                int length = Math.max(chunks, adj.length);
+                adj = Arrays.copyOf(adj, length);
+                sizes = Arrays.copyOf(sizes, length);
+                dead = Arrays.copyOf(dead, length);
+                ownAdj = new boolean[length];
+                ownDead = new boolean[length];
+                ownList = new boolean[length][];
+            } else if (chunks > adj.length) {
+                int length = Math.max(chunks, 2 * adj.length);
+                adj = Arrays.copyOf(adj, length);
+                sizes = Arrays.copyOf(sizes, length);
+                dead = Arrays.copyOf(dead, length);
+                ownAdj = Arrays.copyOf(ownAdj, length);
+                ownDead = Arrays.copyOf(ownDead, length);
+                ownList = Arrays.copyOf(ownList, length);
+            }
+        }
+
+        /**
+         * Makes chunk `c` and its sizes private to this editor (the adjacency arrays themselves stay shared).
+         */
+        private int[][] ownChunk(int c) {
+            ownTables(adj.length);
+            if (!ownAdj[c]) {
+                adj[c] = adj[c].clone();
+                sizes[c] = sizes[c].clone();
+                ownAdj[c] = true;
+                ownList[c] = new boolean[CHUNK_SIZE];
+            }
+            return adj[c];
+        }
+
+        Snapshot build() {
+            return new Snapshot(base.epoch + 1, base.isUndirected, vertexCount, adj, sizes, dead, deadCount, arcCount);
+        }
+    }
+}
@@ -2,43 +2,94 @@ package graph;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 // import java.lang.reflect.*;
 
 /**
  * A generic Graph data structure.
+ * Disabled vertices are kept in a bitset indexed by `getValue()`, so vertex values must not be negative.
+ * Every edge remembers its positions in the adjacency lists, so `removeEdge` swap-removes them in O(1)
+ * amortized instead of scanning; removed vertices leave tombstones until `compact()` releases their memory.
+ * Vertex degrees (distinct neighbors) and the number of adjacency entries are maintained on every edit, so
+ * `degree` is O(1) and `getEdgesCount` is O(1) while no vertex is disabled; with disabled vertices they scan.
+ * Regions, filtered and re-oriented versions of a graph are available as views (`induced`, `filterEdges`,
+ * `reversed`, `asUndirected`) that share its storage instead of copying it.
  */
 public class Graph<T extends Node> {
 
-    private Map<T, List<T>> map;
+    private Map<T, Adjacency<T>> map;
+
+    private Map<GraphEdge<T>, Incidence<T>> edgeMap;
 
-    private Set<GraphEdge<T>> edgeSet;
+    private Map<T, ArrayList<Incidence<T>>> incoming;
 
     private boolean isUndirected;
 
+    private boolean isWeighted;
+
     private T source;
 
+    private volatile long version;
+
+    private BitMask disabled;
+
+    // Bits are only ever set for values of vertices in the graph, so this is the cardinality of `disabled`
+    private int disabledCount;
+
+    private int tombstones;
+
+    private long arcCount;
+
     /**
      * Constructor
      * @param isUndirected Whether the graph is undirected or not.
      */
     public Graph (boolean isUndirected) {
         this.map = new HashMap<>();
-        this.edgeSet = new HashSet<>();
+        this.edgeMap = new HashMap<>();
+        this.incoming = isUndirected ? null : new HashMap<>();
         this.isUndirected = isUndirected;
+        this.isWeighted = false;
         this.source = null;
+        this.disabled = new BitMask(0);
+    }
+
+    /**
+     * Constructor for a `GraphView`, which overrides every method and keeps no storage of its own.
+     */
+    Graph() {
     }
 
     /**
      * Adds vertex in the graph
      * @param s Vertex
+     * @throws IllegalArgumentException when the value of the vertex is negative.
      */
     public void addVertex(T s) {
-        map.putIfAbsent(s, new ArrayList<>());
+        if (map.containsKey(s)) {
+            return;
+        }
+        int value = s.getValue();
+        if (value < 0) {
+            throw new IllegalArgumentException("Vertex values must not be negative: " + value);
+        }
+        if (value >= disabled.size()) {
+            disabled = disabled.copy(Math.max(value + 1, 2 * disabled.size()));
+        }
+        map.put(s, new Adjacency<>());
+        if (incoming != null) {
+            incoming.put(s, new ArrayList<>());
+        }
+        version++;
         if (source == null) {
             source = s;
         }
@@ -50,6 +101,17 @@ public class Graph<T extends Node> {
      * @param destination Destination vertex.
      */
     public void addEdge(T source, T destination) {
+        addEdge(source, destination, 0.0);
+    }
+
+    /**
+     * Adds a weighted edge between `source` and `destination` vertices.
+     * Adding an edge that is already present adds a parallel copy, which keeps the weight of the first one.
+     * @param source Source Vertex
+     * @param destination Destination vertex.
+     * @param weight weight of the edge (e.g. the admittance of a line)
+     */
+    public void addEdge(T source, T destination, double weight) {
         if (!map.containsKey(source)) {
             addVertex(source);
         }
@@ -58,31 +120,54 @@ public class Graph<T extends Node> {
             addVertex(destination);
         }
  
-        map.get(source).add(destination);
+        GraphEdge<T> key = new GraphEdge<>(source, destination, isUndirected);
+        Incidence<T> edge = edgeMap.get(key);
+        if (edge == null) {
+            edge = new Incidence<>(source, destination, weight);
+            edgeMap.put(key, edge);
+            if (!source.equals(destination)) {
+                map.get(source).degree++;
+                if (isUndirected) {
+                    map.get(destination).degree++;
+                } else {
+                    map.get(destination).inDegree++;
+                }
+            }
+            if (incoming != null) {
+                List<Incidence<T>> in = incoming.get(destination);
+                edge.inSlot = in.size();
+                in.add(edge);
+            }
+        }
+        List<T> adjList = map.get(source).neighbors;
+        edge.addSlot(source, adjList.size());
+        adjList.add(destination);
         if (isUndirected) {
-            map.get(destination).add(source);
+            adjList = map.get(destination).neighbors;
+            edge.addSlot(destination, adjList.size());
+            adjList.add(source);
+        }
+        arcCount += isUndirected ? 2 : 1;
+        version++;
+        if (weight != 0.0) {
+            isWeighted = true;
         }
-        GraphEdge<T> edge = new GraphEdge<>(source, destination, isUndirected);
-        edgeSet.add(edge);
     }
 
     /**
      * Disables a vertex from the graph as if it is not present in the graph.
+     * Only a bit is cleared, so this is O(1); copies of the vertex in adjacency lists need not be visited.
      * @param v reference to the vertex object
      * @throws NullPointerException when the given vertex reference is not found in the graph.
      */
     public void disableVertex(T v) throws NullPointerException {
-        List<T> adjList = this.map.get(v);
-        // Disable the vertex
-        v.setAliveStatus(false);
-        // Disable the vertex in everyone of its neighbors
-        for(T neighbor: adjList) {
-            for(T w: this.map.get(neighbor)) {
-                if (w.getValue() == v.getValue()) {
-                    w.setAliveStatus(false);
-                }
-            }
+        checkVertex(v);
+        if (!disabled.get(v.getValue())) {
+            disabled.set(v.getValue());
+            disabledCount++;
         }
+        v.setAliveStatus(false);
+        version++;
     }
     
     /**
@@ -91,26 +176,197 @@ public class Graph<T extends Node> {
      * @throws NullPointerException when the given vertex reference is not found in the graph.
      */
     public void enableVertex(T v) throws NullPointerException {
-        List<T> adjList = this.map.get(v);
-        // Enable the vertex
+        checkVertex(v);
+        if (disabled.get(v.getValue())) {
+            disabled.clear(v.getValue());
+            disabledCount--;
+        }
         v.setAliveStatus(true);
-        // Enable the vertex in everyone of its neighbors
-        for(T neighbor: adjList) {
-            for(T w: this.map.get(neighbor)) {
-                if(w.getValue() == v.getValue()) {
-                    w.setAliveStatus(true);
-                }
+        version++;
+    }
+
+    /**
+     * Whether a vertex is alive (not disabled). This is the authoritative state: `Node.getAliveStatus()` is
+     * only kept up to date on the instance passed to `disableVertex`/`enableVertex`, not on its copies.
+     * @param v reference to the vertex object
+     * @return true if the vertex is not disabled
+     */
+    public boolean isAlive(T v) {
+        return !disabled.get(v.getValue());
+    }
+
+    /**
+     * Get the disabled vertices
+     * @return a copy of the mask of disabled vertex values
+     */
+    public BitMask getDisabledVertices() {
+        return disabled.copy();
+    }
+
+    /**
+     * Replaces the set of disabled vertices, e.g. by a composition of outage scenarios
+     * (`a.copy().or(b)` disables the vertices of both). Values that are not vertices of the graph are ignored,
+     * so a vertex added later starts enabled. This is O(|V|).
+     * @param mask mask of the vertex values to disable
+     */
+    public void setDisabledVertices(BitMask mask) {
+        BitMask kept = new BitMask(disabled.size());
+        int count = 0;
+        for (T v : map.keySet()) {
+            if (mask.get(v.getValue())) {
+                kept.set(v.getValue());
+                count++;
             }
         }
+        disabled = kept;
+        disabledCount = count;
+        version++;
+    }
+
+    private void checkVertex(T v) {
+        if (!map.containsKey(v)) {
+            throw new NullPointerException("Vertex " + v + " is not in the graph");
+        }
     }
 
     /**
-     * Remove the edge between the vertices `src` and `dest` (if it exists)
+     * Remove the edge between the vertices `src` and `dest` (if it exists), parallel copies included.
+     * Each adjacency entry is swap-removed with the last entry of its list, so this is O(1) amortized per copy
+     * and the order of the remaining neighbors of `src` (and `dest`) is not preserved.
      * @param src Source vertex
      * @param dest Destination vertex
+     * @return true if an edge was removed
+     */
+    public boolean removeEdge(T src, T dest) {
+        Incidence<T> edge = edgeMap.get(new GraphEdge<>(src, dest, isUndirected));
+        if (edge == null) {
+            return false;
+        }
+        arcCount -= edge.srcCount + edge.destCount;
+        if (!edge.src.equals(edge.dest)) {
+            map.get(edge.src).degree--;
+            if (isUndirected) {
+                map.get(edge.dest).degree--;
+            } else {
+                map.get(edge.dest).inDegree--;
+            }
+        }
+        // Slots are popped before the swap, so a moved copy of the same edge is re-pointed among the rest
+        while (edge.srcCount > 0) {
+            removeSlot(edge.src, edge.srcSlots[--edge.srcCount]);
+        }
+        while (edge.destCount > 0) {
+            removeSlot(edge.dest, edge.destSlots[--edge.destCount]);
+        }
+        edgeMap.remove(new GraphEdge<>(src, dest, isUndirected));
+        if (incoming != null) {
+            ArrayList<Incidence<T>> in = incoming.get(edge.dest);
+            Incidence<T> moved = in.remove(in.size() - 1);
+            if (moved != edge) {
+                in.set(edge.inSlot, moved);
+                moved.inSlot = edge.inSlot;
+            }
+        }
+        version++;
+        return true;
+    }
+
+    /**
+     * Remove a vertex together with all its edges (if it is in the graph).
+     * This costs O(1) amortized per removed edge. The hash tables keep their size until `compact()`, and the
+     * value of the vertex is free to be used by a new vertex.
+     * @param v reference to the vertex object
+     * @return true if the vertex was removed
      */
-    public void removeEdge(T src, T dest) {
-        // TODO: implement this method
+    public boolean removeVertex(T v) {
+        Adjacency<T> adjacency = map.get(v);
+        if (adjacency == null) {
+            return false;
+        }
+        List<T> adjList = adjacency.neighbors;
+        while (!adjList.isEmpty()) {
+            removeEdge(v, adjList.get(adjList.size() - 1));
+        }
+        if (incoming != null) {
+            ArrayList<Incidence<T>> in = incoming.get(v);
+            while (!in.isEmpty()) {
+                removeEdge(in.get(in.size() - 1).src, v);
+            }
+            incoming.remove(v);
+        }
+        map.remove(v);
+        if (disabled.get(v.getValue())) {
+            disabled.clear(v.getValue());
+            disabledCount--;
+        }
+        tombstones++;
+        if (v.equals(source)) {
+            source = map.isEmpty() ? null : map.keySet().iterator().next();
+        }
+        version++;
+        return true;
+    }
+
+    /**
+     * Get the number of vertices removed since the last `compact()`
+     * @return number of tombstones
+     */
+    public int getTombstoneCount() {
+        return tombstones;
+    }
+
+    /**
+     * Releases the memory still held for removed vertices and edges: the hash tables and the adjacency lists are
+     * rebuilt at the size of the current graph and the disabled-vertex mask is cut to the largest value in use.
+     * Long editing sessions should call this from time to time (e.g. once `getTombstoneCount()` exceeds
+     * `getVertexCount()`). The topology and the version do not change, but a vertex set obtained before
+     * (`getVertices()`) no longer reflects later edits.
+     */
+    public void compact() {
+        int bound = 0;
+        for (Adjacency<T> adjacency : map.values()) {
+            adjacency.neighbors.trimToSize();
+        }
+        for (T v : map.keySet()) {
+            bound = Math.max(bound, v.getValue() + 1);
+        }
+        map = new HashMap<>(map);
+        edgeMap = new HashMap<>(edgeMap);
+        if (incoming != null) {
+            for (ArrayList<Incidence<T>> in : incoming.values()) {
+                in.trimToSize();
+            }
+            incoming = new HashMap<>(incoming);
+        }
+        disabled = disabled.copy(bound);
+        tombstones = 0;
+    }
+
+    /**
+     * Swap-removes the entry at `slot` of the adjacency list of `v`, re-pointing the edge of the moved entry.
+     */
+    private void removeSlot(T v, int slot) {
+        List<T> adjList = map.get(v).neighbors;
+        int last = adjList.size() - 1;
+        T moved = adjList.remove(last);
+        if (slot != last) {
+            adjList.set(slot, moved);
+            edgeMap.get(new GraphEdge<>(v, moved, isUndirected)).moveSlot(v, last, slot);
+        }
+    }
+
+    /**
+     * Get the modification counter of the graph.
+     * Every mutation through the graph (`addVertex` of a new vertex, `addEdge`, `disableVertex`, `enableVertex`,
+     * `removeEdge`, `removeVertex`) increments it, so results computed at one version are valid as long as it
+     * does not change.
+     * Changes made behind the graph's back (`Node.setAliveStatus`) are not counted.
+     * The counter is volatile, so other threads (e.g. a shared `GraphOpsCache`) see the latest edit; the graph
+     * itself still takes edits from one thread at a time.
+     * @return the current version
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
@@ -120,7 +376,7 @@ public class Graph<T extends Node> {
     public int getVertexCount() {
         int count = 0;
         for(T v: this.map.keySet()) {
-            if (v.getAliveStatus()) {
+            if (isAlive(v)) {
                 count++;
             }
         }
@@ -128,18 +384,21 @@ public class Graph<T extends Node> {
     }
  
     /**
-     * Get the number of edges in the graph
+     * Get the number of edges in the graph (parallel copies included, edges touching a disabled vertex excluded)
      * @return Number of edges in the graph
      */
     public int getEdgesCount() {
+        if (disabledCount == 0) {
+            return (int) (isUndirected ? arcCount / 2 : arcCount);
+        }
         int count = 0;
-        Iterator<Map.Entry<T, List<T>>> itr = map.entrySet().iterator();
+        Iterator<Map.Entry<T, Adjacency<T>>> itr = map.entrySet().iterator();
         while(itr.hasNext()) {
-            Map.Entry<T, List<T>> entry = itr.next();
+            Map.Entry<T, Adjacency<T>> entry = itr.next();
             T v = entry.getKey();
-            if(v.getAliveStatus()) {
-                for(T w: entry.getValue()) {
-                    if(w.getAliveStatus()) {
+            if(isAlive(v)) {
+                for(T w: entry.getValue().neighbors) {
+                    if(isAlive(w)) {
                         count += 1;
                     }
                 }
@@ -151,6 +410,109 @@ public class Graph<T extends Node> {
         return count;
     }
  
+    /**
+     * Get the number of distinct alive neighbors of a vertex (out-neighbors for a directed graph).
+     * Parallel copies of an edge count once, self-loops not at all, and a disabled vertex has degree 0.
+     * This is O(1) while no vertex is disabled and O(size of the adjacency list) otherwise.
+     * @param v reference to the vertex object
+     * @return degree of `v`
+     * @throws NullPointerException when the given vertex reference is not found in the graph.
+     */
+    public int degree(T v) {
+        checkVertex(v);
+        Adjacency<T> adjacency = map.get(v);
+        return liveDegree(v, adjacency.neighbors.iterator(), adjacency.degree);
+    }
+
+    /**
+     * Get the number of distinct alive in-neighbors of a vertex (same as `degree` for an undirected graph).
+     * This is O(1) while no vertex is disabled and O(number of incoming edges) otherwise.
+     * @param v reference to the vertex object
+     * @return in-degree of `v`
+     * @throws NullPointerException when the given vertex reference is not found in the graph.
+     */
+    public int getInDegree(T v) {
+        checkVertex(v);
+        if (isUndirected) {
+            return degree(v);
+        }
+        return liveDegree(v, inNeighbors(v), map.get(v).inDegree);
+    }
+
+    /**
+     * Get the degree distribution of the alive vertices (see `degree`)
+     * @return number of vertices per degree, indexed by degree (up to the largest degree)
+     */
+    public int[] getDegreeHistogram() {
+        int[] histogram = new int[1];
+        int maxDegree = 0;
+        for (Map.Entry<T, Adjacency<T>> entry : map.entrySet()) {
+            T v = entry.getKey();
+            if (!isAlive(v)) {
+                continue;
+            }
+            Adjacency<T> adjacency = entry.getValue();
+            int degree = liveDegree(v, adjacency.neighbors.iterator(), adjacency.degree);
+            if (degree >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, Math.max(degree + 1, 2 * histogram.length));
+            }
+            histogram[degree]++;
+            maxDegree = Math.max(maxDegree, degree);
+        }
+        return Arrays.copyOf(histogram, maxDegree + 1);
+    }
+
+    /**
+     * The maintained degree of `v` less its distinct disabled neighbors, found by one pass over `neighbors`
+     * (skipped while no vertex is disabled); 0 if `v` itself is disabled.
+     */
+    private int liveDegree(T v, Iterator<T> neighbors, int degree) {
+        if (disabledCount == 0) {
+            return degree;
+        }
+        if (!isAlive(v)) {
+            return 0;
+        }
+        Set<T> dead = null;
+        while (neighbors.hasNext()) {
+            T w = neighbors.next();
+            if (!isAlive(w) && !w.equals(v)) {
+                if (dead == null) {
+                    dead = new HashSet<>();
+                }
+                dead.add(w);
+            }
+        }
+        return dead == null ? degree : degree - dead.size();
+    }
+
+    /**
+     * Whether the graph is undirected
+     * @return true if the graph is undirected
+     */
+    public boolean isUndirected() {
+        return this.isUndirected;
+    }
+
+    /**
+     * Whether any edge was added with a (non-zero) weight
+     * @return true if the graph carries edge weights
+     */
+    public boolean isWeighted() {
+        return this.isWeighted;
+    }
+
+    /**
+     * Get the weight of the edge between the vertices `s` and `d` (the first one added, for parallel edges)
+     * @param s Source vertex
+     * @param d Destination vertex.
+     * @return weight of the edge, or 0.0 if there is no such edge or it carries no weight
+     */
+    public double getWeight(T s, T d) {
+        Incidence<T> edge = edgeMap.get(new GraphEdge<>(s, d, isUndirected));
+        return edge == null ? 0.0 : edge.weight;
+    }
+
     /**
      * Get the source vertex
      * @return reference to the source vertex object
@@ -168,20 +530,22 @@ public class Graph<T extends Node> {
     }
 
     /**
-     * Get the adjacency list of the provided vertex reference
+     * Get the adjacency list of the provided vertex reference.
+     * The list is a read-only view that follows later edits; change the graph through `addEdge` and `removeEdge`.
      * @param v Reference to the vertex
-     * @return Adjacency list of the provided vertex.
+     * @return unmodifiable adjacency list of the provided vertex, or null if `v` is not in the graph
      */
     public List<T> getAdjList(T v) {
-        return map.get(v);
+        Adjacency<T> adjacency = map.get(v);
+        return adjacency == null ? null : adjacency.view;
     }
 
     /**
      * Get the collection of vertices in the graph
-     * @return set of vertices in the graph
+     * @return unmodifiable set of vertices in the graph
      */
     public Set<T> getVertices() {
-        return map.keySet();
+        return Collections.unmodifiableSet(map.keySet());
     }
 
     /**
@@ -200,9 +564,88 @@ public class Graph<T extends Node> {
      * @return True if there's an edge between `s` and `d`. False, otherwise.
      */
     public boolean hasEdge(T s, T d) {
-        return map.get(s).contains(d); 
+        return edgeMap.containsKey(new GraphEdge<>(s, d, isUndirected));
     }
  
+    /**
+     * Get a view of the subgraph induced by a set of vertices (see `GraphView`).
+     * @param vertices the vertices of the view; read, not copied, so later changes of the set show through
+     * @return the view
+     */
+    public GraphView<T> induced(Set<? extends T> vertices) {
+        return new GraphView.Induced<>(this, vertices::contains);
+    }
+
+    /**
+     * Get a view of the subgraph induced by the vertices accepted by a predicate (see `GraphView`).
+     * @param vertices whether a vertex belongs to the view
+     * @return the view
+     */
+    public GraphView<T> induced(Predicate<? super T> vertices) {
+        return new GraphView.Induced<>(this, vertices);
+    }
+
+    /**
+     * Get a view with only the edges accepted by a predicate (see `GraphView`), e.g. the lines above a rating.
+     * For an undirected graph the predicate is asked with the endpoint of smaller value first.
+     * @param edges whether the edge from the first vertex to the second belongs to the view
+     * @return the view
+     */
+    public GraphView<T> filterEdges(BiPredicate<? super T, ? super T> edges) {
+        return new GraphView.EdgeFiltered<>(this, edges);
+    }
+
+    /**
+     * Get a view with every edge turned around (see `GraphView`); for an undirected graph it has the same edges.
+     * @return the view
+     */
+    public GraphView<T> reversed() {
+        return new GraphView.Reversed<>(this);
+    }
+
+    /**
+     * Get an undirected view (see `GraphView`): every arc becomes an edge, so opposite arcs become two parallel
+     * edges.
+     * @return the view
+     */
+    public GraphView<T> asUndirected() {
+        return new GraphView.Undirected<>(this);
+    }
+
+    /**
+     * Get the in-neighbors of a vertex with parallel copies repeated, as the adjacency lists repeat them
+     * (the adjacency list itself for an undirected graph).
+     * @param v vertex of the graph
+     * @return iterator over the in-neighbors
+     */
+    Iterator<T> inNeighbors(T v) {
+        if (incoming == null) {
+            return map.get(v).neighbors.iterator();
+        }
+        List<Incidence<T>> in = incoming.get(v);
+        return new Iterator<T>() {
+            private int next;
+            private int copies;
+
+            @Override
+            public boolean hasNext() {
+                return copies > 0 || next < in.size();
+            }
+
+            @Override
+            public T next() {
+                if (copies == 0) {
+                    if (next == in.size()) {
+                        throw new NoSuchElementException();
+                    }
+                    copies = in.get(next++).srcCount;
+                }
+                copies--;
+                return in.get(next - 1).src;
+            }
+        };
+    }
+
     /**
      * Convert the graph into its equivalent string format.
      * @return the string format of the graph.
@@ -210,11 +653,11 @@ public class Graph<T extends Node> {
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
-        map.forEach((vertex, adjList) -> {
-            if(vertex.getAliveStatus()) {
+        map.forEach((vertex, adjacency) -> {
+            if(isAlive(vertex)) {
                 builder.append(vertex.toString() + ": ");
-                for (T w : adjList) {
-                    if(w.getAliveStatus()) {
+                for (T w : adjacency.neighbors) {
+                    if(isAlive(w)) {
                         builder.append(w.toString() + " ");
                     }
                 }
@@ -223,4 +666,63 @@ public class Graph<T extends Node> {
         });
         return (builder.toString());
     }
+
+    /**
+     * The adjacency list of a vertex with its maintained degree counters.
+     */
+    private static final class Adjacency<T> {
+        private final ArrayList<T> neighbors = new ArrayList<>();
+        private final List<T> view = Collections.unmodifiableList(neighbors);
+        private int degree;
+        private int inDegree;
+    }
+
+    /**
+     * An edge with its positions in the adjacency lists: `srcSlots` index the entries `dest` in the list of `src`,
+     * `destSlots` the entries `src` in the list of `dest` (undirected edges other than self-loops; the slots of an
+     * undirected self-loop are all `srcSlots`), and `inSlot` the edge in the incoming list of `dest` (directed).
+     */
+    private static final class Incidence<T extends Node> {
+        private final T src;
+        private final T dest;
+        private final double weight;
+        private int[] srcSlots = new int[1];
+        private int srcCount;
+        private int[] destSlots;
+        private int destCount;
+        private int inSlot;
+
+        Incidence(T src, T dest, double weight) {
+            this.src = src;
+            this.dest = dest;
+            this.weight = weight;
+        }
+
+        void addSlot(T v, int slot) {
+            if (v.equals(src)) {
+                if (srcCount == srcSlots.length) {
+                    srcSlots = Arrays.copyOf(srcSlots, 2 * srcCount);
+                }
+                srcSlots[srcCount++] = slot;
+            } else {
+                if (destSlots == null) {
+                    destSlots = new int[1];
+                } else if (destCount == destSlots.length) {
+                    destSlots = Arrays.copyOf(destSlots, 2 * destCount);
+                }
+                destSlots[destCount++] = slot;
+            }
+        }
+
+        void moveSlot(T v, int from, int to) {
+            int[] slots = v.equals(src) ? srcSlots : destSlots;
+            int count = v.equals(src) ? srcCount : destCount;
+            for (int i = 0; i < count; i++) {
+                if (slots[i] == from) {
+                    slots[i] = to;
+                    return;
+                }
+            }
+        }
+    }
 }
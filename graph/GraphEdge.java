@@ -43,15 +43,19 @@ public class GraphEdge<T extends Node> {
      */
     @Override
     public int hashCode() {
+        if (isUndirected) {
+            // (a, b) and (b, a) are the same undirected edge
+            return 7 + 31 * (src.hashCode() + dest.hashCode());
+        }
         int hash = 7;
         hash = 31 * hash + (src.hashCode());
         hash = 47 * hash + (dest.hashCode());
-        hash = hash + (int) weight;
+        // The weight is not part of `equals`, so it must not be part of the hash either
         return hash;
     }
 
     /**
-     * Checks equality of two edges.
+     * Checks equality of two edges; the endpoints of undirected edges may be given in either order.
      */
     @Override
     public boolean equals(Object o) {
@@ -63,9 +67,11 @@ public class GraphEdge<T extends Node> {
         }
 
         @SuppressWarnings("unchecked") GraphEdge<T> graphEdge = (GraphEdge<T>) o;
-        return this.src.equals(graphEdge.src) 
-            && this.dest.equals(graphEdge.dest) 
-            && this.isUndirected == graphEdge.isUndirected;
+        if (this.isUndirected != graphEdge.isUndirected) {
+            return false;
+        }
+        return (this.src.equals(graphEdge.src) && this.dest.equals(graphEdge.dest))
+            || (isUndirected && this.src.equals(graphEdge.dest) && this.dest.equals(graphEdge.src));
     }
 
     /**
@@ -1,26 +1,38 @@
 package graph;
 
+import graph.algo.BetweennessCentrality;
+import graph.algo.Biconnectivity;
+import graph.algo.ContingencySweep;
+import graph.algo.CoreDecomposition;
+import graph.algo.GraphPartitioner;
+import graph.dist.DistributedAnalysis;
+import graph.metrics.Invocation;
+import graph.metrics.MetricsRegistry;
+import graph.trace.TraceReplay;
+import graph.trace.TraceWriter;
+import graph.trace.TraversalListener;
+
 import java.util.Queue;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.Deque;
+import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.Arrays;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 /**
  * A class containing basic graph operations.
+ * Every operation is instrumented: with `MetricsRegistry.getDefault()` enabled, each invocation records its wall
+ * time, the vertices and edges it visited, its max stack/frontier depth and its allocation under the method name
+ * (`Graph` overloads) or the method name + `Indexed` (`IndexedGraph` overloads).
  */
 public class GraphOps {
         
     private static final int STEP_INTERVAL = 10;
-    private static int stepCount = 0;
-    private static long totalTime = 0;
-    private static long startTime = 0;
-    private static long endTime = 0;
+    private static final String DEMO_DATA_PATH = "data/demo_data/";
     /**
      * Private constructor to hide the default one.
      */
@@ -31,7 +43,7 @@ public class GraphOps {
      */
     public static class MyInteger {
         public Integer integer;
-        MyInteger(Integer value) {
+        public MyInteger(Integer value) {
             this.integer = value;
         }
         public String toString() {
@@ -39,31 +51,55 @@ public class GraphOps {
         }
     }
 
+    /**
+     * Get the size of an array indexed by `getValue()`.
+     * `getVertexCount()` only counts the alive vertices, so it is too small as soon as a vertex is disabled.
+     * @param graph The graph object
+     * @return largest vertex value + 1
+     */
+    private static int valueBound(Graph<Node> graph) {
+        int bound = 0;
+        for (Node v: graph.getVertices()) {
+            bound = Math.max(bound, v.getValue() + 1);
+        }
+        return bound;
+    }
+
     /**
      * Performs iterative DFS on the provided graph.
      * @param graph The graph object
      */
     public static void dfsIterative(Graph<Node> graph) {
-        Deque<Node> stack = new LinkedList<>();
-        boolean[] isVisited = new boolean[graph.getVertexCount()];
-        stack.push(graph.getSource());
+        Invocation call = MetricsRegistry.getDefault().start("dfsIterative");
+        long vertices = 0;
+        long edges = 0;
+        int maxDepth = 0;
+        Deque<Node> stack = new ArrayDeque<>();
+        boolean[] isVisited = new boolean[valueBound(graph)];
+        if (graph.getSource() != null) {
+            stack.push(graph.getSource());
+        }
         for(Node v: graph.getVertices()) {
-            if(v.getAliveStatus() && !isVisited[v.getValue()]) {
+            if(graph.isAlive(v) && !isVisited[v.getValue()]) {
                 stack.push(v);
             }
             while (!stack.isEmpty()) {
+                maxDepth = Math.max(maxDepth, stack.size());
                 Node current = stack.pop();
-                if(current.getAliveStatus() && !isVisited[current.getValue()]) {
+                if(graph.isAlive(current) && !isVisited[current.getValue()]) {
                     isVisited[current.getValue()] = true;
+                    vertices++;
                     System.out.println(current.getLabel());
                     for (Node dest : graph.getAdjList(current)) {
-                        if (current.getAliveStatus() && !isVisited[dest.getValue()]) {
+                        edges++;
+                        if (graph.isAlive(current) && !isVisited[dest.getValue()]) {
                             stack.push(dest);
                         }
                     }
                 }
             }
         }
+        call.finish(vertices, edges, maxDepth);
     }
 
     /**
@@ -71,39 +107,60 @@ public class GraphOps {
      * @param graph the graph object
      */
     public static void bfsIterative(Graph<Node> graph) {
-        Queue<Node> queue = new LinkedList<>();
-        boolean[] isVisited = new boolean[graph.getVertexCount()];
-        queue.add(graph.getSource());
+        Invocation call = MetricsRegistry.getDefault().start("bfsIterative");
+        long vertices = 0;
+        long edges = 0;
+        int maxDepth = 0;
+        Queue<Node> queue = new ArrayDeque<>();
+        boolean[] isVisited = new boolean[valueBound(graph)];
+        if (graph.getSource() != null) {
+            queue.add(graph.getSource());
+        }
         for(Node v: graph.getVertices()) {
-            if(v.getAliveStatus() && !isVisited[v.getValue()]) {
+            if(graph.isAlive(v) && !isVisited[v.getValue()]) {
                 queue.add(v);
             }
             while(!queue.isEmpty()) {
+                maxDepth = Math.max(maxDepth, queue.size());
                 Node current = queue.poll();
-                if (current.getAliveStatus() && !isVisited[current.getValue()]) {
+                if (graph.isAlive(current) && !isVisited[current.getValue()]) {
                     isVisited[current.getValue()] = true;
+                    vertices++;
                     System.out.println(current.getLabel());
                     for (Node dest: graph.getAdjList(current)) {
-                        if (current.getAliveStatus() && !isVisited[dest.getValue()]) {
+                        edges++;
+                        if (graph.isAlive(current) && !isVisited[dest.getValue()]) {
                             queue.add(dest);
                         }
                     }
                 }
             }
         }
+        call.finish(vertices, edges, maxDepth);
     }
 
     /**
      * A private auxilliary method to traverse the graph in depth-first manner for counting the connected components.
+     * Uses an explicit stack so that long paths do not overflow the call stack.
      * @param graph Graph object reference
      * @param isVisited Map containing status of nodes
-     * @param current Vertex currently being visited
+     * @param start Vertex from which the component is explored
+     * @param steps visited vertices, examined edges and max stack depth, updated in place
      */
-    private static void connectedComponentsUtil(Graph<Node> graph, Map<Node, Boolean> isVisited, Node current) throws Exception {
-        isVisited.put(current, true); 
-        for(Node dest: graph.getAdjList(current)) {
-            if (graph.hasVertex(dest) && dest.getAliveStatus() && Boolean.TRUE.equals(!isVisited.get(dest))) {
-                connectedComponentsUtil(graph, isVisited, dest);
+    private static void connectedComponentsUtil(Graph<Node> graph, Map<Node, Boolean> isVisited, Node start, long[] steps) {
+        Deque<Node> stack = new ArrayDeque<>();
+        isVisited.put(start, true);
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            steps[2] = Math.max(steps[2], stack.size());
+            Node current = stack.pop();
+            steps[0]++;
+            for(Node dest: graph.getAdjList(current)) {
+                steps[1]++;
+                if (graph.hasVertex(dest) && graph.isAlive(dest) && Boolean.TRUE.equals(!isVisited.get(dest))) {
+                    isVisited.put(dest, true);
+                    stack.push(dest);
+                }
             }
         }
     }
@@ -114,86 +171,56 @@ public class GraphOps {
      * @return number of connected components
      */
     public static int countConnectedComponents(Graph<Node> graph) {
+        Invocation call = MetricsRegistry.getDefault().start("countConnectedComponents");
+        long[] steps = new long[3];
         int connectedComponentsCount = 0;
         Map<Node, Boolean> isVisited = new HashMap<>();
         for (Node graphNode: graph.getVertices()) {
             isVisited.put(graphNode, false);
         }
-        try{
-            for(Node v: graph.getVertices()) {
-                if (graph.hasVertex(v) && v.getAliveStatus() && Boolean.TRUE.equals(!isVisited.get(v))) {
-                    connectedComponentsUtil(graph, isVisited, v);
-                    connectedComponentsCount += 1;
-                }
+        for(Node v: graph.getVertices()) {
+            if (graph.hasVertex(v) && graph.isAlive(v) && Boolean.TRUE.equals(!isVisited.get(v))) {
+                connectedComponentsUtil(graph, isVisited, v, steps);
+                connectedComponentsCount += 1;
             }
-        } catch(Exception e) {
-            e.printStackTrace();
         }
+        call.finish(steps[0], steps[1], steps[2]);
         return connectedComponentsCount;
     }
 
     /**
-     * Save the data for demo purposes.
-     * @param graph The gaph object
-     * @param visited Boolean array indicating visited vertices
-     * @param articulationPoints Set of articulation point vertices
-     * @param step Step at which the data is being saved.
+     * A DFS frame of the iterative articulation point detection.
      */
-    private static void saveTheData(Graph<Node> graph, boolean[] visited, Set<Node> articulationPoints, String step) {
-        try (
-            FileWriter fw = new FileWriter("data/demo_data/demo_step_" + step + ".txt");
-            BufferedWriter bw = new BufferedWriter(fw)
-        ) {
-            for(Node vertex: graph.getVertices()) {
-                String line = "";
-                line = line + String.valueOf(vertex.getValue()) + " ";
-                if(visited[vertex.getValue()]) {
-                    line = line + "1" + " ";
-                } else {
-                    line = line + "0" + " ";
-                }
-                if (articulationPoints.contains(vertex)) {
-                    line = line + "1" + " ";
-                } else {
-                    line = line + "0" + " ";
-                }
-                bw.write(line);
-                bw.newLine();
-            }
-        } catch(IOException e) {
-            e.printStackTrace();
-        }
-    }
+    private static final class Frame {
+        private final Node vertex;
+        private final Node parent;
+        private final Iterator<Node> neighbors;
+        private int children;
 
-    /**
-     * Pad the step count with zeros
-     * @param step The step number
-     * @param len The final length of padded string
-     * @return The zero padded (prepended) string.
-     */
-    private static String stepPadded(String step, int len) {
-        int zeroPadLen = len - step.length();
-        StringBuilder pad = new StringBuilder();
-        for(int i = 0; i < zeroPadLen; i++) {
-            pad.append("0");
+        Frame(Node vertex, Node parent, Iterator<Node> neighbors) {
+            this.vertex = vertex;
+            this.parent = parent;
+            this.neighbors = neighbors;
+            this.children = 0;
         }
-        return pad.toString() + step;
     }
 
     /**
-     * Depth first search auxilliary function for detecting articulation points
-     * @param v Reference to the current `GraphNode`
-     * @param parentNode Reference to the parent `GraphNode`
+     * Depth first search auxilliary function for detecting articulation points.
+     * The DFS keeps an explicit stack of frames, so long paths do not overflow the call stack.
+     * @param root Reference to the `GraphNode` the DFS starts from
+     * @param parentNode Reference to the (sentinel) parent `GraphNode` of the root
      * @param graph The `Graph` object
      * @param visited Boolean array showing which vertices are visited
      * @param discovery integer array storing the depth (or discovery time) of a vertex in the DFS tree.
      * @param low integer array storing the low-point values of each vertex
      * @param timer Integer that helps in calculating the depth of each vertex in the DFS tree
      * @param articulationPoints a container to store the references of detected of Articulation points.
-     * @param saveData a boolean flag indicating whether to store data ot not (pass `true` to save the data).
+     * @param listener receiver of the traversal events
+     * @param steps examined edges and max stack depth, updated in place
      */
     private static void articulationPointDetectionUtil (
-        Node v,
+        Node root,
         Node parentNode,
         Graph<Node> graph,
         boolean[] visited,
@@ -201,46 +228,65 @@ public class GraphOps {
         int[] low,
         MyInteger timer,
         Set<Node> articulationPoints,
-        boolean saveData
+        TraversalListener listener,
+        long[] steps
     ) {
-        int children = 0;
-        visited[v.getValue()] = true;
+        Deque<Frame> stack = new ArrayDeque<>();
+        visited[root.getValue()] = true;
         timer.integer = timer.integer + 1;
-        discovery[v.getValue()] = low[v.getValue()] = timer.integer;
+        discovery[root.getValue()] = low[root.getValue()] = timer.integer;
+        listener.onDiscover(root.getValue(), timer.integer);
+        stack.push(new Frame(root, parentNode, graph.getAdjList(root).iterator()));
+        steps[1] = Math.max(steps[1], 1);
 
-        for (Node w: graph.getAdjList(v)) {
-            stepCount += 1;
-            if(saveData && stepCount % STEP_INTERVAL == 0) {
-                // Save the data on device
-                endTime = System.currentTimeMillis();
-                totalTime += (endTime - startTime);
-                saveTheData(graph, visited, articulationPoints, stepPadded(String.valueOf(stepCount), 5));
-                // System.out.println("Saving the data on device! stepCount = " + stepCount);
-                startTime = System.currentTimeMillis();
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            Node v = frame.vertex;
+            if (frame.neighbors.hasNext()) {
+                Node w = frame.neighbors.next();
+                steps[0]++;
+                listener.onVisit(w.getValue());
+                if (graph.isAlive(w) && !visited[w.getValue()]) {
+                    frame.children++;
+                    visited[w.getValue()] = true;
+                    timer.integer = timer.integer + 1;
+                    discovery[w.getValue()] = low[w.getValue()] = timer.integer;
+                    listener.onDiscover(w.getValue(), timer.integer);
+                    stack.push(new Frame(w, v, graph.getAdjList(w).iterator()));
+                    steps[1] = Math.max(steps[1], stack.size());
+                } else if (graph.isAlive(w) && w.getValue() != frame.parent.getValue()
+                        && discovery[w.getValue()] < low[v.getValue()]) {
+                    low[v.getValue()] = discovery[w.getValue()];
+                    listener.onLowUpdate(v.getValue(), low[v.getValue()]);
+                }
+                continue;
             }
-            if (w.getAliveStatus() && !visited[w.getValue()]) {
-                children++;
-                articulationPointDetectionUtil(w, v, graph, visited, discovery, low, timer, articulationPoints, saveData);
-
-                low[v.getValue()] = Math.min(low[v.getValue()], low[w.getValue()]);
-
-                if (parentNode.getValue() != -1 && low[w.getValue()] >= discovery[v.getValue()]) {
-                    articulationPoints.add(v);
+            // All neighbors of `v` are done: return to the parent frame
+            stack.pop();
+            if (frame.parent.getValue() == -1 && frame.children > 1 && articulationPoints.add(v)) {
+                listener.onArticulationPoint(v.getValue());
+            }
+            Frame parentFrame = stack.peek();
+            if (parentFrame != null) {
+                Node p = parentFrame.vertex;
+                if (low[v.getValue()] < low[p.getValue()]) {
+                    low[p.getValue()] = low[v.getValue()];
+                    listener.onLowUpdate(p.getValue(), low[p.getValue()]);
+                }
+                if (parentFrame.parent.getValue() != -1 && low[v.getValue()] >= discovery[p.getValue()]
+                        && articulationPoints.add(p)) {
+                    listener.onArticulationPoint(p.getValue());
                 }
-            } else if (v.getValue() != parentNode.getValue()) {
-                low[v.getValue()] = Math.min(low[v.getValue()], discovery[w.getValue()]);
             }
         }
-
-        if (parentNode.getValue() == -1 && children > 1) {
-            articulationPoints.add(v);
-        }
     }
 
     /**
      * Detect all articulation points in the graph
      * @param graph Reference to the `Graph` object.
      * @param saveData a boolean flag indicating whether to store data ot not (pass `true` to save the data).
+     *                 The run is traced to `data/demo_data/` in the background and the `demo_step_XXXXX.txt`
+     *                 frames are regenerated from the trace once the algorithm is done (see `TraceReplay`).
      * @param time Integer that helps in calculating the depth of each vertex in the DFS tree
      * @return set of all the detected Articulation points.
      */
@@ -249,30 +295,79 @@ public class GraphOps {
         boolean saveData,
         MyInteger time
     ) {
-        // Initialize step count
-        stepCount = 0;
+        if (!saveData) {
+            return detectArticulationPoints(graph, TraversalListener.NONE, time);
+        }
+        String tracePath = DEMO_DATA_PATH + "demo_trace.bin";
+        TraceWriter trace;
+        try {
+            trace = new TraceWriter(tracePath);
+        } catch (IOException e) {
+            // No trace to replay, but the articulation points are still computed
+            e.printStackTrace();
+            return detectArticulationPoints(graph, TraversalListener.NONE, time);
+        }
+        Set<Node> articulationPoints;
+        boolean traced = true;
+        try {
+            articulationPoints = detectArticulationPoints(graph, trace, time);
+        } finally {
+            try {
+                trace.close();
+            } catch (IOException e) {
+                // Write errors surface on close; the points are computed, only the frames are lost
+                e.printStackTrace();
+                traced = false;
+            }
+        }
+        // Save the data on device
+        if (traced) {
+            try {
+                TraceReplay.writeFrames(tracePath, DEMO_DATA_PATH, STEP_INTERVAL);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return articulationPoints;
+    }
+
+    /**
+     * Detect all articulation points in the graph and report the progress to a listener.
+     * A step (`onVisit`) is emitted for every vertex considered as a DFS root and for every adjacency entry examined.
+     * @param graph Reference to the `Graph` object.
+     * @param listener receiver of the traversal events (`TraversalListener.NONE` to ignore them)
+     * @param time Integer that helps in calculating the depth of each vertex in the DFS tree
+     * @return set of all the detected Articulation points.
+     */
+    public static Set<Node> detectArticulationPoints(
+        Graph<Node> graph,
+        TraversalListener listener,
+        MyInteger time
+    ) {
+        Invocation call = MetricsRegistry.getDefault().start("detectArticulationPoints");
+        long[] steps = new long[2];
         MyInteger timer = new MyInteger(0);
-        int[] discovery = new int[graph.getVertexCount()];
-        int[] low = new int[graph.getVertexCount()];
-        boolean[] visited = new boolean[graph.getVertexCount()];
+        int bound = valueBound(graph);
+        int[] discovery = new int[bound];
+        int[] low = new int[bound];
+        boolean[] visited = new boolean[bound];
         Arrays.fill(discovery, 0);
         Arrays.fill(visited, false);
         Set<Node> vertices = graph.getVertices();
         Set<Node> articulationPoints = new HashSet<>();
         Node parent = new GraphNode(-1);
-        // Start time
-        startTime = System.currentTimeMillis();
-        for (Node v: vertices) {
-            stepCount += 1;
-            if(saveData && stepCount % STEP_INTERVAL == 0) {
-                // End time
-                endTime = System.currentTimeMillis();
-                totalTime += (endTime - startTime);
-                // Save the data on device
-                saveTheData(graph, visited, articulationPoints, stepPadded(String.valueOf(stepCount), 5));
-                startTime = System.currentTimeMillis();
+        if (listener != TraversalListener.NONE) {
+            int[] values = new int[vertices.size()];
+            int i = 0;
+            for (Node v: vertices) {
+                values[i++] = v.getValue();
             }
-            if (graph.hasVertex(v) && v.getAliveStatus() && !visited[v.getValue()]) {
+            listener.onStart(values);
+        }
+        long startTime = System.nanoTime();
+        for (Node v: vertices) {
+            listener.onVisit(v.getValue());
+            if (graph.hasVertex(v) && graph.isAlive(v) && !visited[v.getValue()]) {
                 articulationPointDetectionUtil(
                     v, 
                     parent,
@@ -282,23 +377,23 @@ public class GraphOps {
                     low,
                     timer,
                     articulationPoints,
-                    saveData
+                    listener,
+                    steps
                 );
             }
         }
-        endTime = System.currentTimeMillis();
-        totalTime += (endTime - startTime);
-        time.integer = (int) (totalTime);
-        System.out.println("Total time taken: " + totalTime + " ms");
-        // Save the final data
-        if (saveData) {
-            saveTheData(graph, visited, articulationPoints, "final");
-        }
+        listener.onFinish();
+        long elapsed = System.nanoTime() - startTime;
+        call.finish(timer.integer, steps[0], steps[1]);
+        time.integer = (int) TimeUnit.NANOSECONDS.toMillis(elapsed);
+        System.out.println("Total time taken: " + time.integer + " ms");
         return articulationPoints;
-    }    
+    }
 
     /**
      * Detect all the articulation points in a graph using brute force.
+     * Every vertex outage is evaluated by a parallel `ContingencySweep` over a CSR snapshot of the graph,
+     * so the graph itself is never mutated.
      * @param graph Reference to the `Graph` object.
      * @param saveData a boolean flag indicating whether to store data ot not (pass `true` to save the data).
      * @param time Integer that helps in calculating the depth of each vertex in the DFS tree
@@ -309,22 +404,254 @@ public class GraphOps {
         boolean saveData,
         MyInteger time
     ) {
-        int ccBefore = 0;
-        int ccAfter = 0;
-        startTime = System.currentTimeMillis();
+        Invocation call = MetricsRegistry.getDefault().start("detectArticulationPoints_BruteForce");
+        long startTime = System.nanoTime();
         Set<Node> articulationPoints = new HashSet<>();
-        ccBefore = countConnectedComponents(graph);
+        CSRGraph snapshot = CSRGraph.fromGraph(graph);
+        ContingencySweep.Result outages = new ContingencySweep(snapshot).sweepVertices();
+        int ccBefore = outages.getBaseComponentCount();
         for(Node v: graph.getVertices()) {
-            graph.disableVertex(v);
-            ccAfter = countConnectedComponents(graph);
-            if (ccAfter != ccBefore) {
+            int id = snapshot.indexOf(v.getValue());
+            if (graph.isAlive(v) && id >= 0 && outages.getComponentCount(id) != ccBefore) {
                 articulationPoints.add(v);
             }
-            graph.enableVertex(v);
         }
-        endTime = System.currentTimeMillis();
-        time.integer = (int) (endTime - startTime);
-        System.out.println("Time taken by brute force: " + (endTime-startTime) + " ms");
+        long elapsed = System.nanoTime() - startTime;
+        call.finishTimed();
+        time.integer = (int) TimeUnit.NANOSECONDS.toMillis(elapsed);
+        System.out.println("Time taken by brute force: " + time.integer + " ms");
+        return articulationPoints;
+    }
+
+    /**
+     * Get the betweenness centrality of every alive vertex, i.e. how many shortest paths between other vertices run
+     * through it (see `BetweennessCentrality`; the centralities are computed on a CSR snapshot of the graph).
+     * @param graph Reference to the `Graph` object.
+     * @param samples number of sampled sources for an estimate, or 0 for the exact centrality
+     * @return centrality per vertex
+     */
+    public static Map<Node, Double> betweennessCentrality(Graph<Node> graph, int samples) {
+        Invocation call = MetricsRegistry.getDefault().start("betweennessCentrality");
+        CSRGraph snapshot = CSRGraph.fromGraph(graph);
+        BetweennessCentrality engine = new BetweennessCentrality(snapshot);
+        BetweennessCentrality.Result result = samples > 0 ? engine.approximate(samples, 0L) : engine.exact();
+        Map<Node, Double> centrality = new HashMap<>();
+        for (Node v: graph.getVertices()) {
+            int id = snapshot.indexOf(v.getValue());
+            if (graph.isAlive(v) && id >= 0) {
+                centrality.put(v, result.getCentrality(id));
+            }
+        }
+        call.finishTimed();
+        return centrality;
+    }
+
+    /**
+     * Get the core number of every alive vertex, i.e. the largest `k` such that the vertex belongs to a subgraph where
+     * every vertex has at least `k` neighbors (see `CoreDecomposition`; computed on a CSR snapshot of the graph).
+     * High cores are the densely meshed backbone of a network, core 1 its radial feeders.
+     * @param graph Reference to the `Graph` object.
+     * @return core number per vertex
+     */
+    public static Map<Node, Integer> coreNumbers(Graph<Node> graph) {
+        Invocation call = MetricsRegistry.getDefault().start("coreNumbers");
+        CSRGraph snapshot = CSRGraph.fromGraph(graph);
+        CoreDecomposition.Result result = new CoreDecomposition(snapshot).run();
+        Map<Node, Integer> cores = new HashMap<>();
+        for (Node v: graph.getVertices()) {
+            int id = snapshot.indexOf(v.getValue());
+            if (graph.isAlive(v) && id >= 0) {
+                cores.put(v, result.getCoreNumber(id));
+            }
+        }
+        call.finishTimed();
+        return cores;
+    }
+
+    /**
+     * Split the alive vertices into `k` pieces with few edges between them (see `GraphPartitioner`; computed on a
+     * CSR snapshot of the graph).
+     * @param graph Reference to the `Graph` object.
+     * @param k number of pieces
+     * @return piece in `[0, k)` per vertex
+     * @throws IllegalArgumentException when `k` is not positive.
+     */
+    public static Map<Node, Integer> partition(Graph<Node> graph, int k) {
+        Invocation call = MetricsRegistry.getDefault().start("partition");
+        CSRGraph snapshot = CSRGraph.fromGraph(graph);
+        GraphPartitioner.Result result = new GraphPartitioner(snapshot).partition(k);
+        Map<Node, Integer> parts = new HashMap<>();
+        for (Node v: graph.getVertices()) {
+            int id = snapshot.indexOf(v.getValue());
+            if (graph.isAlive(v) && id >= 0) {
+                parts.put(v, result.getPart(id));
+            }
+        }
+        call.finishTimed();
+        return parts;
+    }
+
+    /**
+     * Get the number of connected components, computed by worker processes on pieces of the graph
+     * (see `DistributedAnalysis`; this JVM still builds and partitions a snapshot of the whole graph).
+     * @param graph Reference to the (undirected) `Graph` object.
+     * @param workers number of worker processes
+     * @return number of connected components
+     * @throws IOException when a worker cannot be started or fails.
+     */
+    public static int countConnectedComponentsDistributed(Graph<Node> graph, int workers) throws IOException {
+        Invocation call = MetricsRegistry.getDefault().start("countConnectedComponentsDistributed");
+        CSRGraph snapshot = CSRGraph.fromGraph(graph);
+        DistributedAnalysis.Result result = new DistributedAnalysis(snapshot, workers).run();
+        call.finishTimed();
+        return result.getComponentCount();
+    }
+
+    /**
+     * Detect all articulation points, computed by worker processes on pieces of the graph
+     * (see `DistributedAnalysis`; this JVM still builds and partitions a snapshot of the whole graph); the result
+     * is that of `detectArticulationPoints`.
+     * @param graph Reference to the (undirected) `Graph` object.
+     * @param workers number of worker processes
+     * @return set of all the detected Articulation points.
+     * @throws IOException when a worker cannot be started or fails.
+     */
+    public static Set<Node> detectArticulationPointsDistributed(Graph<Node> graph, int workers) throws IOException {
+        Invocation call = MetricsRegistry.getDefault().start("detectArticulationPointsDistributed");
+        CSRGraph snapshot = CSRGraph.fromGraph(graph);
+        DistributedAnalysis.Result result = new DistributedAnalysis(snapshot, workers).run();
+        int[] ids = result.getArticulationPoints();
+        Set<Node> articulationPoints = new HashSet<>();
+        for (Node v: graph.getVertices()) {
+            int id = snapshot.indexOf(v.getValue());
+            if (graph.isAlive(v) && id >= 0 && Arrays.binarySearch(ids, id) >= 0) {
+                articulationPoints.add(v);
+            }
+        }
+        call.finishTimed();
+        return articulationPoints;
+    }
+
+    /**
+     * Performs iterative DFS on the provided indexed graph.
+     * (`GraphTraversal` offers reusable, allocation-free traversals with visitor callbacks.)
+     * @param graph The indexed graph object
+     */
+    public static void dfsIterative(IndexedGraph graph) {
+        Invocation call = MetricsRegistry.getDefault().start("dfsIterativeIndexed");
+        long vertices = 0;
+        long edges = 0;
+        int maxDepth = 0;
+        int n = graph.getVertexCount();
+        int[] stack = new int[graph.getArcCount() + n];
+        boolean[] isVisited = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            if (isVisited[v]) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = v;
+            while (top > 0) {
+                maxDepth = Math.max(maxDepth, top);
+                int current = stack[--top];
+                if (!isVisited[current]) {
+                    isVisited[current] = true;
+                    vertices++;
+                    System.out.println(graph.getLabel(current));
+                    edges += graph.degree(current);
+                    for (int i = graph.adjStart(current); i < graph.adjEnd(current); i++) {
+                        int dest = graph.getTarget(i);
+                        if (!isVisited[dest]) {
+                            stack[top++] = dest;
+                        }
+                    }
+                }
+            }
+        }
+        call.finish(vertices, edges, maxDepth);
+    }
+
+    /**
+     * Performs iterative BFS on the provided indexed graph.
+     * @param graph The indexed graph object
+     */
+    public static void bfsIterative(IndexedGraph graph) {
+        Invocation call = MetricsRegistry.getDefault().start("bfsIterativeIndexed");
+        long edges = 0;
+        int maxDepth = 0;
+        int n = graph.getVertexCount();
+        int[] queue = new int[n];
+        boolean[] isVisited = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            if (isVisited[v]) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            isVisited[v] = true;
+            queue[tail++] = v;
+            while (head < tail) {
+                maxDepth = Math.max(maxDepth, tail - head);
+                int current = queue[head++];
+                System.out.println(graph.getLabel(current));
+                edges += graph.degree(current);
+                for (int i = graph.adjStart(current); i < graph.adjEnd(current); i++) {
+                    int dest = graph.getTarget(i);
+                    if (!isVisited[dest]) {
+                        isVisited[dest] = true;
+                        queue[tail++] = dest;
+                    }
+                }
+            }
+        }
+        call.finish(n, edges, maxDepth);
+    }
+
+    /**
+     * Get the number of connected components in the indexed graph
+     * @param graph indexed graph object reference
+     * @return number of connected components
+     */
+    public static int countConnectedComponents(IndexedGraph graph) {
+        Invocation call = MetricsRegistry.getDefault().start("countConnectedComponentsIndexed");
+        int maxDepth = 0;
+        int n = graph.getVertexCount();
+        int[] stack = new int[n];
+        boolean[] isVisited = new boolean[n];
+        int connectedComponentsCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (isVisited[v]) {
+                continue;
+            }
+            connectedComponentsCount += 1;
+            int top = 0;
+            isVisited[v] = true;
+            stack[top++] = v;
+            while (top > 0) {
+                maxDepth = Math.max(maxDepth, top);
+                int current = stack[--top];
+                for (int i = graph.adjStart(current); i < graph.adjEnd(current); i++) {
+                    int dest = graph.getTarget(i);
+                    if (!isVisited[dest]) {
+                        isVisited[dest] = true;
+                        stack[top++] = dest;
+                    }
+                }
+            }
+        }
+        call.finish(n, graph.getArcCount(), maxDepth);
+        return connectedComponentsCount;
+    }
+
+    /**
+     * Detect all articulation points in the indexed graph (see `Biconnectivity` for bridges and blocks)
+     * @param graph Reference to the indexed graph object.
+     * @return ids of the detected articulation points in increasing order.
+     */
+    public static int[] detectArticulationPoints(IndexedGraph graph) {
+        Invocation call = MetricsRegistry.getDefault().start("detectArticulationPointsIndexed");
+        int[] articulationPoints = new Biconnectivity(graph).getArticulationPoints();
+        call.finishTimed();
         return articulationPoints;
     }
 }
@@ -0,0 +1,230 @@
+package graph;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of `GraphOps` results.
+ * Entries are keyed on (graph, `Graph.getVersion()`, operation, parameters): a repeated query on an unchanged
+ * graph is a hash lookup, and any mutation of the graph changes the version, so stale results are never
+ * returned. They are simply not looked up any more and age out. When the cache is full the least recently
+ * used entry is evicted. Graphs are held weakly: once a graph is no longer referenced outside the cache, its
+ * results are dropped on a later call instead of keeping the graph alive.
+ *
+ * The cache is thread-safe (the versions it reads are volatile, but a graph must still not be edited while it
+ * is being computed on). Results are computed outside of the lock, so two threads missing on the same
+ * key at the same time may both compute it. Cached sets are returned unmodifiable.
+ */
+public class GraphOpsCache {
+
+    private final int capacity;
+
+    private final Map<Key, Object> entries;
+
+    private final ReferenceQueue<Graph<?>> collected = new ReferenceQueue<>();
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    /**
+     * Constructor
+     * @param capacity largest number of cached results
+     * @throws IllegalArgumentException when `capacity` is not positive.
+     */
+    public GraphOpsCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() > GraphOpsCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the number of connected components in the graph (see `GraphOps.countConnectedComponents`)
+     * @param graph graph object reference
+     * @return number of connected components
+     */
+    public int countConnectedComponents(Graph<Node> graph) {
+        return get(graph, "countConnectedComponents", null, () -> GraphOps.countConnectedComponents(graph));
+    }
+
+    /**
+     * Detect all articulation points in the graph (see `GraphOps.detectArticulationPoints`; no data is saved)
+     * @param graph Reference to the `Graph` object.
+     * @return unmodifiable set of all the detected articulation points.
+     */
+    public Set<Node> detectArticulationPoints(Graph<Node> graph) {
+        return get(graph, "detectArticulationPoints", null,
+            () -> Collections.unmodifiableSet(GraphOps.detectArticulationPoints(graph, false, new GraphOps.MyInteger(0))));
+    }
+
+    /**
+     * Get a cached result, or compute and cache it.
+     * The result must only depend on the graph and the parameters, and must not be mutated by callers.
+     * @param graph the graph the result is computed on
+     * @param operation name of the operation
+     * @param parameters parameters of the operation (with `equals`/`hashCode`), or null
+     * @param compute computes the result on a miss
+     * @return the result
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R get(Graph<?> graph, String operation, Object parameters, Supplier<R> compute) {
+        Key key = new Key(graph, graph.getVersion(), operation, parameters, null);
+        synchronized (this) {
+            expunge();
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return (R) cached;
+            }
+            misses++;
+        }
+        R result = compute.get();
+        // The graph may have changed while computing: only a result of the version it was keyed on is kept
+        if (result != null && graph.getVersion() == key.version) {
+            synchronized (this) {
+                entries.put(new Key(graph, key.version, operation, parameters, collected), result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops every cached result of a graph.
+     * @param graph the graph object
+     */
+    public synchronized void invalidate(Graph<?> graph) {
+        entries.keySet().removeIf(key -> key.get() == graph);
+    }
+
+    /**
+     * Drops the results of the graphs that were garbage collected. Must hold the lock.
+     */
+    private void expunge() {
+        for (Object key; (key = collected.poll()) != null;) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Drops every cached result; the counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get the number of cached results
+     * @return number of entries
+     */
+    public synchronized int size() {
+        expunge();
+        return entries.size();
+    }
+
+    /**
+     * Get the largest number of cached results
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of lookups answered from the cache
+     * @return hit count
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups that had to compute the result
+     * @return miss count
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Get the number of results evicted to respect the capacity
+     * @return eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Get the share of lookups answered from the cache
+     * @return hits / (hits + misses), or 0.0 before the first lookup
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "GraphOpsCache{size=" + entries.size() + "/" + capacity + ", hits=" + hits + ", misses=" + misses
+            + ", evictions=" + evictions + "}";
+    }
+
+    /**
+     * Cache key; graphs are referenced weakly and compared by identity. A key whose graph was collected only
+     * equals itself, so `expunge` can still remove it.
+     */
+    private static final class Key extends WeakReference<Graph<?>> {
+        private final int hash;
+        private final long version;
+        private final String operation;
+        private final Object parameters;
+
+        Key(Graph<?> graph, long version, String operation, Object parameters, ReferenceQueue<Graph<?>> queue) {
+            super(graph, queue);
+            this.version = version;
+            this.operation = operation;
+            this.parameters = parameters;
+            int h = System.identityHashCode(graph);
+            h = 31 * h + Long.hashCode(version);
+            h = 31 * h + operation.hashCode();
+            this.hash = 31 * h + Objects.hashCode(parameters);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            Graph<?> graph = get();
+            return graph != null && graph == other.get() && version == other.version
+                && operation.equals(other.operation) && Objects.equals(parameters, other.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
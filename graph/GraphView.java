@@ -0,0 +1,617 @@
+package graph;
+
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * A read-only view of a `Graph` backed by the storage of its parent: nothing is copied, the vertex sets and
+ * adjacency lists are filtered lazily while they are iterated, and edits of the parent show through at once.
+ * A view is a `Graph` itself, so every `GraphOps` algorithm runs on it and views can be stacked
+ * (e.g. `graph.induced(region).reversed()`). Views are created by `Graph.induced`, `Graph.filterEdges`,
+ * `Graph.reversed` and `Graph.asUndirected`; a view costs a few fields, plus a bitset once vertices are
+ * disabled on it.
+ *
+ * Adding or removing vertices and edges through a view throws `UnsupportedOperationException`; edit the parent
+ * instead. `disableVertex` and `enableVertex` only act on the view (for what-if outages on a region) and leave
+ * the parent and the `Node` objects untouched. Sizes (`getVertexCount`, `getEdgesCount`, `degree`, the `size()`
+ * of the returned collections) are counted on demand, in time linear in what they count.
+ */
+public abstract class GraphView<T extends Node> extends Graph<T> {
+
+    private final Graph<T> parent;
+
+    private BitMask disabled;
+
+    private volatile long localVersion;
+
+    private T source;
+
+    private boolean sourceSet;
+
+    GraphView(Graph<T> parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Get the graph this view reads from
+     * @return the parent graph (possibly a view itself)
+     */
+    public Graph<T> getParent() {
+        return parent;
+    }
+
+    /**
+     * Whether a vertex of the parent belongs to the view.
+     */
+    abstract boolean includes(T v);
+
+    /**
+     * The neighbors of an included vertex in the view, parallel copies repeated.
+     */
+    abstract Iterator<T> neighbors(T v);
+
+    /**
+     * Whether the view has at least one edge from `s` to `d` (both included).
+     */
+    abstract boolean edge(T s, T d);
+
+    /**
+     * The weight of an edge of the view.
+     */
+    abstract double weight(T s, T d);
+
+    @Override
+    public void addVertex(T s) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addEdge(T source, T destination) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addEdge(T source, T destination, double weight) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean removeEdge(T src, T dest) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean removeVertex(T v) {
+        throw readOnly();
+    }
+
+    @Override
+    public void compact() {
+        throw readOnly();
+    }
+
+    @Override
+    public int getTombstoneCount() {
+        return parent.getTombstoneCount();
+    }
+
+    /**
+     * Disables a vertex in this view only; the parent graph and the `Node` object are not changed.
+     * @param v reference to the vertex object
+     * @throws NullPointerException when the given vertex reference is not found in the view.
+     */
+    @Override
+    public void disableVertex(T v) throws NullPointerException {
+        checkVertex(v);
+        if (disabled == null || v.getValue() >= disabled.size()) {
+            BitMask parentMask = parent.getDisabledVertices();
+            int size = Math.max(parentMask.size(), v.getValue() + 1);
+            disabled = disabled == null ? new BitMask(size) : disabled.copy(size);
+        }
+        disabled.set(v.getValue());
+        localVersion++;
+    }
+
+    /**
+     * Enables a vertex disabled in this view; a vertex disabled in the parent stays disabled.
+     * @param v reference to the vertex object
+     * @throws NullPointerException when the given vertex reference is not found in the view.
+     */
+    @Override
+    public void enableVertex(T v) throws NullPointerException {
+        checkVertex(v);
+        if (disabled != null) {
+            disabled.clear(v.getValue());
+        }
+        localVersion++;
+    }
+
+    @Override
+    public boolean isAlive(T v) {
+        return includes(v) && parent.isAlive(v) && (disabled == null || !disabled.get(v.getValue()));
+    }
+
+    /**
+     * Get the vertices disabled in the view or in its parent
+     * @return a copy of the mask of disabled vertex values
+     */
+    @Override
+    public BitMask getDisabledVertices() {
+        BitMask mask = parent.getDisabledVertices();
+        if (disabled != null) {
+            mask.or(disabled.copy(mask.size()));
+        }
+        return mask;
+    }
+
+    /**
+     * Replaces the vertices disabled in this view (the parent's stay disabled). Values that are not vertices of
+     * the view are ignored, so a vertex that joins it later starts enabled.
+     * @param mask mask of the vertex values to disable
+     */
+    @Override
+    public void setDisabledVertices(BitMask mask) {
+        BitMask kept = new BitMask(mask.size());
+        for (T v : getVertices()) {
+            if (mask.get(v.getValue())) {
+                kept.set(v.getValue());
+            }
+        }
+        disabled = kept;
+        localVersion++;
+    }
+
+    /**
+     * Get the version: changes of the parent or of the view's disabled vertices increase it. Changes of the set
+     * or predicate a view was created from are not counted.
+     * @return the current version
+     */
+    @Override
+    public long getVersion() {
+        return parent.getVersion() + localVersion;
+    }
+
+    @Override
+    public int getVertexCount() {
+        int count = 0;
+        for (T v : parent.getVertices()) {
+            if (isAlive(v)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int getEdgesCount() {
+        int count = 0;
+        for (T v : parent.getVertices()) {
+            if (!isAlive(v)) {
+                continue;
+            }
+            for (Iterator<T> it = neighbors(v); it.hasNext();) {
+                if (isAlive(it.next())) {
+                    count++;
+                }
+            }
+        }
+        return isUndirected() ? count / 2 : count;
+    }
+
+    /**
+     * Get the number of distinct alive neighbors of a vertex in the view (counted, not maintained); a disabled
+     * vertex has degree 0.
+     * @param v reference to the vertex object
+     * @return degree of `v`
+     * @throws NullPointerException when the given vertex reference is not found in the view.
+     */
+    @Override
+    public int degree(T v) {
+        checkVertex(v);
+        return distinct(neighbors(v), v);
+    }
+
+    /**
+     * Get the number of distinct alive in-neighbors of a vertex in the view (counted, not maintained).
+     * @param v reference to the vertex object
+     * @return in-degree of `v`
+     * @throws NullPointerException when the given vertex reference is not found in the view.
+     */
+    @Override
+    public int getInDegree(T v) {
+        checkVertex(v);
+        return distinct(inNeighbors(v), v);
+    }
+
+    @Override
+    public int[] getDegreeHistogram() {
+        int[] histogram = new int[1];
+        for (T v : parent.getVertices()) {
+            if (!isAlive(v)) {
+                continue;
+            }
+            int degree = degree(v);
+            if (degree >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, Math.max(degree + 1, 2 * histogram.length));
+            }
+            histogram[degree]++;
+        }
+        int length = histogram.length;
+        while (length > 1 && histogram[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(histogram, length);
+    }
+
+    @Override
+    public boolean isUndirected() {
+        return parent.isUndirected();
+    }
+
+    @Override
+    public boolean isWeighted() {
+        return parent.isWeighted();
+    }
+
+    @Override
+    public double getWeight(T s, T d) {
+        return hasEdge(s, d) ? weight(s, d) : 0.0;
+    }
+
+    /**
+     * Get the source vertex: the one set on the view, else the parent's if the view includes it
+     * @return reference to the source vertex object, or null
+     */
+    @Override
+    public T getSource() {
+        if (sourceSet) {
+            return source;
+        }
+        T parentSource = parent.getSource();
+        return parentSource != null && hasVertex(parentSource) ? parentSource : null;
+    }
+
+    @Override
+    public void setSource(T src) {
+        this.source = src;
+        this.sourceSet = true;
+    }
+
+    /**
+     * Get the neighbors of a vertex in the view, filtered while iterated
+     * @param v Reference to the vertex
+     * @return unmodifiable adjacency list of `v` (`size()` and `get(int)` walk the list), or null if `v` is not in
+     * the view
+     */
+    @Override
+    public List<T> getAdjList(T v) {
+        if (!hasVertex(v)) {
+            return null;
+        }
+        return new AbstractList<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return neighbors(v);
+            }
+
+            @Override
+            public T get(int index) {
+                int i = 0;
+                for (Iterator<T> it = neighbors(v); it.hasNext(); i++) {
+                    T w = it.next();
+                    if (i == index) {
+                        return w;
+                    }
+                }
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + i);
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (Iterator<T> it = neighbors(v); it.hasNext(); it.next()) {
+                    size++;
+                }
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Get the vertices of the view, filtered while iterated
+     * @return unmodifiable set of the vertices in the view (disabled ones included, as for `Graph`)
+     */
+    @Override
+    public Set<T> getVertices() {
+        return new AbstractSet<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return filter(parent.getVertices().iterator(), GraphView.this::includes);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean contains(Object o) {
+                return o instanceof Node && hasVertex((T) o);
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (T v : parent.getVertices()) {
+                    if (includes(v)) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public boolean hasVertex(T s) {
+        return parent.hasVertex(s) && includes(s);
+    }
+
+    @Override
+    public boolean hasEdge(T s, T d) {
+        return hasVertex(s) && hasVertex(d) && edge(s, d);
+    }
+
+    @Override
+    Iterator<T> inNeighbors(T v) {
+        return neighbors(v);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (T vertex : getVertices()) {
+            if (isAlive(vertex)) {
+                builder.append(vertex.toString() + ": ");
+                for (Iterator<T> it = neighbors(vertex); it.hasNext();) {
+                    T w = it.next();
+                    if (isAlive(w)) {
+                        builder.append(w.toString() + " ");
+                    }
+                }
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+
+    private void checkVertex(T v) {
+        if (!hasVertex(v)) {
+            throw new NullPointerException("Vertex " + v + " is not in the view");
+        }
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Graph views are read-only; edit the parent graph");
+    }
+
+    private int distinct(Iterator<T> neighbors, T v) {
+        if (!isAlive(v)) {
+            return 0;
+        }
+        Set<T> seen = new HashSet<>();
+        while (neighbors.hasNext()) {
+            T w = neighbors.next();
+            if (!w.equals(v) && isAlive(w)) {
+                seen.add(w);
+            }
+        }
+        return seen.size();
+    }
+
+    /**
+     * An iterator over the elements of `source` accepted by `filter`.
+     */
+    static <T> Iterator<T> filter(Iterator<T> source, Predicate<? super T> filter) {
+        return new Iterator<T>() {
+            private T next;
+            private boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                while (!ready && source.hasNext()) {
+                    T candidate = source.next();
+                    if (filter.test(candidate)) {
+                        next = candidate;
+                        ready = true;
+                    }
+                }
+                return ready;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                return next;
+            }
+        };
+    }
+
+    /**
+     * The concatenation of two iterators.
+     */
+    static <T> Iterator<T> concat(Iterator<T> first, Iterator<T> second) {
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return first.hasNext() || second.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return first.hasNext() ? first.next() : second.next();
+            }
+        };
+    }
+
+    /**
+     * The subgraph induced by the vertices accepted by a predicate.
+     */
+    static final class Induced<T extends Node> extends GraphView<T> {
+        private final Predicate<? super T> vertices;
+
+        Induced(Graph<T> parent, Predicate<? super T> vertices) {
+            super(parent);
+            this.vertices = vertices;
+        }
+
+        @Override
+        boolean includes(T v) {
+            return vertices.test(v);
+        }
+
+        @Override
+        Iterator<T> neighbors(T v) {
+            return filter(getParent().getAdjList(v).iterator(), vertices);
+        }
+
+        @Override
+        Iterator<T> inNeighbors(T v) {
+            return filter(getParent().inNeighbors(v), vertices);
+        }
+
+        @Override
+        boolean edge(T s, T d) {
+            return getParent().hasEdge(s, d);
+        }
+
+        @Override
+        double weight(T s, T d) {
+            return getParent().getWeight(s, d);
+        }
+    }
+
+    /**
+     * The parent with only the edges accepted by a predicate. For an undirected graph the predicate is asked with
+     * the endpoint of smaller value first, so both directions of an edge agree.
+     */
+    static final class EdgeFiltered<T extends Node> extends GraphView<T> {
+        private final BiPredicate<? super T, ? super T> edges;
+
+        EdgeFiltered(Graph<T> parent, BiPredicate<? super T, ? super T> edges) {
+            super(parent);
+            this.edges = edges;
+        }
+
+        private boolean accepts(T s, T d) {
+            if (isUndirected() && d.getValue() < s.getValue()) {
+                return edges.test(d, s);
+            }
+            return edges.test(s, d);
+        }
+
+        @Override
+        boolean includes(T v) {
+            return true;
+        }
+
+        @Override
+        Iterator<T> neighbors(T v) {
+            return filter(getParent().getAdjList(v).iterator(), w -> accepts(v, w));
+        }
+
+        @Override
+        Iterator<T> inNeighbors(T v) {
+            return filter(getParent().inNeighbors(v), u -> accepts(u, v));
+        }
+
+        @Override
+        boolean edge(T s, T d) {
+            return getParent().hasEdge(s, d) && accepts(s, d);
+        }
+
+        @Override
+        double weight(T s, T d) {
+            return getParent().getWeight(s, d);
+        }
+    }
+
+    /**
+     * The parent with every edge turned around (the parent itself, for an undirected graph).
+     */
+    static final class Reversed<T extends Node> extends GraphView<T> {
+
+        Reversed(Graph<T> parent) {
+            super(parent);
+        }
+
+        @Override
+        boolean includes(T v) {
+            return true;
+        }
+
+        @Override
+        Iterator<T> neighbors(T v) {
+            return getParent().inNeighbors(v);
+        }
+
+        @Override
+        Iterator<T> inNeighbors(T v) {
+            return getParent().getAdjList(v).iterator();
+        }
+
+        @Override
+        boolean edge(T s, T d) {
+            return getParent().hasEdge(d, s);
+        }
+
+        @Override
+        double weight(T s, T d) {
+            return getParent().getWeight(d, s);
+        }
+    }
+
+    /**
+     * The parent with directions dropped: the neighbors of a vertex are its out-neighbors followed by its
+     * in-neighbors, so a pair of opposite arcs becomes two parallel edges.
+     */
+    static final class Undirected<T extends Node> extends GraphView<T> {
+
+        Undirected(Graph<T> parent) {
+            super(parent);
+        }
+
+        @Override
+        boolean includes(T v) {
+            return true;
+        }
+
+        @Override
+        public boolean isUndirected() {
+            return true;
+        }
+
+        @Override
+        Iterator<T> neighbors(T v) {
+            Iterator<T> out = getParent().getAdjList(v).iterator();
+            return getParent().isUndirected() ? out : concat(out, getParent().inNeighbors(v));
+        }
+
+        @Override
+        boolean edge(T s, T d) {
+            return getParent().hasEdge(s, d) || getParent().hasEdge(d, s);
+        }
+
+        @Override
+        double weight(T s, T d) {
+            return getParent().hasEdge(s, d) ? getParent().getWeight(s, d) : getParent().getWeight(d, s);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package graph;
+
+/**
+ * Read access to a graph whose vertices are dense integer ids in `[0, getVertexCount())` and whose
+ * adjacency is laid out in compressed sparse row order: the neighbors of `v` are the adjacency
+ * entries `adjStart(v) .. adjEnd(v) - 1`.
+ * Implementations may keep the arrays on the heap, in a memory-mapped file or off-heap.
+ */
+public interface IndexedGraph {
+
+    /**
+     * Get the number of vertices in the graph (i.e., |V|)
+     * @return Number of vertices in the graph
+     */
+    int getVertexCount();
+
+    /**
+     * Get the number of edges in the graph
+     * @return Number of edges in the graph
+     */
+    int getEdgesCount();
+
+    /**
+     * Get the number of stored adjacency entries (twice the edge count for undirected graphs)
+     * @return number of adjacency entries
+     */
+    int getArcCount();
+
+    /**
+     * Whether the graph is undirected
+     * @return true if undirected
+     */
+    boolean isUndirected();
+
+    /**
+     * Whether the graph carries edge weights
+     * @return true if `getWeight(int)` is meaningful
+     */
+    boolean isWeighted();
+
+    /**
+     * Index of the first adjacency entry of vertex `v`
+     * @param v vertex id
+     * @return start index (inclusive) into the adjacency entries
+     */
+    int adjStart(int v);
+
+    /**
+     * Index one past the last adjacency entry of vertex `v`
+     * @param v vertex id
+     * @return end index (exclusive) into the adjacency entries
+     */
+    int adjEnd(int v);
+
+    /**
+     * Get the out-degree of vertex `v`
+     * @param v vertex id
+     * @return number of adjacency entries of `v`
+     */
+    default int degree(int v) {
+        return adjEnd(v) - adjStart(v);
+    }
+
+    /**
+     * Get the neighbor stored at adjacency entry `i`
+     * @param i adjacency entry index
+     * @return vertex id of the neighbor
+     */
+    int getTarget(int i);
+
+    /**
+     * Get the weight of adjacency entry `i` (0.0 for unweighted graphs)
+     * @param i adjacency entry index
+     * @return weight value (double)
+     */
+    double getWeight(int i);
+
+    /**
+     * Get the `Node` value the vertex id was built from
+     * @param v vertex id
+     * @return value of the vertex
+     */
+    int getValue(int v);
+
+    /**
+     * Get the vertex id for a `Node` value
+     * @param value value of the vertex
+     * @return vertex id, or a negative number if there is no such vertex
+     */
+    int indexOf(int value);
+
+    /**
+     * Get the label of the vertex
+     * @param v vertex id
+     * @return label of the vertex
+     */
+    String getLabel(int v);
+}
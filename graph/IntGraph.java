@@ -0,0 +1,657 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * A mutable graph keyed by dense int ids (`0 .. getVertexCount() - 1`).
+ * Offers the operations of `Graph` without `GraphNode` objects: every adjacency list is a primitive
+ * `int[]`, and labels live in a separate id-to-label dictionary, so adding, looking up and removing
+ * edges never allocates per edge and never hashes a String.
+ * Vertices with many neighbors additionally keep an open-addressing table (neighbor -> position in the list,
+ * one entry per occurrence) so that `hasEdge` and `removeEdge` stay O(1) on hubs.
+ * Removed vertices leave tombstone ids behind, which `compact()` reclaims by renumbering the vertices densely.
+ */
+public class IntGraph {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_DEGREE = 4;
+    private static final int INDEX_THRESHOLD = 16;
+    private static final int[] EMPTY = new int[0];
+
+    private int[][] adj;
+    private int[] degree;
+    private int[][] index;
+    private boolean[] alive;
+    private String[] labels;
+    private int vertexCount;
+    private int deadCount;
+    private int[] tombstones;
+    private int tombstoneCount;
+    private final boolean isUndirected;
+    private int source;
+
+    /**
+     * Constructor
+     * @param isUndirected Whether the graph is undirected or not.
+     */
+    public IntGraph(boolean isUndirected) {
+        this(isUndirected, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     * @param isUndirected Whether the graph is undirected or not.
+     * @param expectedVertices number of vertices to reserve room for
+     */
+    public IntGraph(boolean isUndirected, int expectedVertices) {
+        int capacity = Math.max(1, expectedVertices);
+        this.adj = new int[capacity][];
+        this.degree = new int[capacity];
+        this.index = new int[capacity][];
+        this.alive = new boolean[capacity];
+        this.labels = null;
+        this.vertexCount = 0;
+        this.deadCount = 0;
+        this.tombstones = EMPTY;
+        this.tombstoneCount = 0;
+        this.isUndirected = isUndirected;
+        this.source = -1;
+    }
+
+    /**
+     * Adds a new vertex with the next free id
+     * @return id of the vertex
+     */
+    public int addVertex() {
+        int v = vertexCount;
+        addVertex(v);
+        return v;
+    }
+
+    /**
+     * Adds a new vertex with the next free id and a label
+     * @param label label of the vertex
+     * @return id of the vertex
+     */
+    public int addVertex(String label) {
+        int v = addVertex();
+        setLabel(v, label);
+        return v;
+    }
+
+    /**
+     * Adds vertex `v` to the graph (and every missing id below it), if not already present
+     * @param v vertex id
+     * @throws IndexOutOfBoundsException when `v` is negative or a removed id not yet reclaimed by `compact()`.
+     */
+    public void addVertex(int v) {
+        checkNewVertex(v);
+        if (v < vertexCount) {
+            return;
+        }
+        if (v >= adj.length) {
+            int capacity = Math.max(v + 1, 2 * adj.length);
+            adj = Arrays.copyOf(adj, capacity);
+            degree = Arrays.copyOf(degree, capacity);
+            index = Arrays.copyOf(index, capacity);
+            alive = Arrays.copyOf(alive, capacity);
+            if (labels != null) {
+                labels = Arrays.copyOf(labels, capacity);
+            }
+        }
+        for (int w = vertexCount; w <= v; w++) {
+            adj[w] = EMPTY;
+            alive[w] = true;
+        }
+        vertexCount = v + 1;
+        if (source == -1) {
+            source = 0;
+        }
+    }
+
+    /**
+     * Adds edge between `source` and `destination` vertices (missing vertices are added)
+     * @param source Source vertex
+     * @param destination Destination vertex.
+     * @throws IndexOutOfBoundsException when a vertex id is negative or removed.
+     */
+    public void addEdge(int source, int destination) {
+        // Both ids are checked before the graph grows, so a rejected edge leaves it unchanged
+        checkNewVertex(source);
+        checkNewVertex(destination);
+        addVertex(Math.max(source, destination));
+        append(source, destination);
+        if (isUndirected) {
+            append(destination, source);
+        }
+    }
+
+    /**
+     * Remove one edge between the vertices `src` and `dest` (if it exists).
+     * The order of the remaining neighbors of `src` (and `dest`) is not preserved.
+     * @param src Source vertex
+     * @param dest Destination vertex
+     * @return true if an edge was removed
+     */
+    public boolean removeEdge(int src, int dest) {
+        if (!hasVertex(src) || !hasVertex(dest) || !remove(src, dest)) {
+            return false;
+        }
+        if (isUndirected) {
+            remove(dest, src);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a vertex together with its edges. Its id becomes a tombstone: it is not reused until `compact()`.
+     * In an undirected graph the vertex is also dropped from the lists of its neighbors. In a directed graph the
+     * arcs into it are only known to their sources, so they stay there, skipped like arcs into a disabled
+     * vertex, until `compact()` drops them.
+     * @param v vertex id
+     * @return true if the vertex was removed
+     */
+    public boolean removeVertex(int v) {
+        if (!hasVertex(v)) {
+            return false;
+        }
+        if (isUndirected) {
+            int[] list = adj[v];
+            for (int i = 0; i < degree[v]; i++) {
+                if (list[i] != v) {
+                    remove(list[i], v);
+                }
+            }
+        }
+        if (!alive[v]) {
+            deadCount--;
+        }
+        alive[v] = false;
+        adj[v] = null;
+        degree[v] = 0;
+        index[v] = null;
+        if (labels != null) {
+            labels[v] = null;
+        }
+        if (tombstoneCount == tombstones.length) {
+            tombstones = Arrays.copyOf(tombstones, Math.max(INITIAL_DEGREE, 2 * tombstoneCount));
+        }
+        tombstones[tombstoneCount++] = v;
+        if (source == v) {
+            source = -1;
+            for (int w = 0; w < vertexCount && source == -1; w++) {
+                if (adj[w] != null) {
+                    source = w;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the ids of the vertices removed since the last `compact()`
+     * @return the tombstone ids, in removal order
+     */
+    public int[] getTombstones() {
+        return Arrays.copyOf(tombstones, tombstoneCount);
+    }
+
+    /**
+     * Renumbers the vertices densely and reclaims the tombstone ids. The remaining vertices keep their relative
+     * order, arcs into removed vertices are dropped, and every array is cut to the new size, so the memory
+     * follows the live graph however long it has been edited. Ids held outside the graph must be translated
+     * with the returned map.
+     * @return the new id of every old id (-1 for removed vertices), indexed by old id
+     */
+    public int[] compact() {
+        int[] ids = new int[vertexCount];
+        int n = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            ids[v] = adj[v] == null ? -1 : n++;
+        }
+        int capacity = Math.max(1, n);
+        int[][] newAdj = new int[capacity][];
+        int[] newDegree = new int[capacity];
+        int[][] newIndex = new int[capacity][];
+        boolean[] newAlive = new boolean[capacity];
+        String[] newLabels = labels == null ? null : new String[capacity];
+        for (int v = 0; v < vertexCount; v++) {
+            int k = ids[v];
+            if (k < 0) {
+                continue;
+            }
+            int[] list = adj[v];
+            int d = 0;
+            for (int i = 0; i < degree[v]; i++) {
+                int w = ids[list[i]];
+                if (w >= 0) {
+                    list[d++] = w;
+                }
+            }
+            newAdj[k] = d == 0 ? EMPTY : Arrays.copyOf(list, d);
+            newDegree[k] = d;
+            newIndex[k] = d > INDEX_THRESHOLD ? buildIndex(newAdj[k], d) : null;
+            newAlive[k] = alive[v];
+            if (newLabels != null) {
+                newLabels[k] = labels[v];
+            }
+        }
+        adj = newAdj;
+        degree = newDegree;
+        index = newIndex;
+        alive = newAlive;
+        labels = newLabels;
+        vertexCount = n;
+        tombstones = EMPTY;
+        tombstoneCount = 0;
+        source = source == -1 ? -1 : ids[source];
+        return ids;
+    }
+
+    /**
+     * Disables a vertex from the graph as if it is not present in the graph.
+     * @param v vertex id
+     * @throws IndexOutOfBoundsException when `v` is not in the graph.
+     */
+    public void disableVertex(int v) {
+        checkVertex(v);
+        if (alive[v]) {
+            alive[v] = false;
+            deadCount++;
+        }
+    }
+
+    /**
+     * Enables a vertex in the graph if it is disabled
+     * @param v vertex id
+     * @throws IndexOutOfBoundsException when `v` is not in the graph.
+     */
+    public void enableVertex(int v) {
+        checkVertex(v);
+        if (!alive[v]) {
+            alive[v] = true;
+            deadCount--;
+        }
+    }
+
+    /**
+     * Get the alive status of a vertex
+     * @param v vertex id
+     * @return true if `v` is in the graph and enabled
+     */
+    public boolean isAlive(int v) {
+        return hasVertex(v) && alive[v];
+    }
+
+    /**
+     * Get the number of vertices in the graph (i.e., |V|), disabled vertices excluded
+     * @return Number of vertices in the graph
+     */
+    public int getVertexCount() {
+        return vertexCount - deadCount - tombstoneCount;
+    }
+
+    /**
+     * Get the number of vertex ids in use (alive, disabled or removed); ids lie in `[0, getIdBound())`
+     * @return one past the largest vertex id
+     */
+    public int getIdBound() {
+        return vertexCount;
+    }
+
+    /**
+     * Get the number of edges in the graph (edges touching a disabled vertex excluded)
+     * @return Number of edges in the graph
+     */
+    public int getEdgesCount() {
+        long count = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            if (alive[v]) {
+                if (deadCount == 0 && tombstoneCount == 0) {
+                    count += degree[v];
+                    continue;
+                }
+                int[] list = adj[v];
+                for (int i = 0; i < degree[v]; i++) {
+                    if (alive[list[i]]) {
+                        count++;
+                    }
+                }
+            }
+        }
+        if (isUndirected) {
+            count = count / 2;
+        }
+        return (int) count;
+    }
+
+    /**
+     * Whether the graph is undirected
+     * @return true if the graph is undirected
+     */
+    public boolean isUndirected() {
+        return this.isUndirected;
+    }
+
+    /**
+     * Get the source vertex
+     * @return id of the source vertex, or -1 for an empty graph
+     */
+    public int getSource() {
+        return this.source;
+    }
+
+    /**
+     * Sets the source vertex for traversals
+     * @param src id of the source vertex
+     */
+    public void setSource(int src) {
+        checkVertex(src);
+        this.source = src;
+    }
+
+    /**
+     * Get the number of stored neighbors of `v` (disabled neighbors included, and in a directed graph removed
+     * ones until `compact()`)
+     * @param v vertex id
+     * @return degree of `v`
+     */
+    public int degree(int v) {
+        checkVertex(v);
+        return degree[v];
+    }
+
+    /**
+     * Get the `i`-th stored neighbor of `v`; together with `degree(int)` this walks the
+     * adjacency list without copying it
+     * @param v vertex id
+     * @param i position in `[0, degree(v))`
+     * @return vertex id of the neighbor
+     */
+    public int getNeighbor(int v, int i) {
+        if (i < 0 || i >= degree(v)) {
+            throw new IndexOutOfBoundsException("Neighbor " + i + " of vertex " + v + " with degree " + degree[v]);
+        }
+        return adj[v][i];
+    }
+
+    /**
+     * Get a copy of the adjacency list of `v`
+     * @param v vertex id
+     * @return neighbor ids of `v`
+     */
+    public int[] getAdjList(int v) {
+        checkVertex(v);
+        return Arrays.copyOf(adj[v], degree[v]);
+    }
+
+    /**
+     * Check if the given vertex is in the graph.
+     * @param v vertex id
+     * @return True if `v` is in the graph, else False
+     */
+    public boolean hasVertex(int v) {
+        return v >= 0 && v < vertexCount && adj[v] != null;
+    }
+
+    /**
+     * Check if there's an edge between the vertices `s` and `d`.
+     * @param s Source vertex
+     * @param d Destination vertex.
+     * @return True if there's an edge between `s` and `d`. False, otherwise.
+     */
+    public boolean hasEdge(int s, int d) {
+        if (!hasVertex(s) || !hasVertex(d)) {
+            return false;
+        }
+        if (index[s] != null) {
+            return position(index[s], d) >= 0;
+        }
+        int[] list = adj[s];
+        for (int i = 0; i < degree[s]; i++) {
+            if (list[i] == d) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the label of the vertex
+     * @param v vertex id
+     * @return label of the vertex (string format of the id if none was set)
+     */
+    public String getLabel(int v) {
+        checkVertex(v);
+        return (labels == null || labels[v] == null) ? String.valueOf(v) : labels[v];
+    }
+
+    /**
+     * Set the label for a vertex
+     * @param v vertex id
+     * @param label label for the vertex
+     */
+    public void setLabel(int v, String label) {
+        checkVertex(v);
+        if (labels == null) {
+            labels = new String[adj.length];
+        }
+        labels[v] = label;
+    }
+
+    /**
+     * Build a CSR snapshot of the alive part of the graph so the `IndexedGraph` engines can run on it.
+     * Alive vertices are renumbered densely in increasing id order; `getValue(int)` returns the `IntGraph` id.
+     * @return graph with compressed sparse row representation.
+     */
+    public CSRGraph toCSRGraph() {
+        int n = getVertexCount();
+        int[] values = new int[n];
+        int[] ids = new int[vertexCount];
+        String[] csrLabels = new String[n];
+        int k = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            if (alive[v]) {
+                ids[v] = k;
+                values[k] = v;
+                csrLabels[k] = getLabel(v);
+                k++;
+            }
+        }
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < vertexCount; v++) {
+            if (alive[v]) {
+                int count = 0;
+                for (int i = 0; i < degree[v]; i++) {
+                    int w = adj[v][i];
+                    if (alive[w] && w != v) {
+                        count++;
+                    }
+                }
+                offsets[ids[v] + 1] = count;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] targets = new int[offsets[n]];
+        for (int v = 0; v < vertexCount; v++) {
+            if (alive[v]) {
+                int pos = offsets[ids[v]];
+                for (int i = 0; i < degree[v]; i++) {
+                    int w = adj[v][i];
+                    if (alive[w] && w != v) {
+                        targets[pos++] = ids[w];
+                    }
+                }
+            }
+        }
+        return new CSRGraph(offsets, targets, null, values, csrLabels, isUndirected);
+    }
+
+    private void checkVertex(int v) {
+        if (!hasVertex(v)) {
+            throw new IndexOutOfBoundsException("Vertex " + v + " is not in the graph");
+        }
+    }
+
+    /**
+     * Checks that `addVertex(v)` would succeed: `v` is not negative and not a removed id.
+     */
+    private void checkNewVertex(int v) {
+        if (v < 0) {
+            throw new IndexOutOfBoundsException("Negative vertex id " + v);
+        }
+        if (v < vertexCount && adj[v] == null) {
+            throw new IndexOutOfBoundsException("Vertex " + v + " was removed; its id is reclaimed by compact()");
+        }
+    }
+
+    /**
+     * Appends `w` to the adjacency list of `v`.
+     */
+    private void append(int v, int w) {
+        int[] list = adj[v];
+        int d = degree[v];
+        if (d == list.length) {
+            list = Arrays.copyOf(list, Math.max(INITIAL_DEGREE, 2 * d));
+            adj[v] = list;
+        }
+        list[d] = w;
+        degree[v] = d + 1;
+        if (index[v] != null) {
+            if (2 * (d + 1) > index[v].length / 2) {
+                index[v] = buildIndex(list, d + 1);
+            } else {
+                insert(index[v], w, d);
+            }
+        } else if (d + 1 > INDEX_THRESHOLD) {
+            index[v] = buildIndex(list, d + 1);
+        }
+    }
+
+    /**
+     * Removes one occurrence of `w` from the adjacency list of `v` (swap with the last entry).
+     */
+    private boolean remove(int v, int w) {
+        int[] list = adj[v];
+        int d = degree[v];
+        int[] table = index[v];
+        if (table != null) {
+            int i = position(table, w);
+            if (i < 0) {
+                return false;
+            }
+            delete(table, w, i);
+            if (i != d - 1) {
+                list[i] = list[d - 1];
+                move(table, list[i], d - 1, i);
+            }
+            degree[v] = d - 1;
+            return true;
+        }
+        for (int i = 0; i < d; i++) {
+            if (list[i] == w) {
+                list[i] = list[d - 1];
+                degree[v] = d - 1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Open-addressing table: `table[2k]` holds neighbor + 1 (0 = empty slot), `table[2k + 1]` the position of
+    // that occurrence in the adjacency list. A repeated neighbor has one entry per occurrence, all in the same
+    // probe run. Linear probing with backward-shift deletion, so there are no tombstones.
+
+    private static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private static int[] buildIndex(int[] list, int d) {
+        int slots = Integer.highestOneBit(Math.max(4 * d, 8) - 1) << 1;
+        int[] table = new int[2 * slots];
+        for (int i = 0; i < d; i++) {
+            insert(table, list[i], i);
+        }
+        return table;
+    }
+
+    /**
+     * Get the position of some occurrence of `w`, or -1 if `w` is not in the table.
+     */
+    private static int position(int[] table, int w) {
+        int mask = table.length / 2 - 1;
+        for (int k = slot(w, mask); table[2 * k] != 0; k = (k + 1) & mask) {
+            if (table[2 * k] == w + 1) {
+                return table[2 * k + 1];
+            }
+        }
+        return -1;
+    }
+
+    private static void insert(int[] table, int w, int i) {
+        int mask = table.length / 2 - 1;
+        int k = slot(w, mask);
+        while (table[2 * k] != 0) {
+            k = (k + 1) & mask;
+        }
+        table[2 * k] = w + 1;
+        table[2 * k + 1] = i;
+    }
+
+    /**
+     * Get the slot of the entry for the occurrence of `w` at position `i` (which must be in the table).
+     */
+    private static int find(int[] table, int w, int i) {
+        int mask = table.length / 2 - 1;
+        int k = slot(w, mask);
+        while (table[2 * k] != w + 1 || table[2 * k + 1] != i) {
+            k = (k + 1) & mask;
+        }
+        return k;
+    }
+
+    private static void move(int[] table, int w, int from, int to) {
+        table[2 * find(table, w, from) + 1] = to;
+    }
+
+    private static void delete(int[] table, int w, int i) {
+        int mask = table.length / 2 - 1;
+        int k = find(table, w, i);
+        // Shift back the entries of the probe run that follows the freed slot
+        int hole = k;
+        for (int j = (k + 1) & mask; table[2 * j] != 0; j = (j + 1) & mask) {
+            int home = slot(table[2 * j] - 1, mask);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                table[2 * hole] = table[2 * j];
+                table[2 * hole + 1] = table[2 * j + 1];
+                hole = j;
+            }
+        }
+        table[2 * hole] = 0;
+        table[2 * hole + 1] = 0;
+    }
+
+    /**
+     * Convert the graph into its equivalent string format.
+     * @return the string format of the graph.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int v = 0; v < vertexCount; v++) {
+            if (alive[v]) {
+                builder.append(getLabel(v)).append(": ");
+                for (int i = 0; i < degree[v]; i++) {
+                    if (alive[adj[v][i]]) {
+                        builder.append(getLabel(adj[v][i])).append(" ");
+                    }
+                }
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+}
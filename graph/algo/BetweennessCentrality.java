@@ -0,0 +1,432 @@
+package graph.algo;
+
+import graph.IndexedGraph;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Betweenness centrality (Brandes' algorithm over hop-count shortest paths): for every vertex, the number of
+ * shortest paths between other vertices that pass through it, shared between the equally short alternatives.
+ * Where articulation points only tell whether a bus is a single point of failure, betweenness ranks every bus
+ * by how much of the network's traffic would have to be rerouted around it.
+ *
+ * Every source costs one BFS and one backward pass, so the exact centrality is O(|V| |E|). `approximate`
+ * runs the same iterations from a uniform sample of sources and scales the sums up, with a Hoeffding bound on
+ * the error (see `Result.getErrorBound`). Sources are handed out to one worker per thread of the
+ * `ForkJoinPool`; each worker keeps its own primitive scratch arrays and centrality accumulator, which are
+ * summed once at the end, so the workers share nothing but a source counter.
+ */
+public class BetweennessCentrality {
+
+    /**
+     * Path counts of a BFS level above this are scaled down; counts grow exponentially with the depth on meshes
+     * (a 1000 x 1000 grid has more than 1e300 shortest paths between opposite corners).
+     */
+    private static final double PATH_LIMIT = 1e150;
+
+    private final IndexedGraph graph;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor (uses the common `ForkJoinPool`)
+     * @param graph The graph object
+     */
+    public BetweennessCentrality(IndexedGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     * @param graph The graph object
+     * @param pool the pool the source iterations run on
+     */
+    public BetweennessCentrality(IndexedGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * The centrality of every vertex.
+     */
+    public static class Result {
+        private final double[] centrality;
+        private final double normalization;
+        private final int samples;
+        private final int vertexCount;
+
+        Result(double[] centrality, double normalization, int samples, int vertexCount) {
+            this.centrality = centrality;
+            this.normalization = normalization;
+            this.samples = samples;
+            this.vertexCount = vertexCount;
+        }
+
+        /**
+         * Get the betweenness of a vertex (estimated, for an approximate result)
+         * @param v vertex id
+         * @return number of shortest paths through `v`, each undirected pair counted once
+         */
+        public double getCentrality(int v) {
+            return centrality[v];
+        }
+
+        /**
+         * Get the betweenness of a vertex divided by the number of pairs of other vertices
+         * @param v vertex id
+         * @return centrality in `[0, 1]`
+         */
+        public double getNormalizedCentrality(int v) {
+            return normalization == 0 ? 0.0 : centrality[v] / normalization;
+        }
+
+        /**
+         * Get the betweenness of every vertex
+         * @return centralities indexed by vertex id
+         */
+        public double[] getCentralities() {
+            return centrality.clone();
+        }
+
+        /**
+         * Get the most central vertices
+         * @param k number of vertices
+         * @return up to `k` vertex ids by decreasing centrality (ties by increasing id)
+         */
+        public int[] getTop(int k) {
+            int size = Math.max(0, Math.min(k, centrality.length));
+            // Min-heap of the best `size` vertices seen so far, the weakest on top
+            int[] heap = new int[size];
+            int count = 0;
+            for (int v = 0; v < centrality.length && size > 0; v++) {
+                if (count < size) {
+                    heap[count] = v;
+                    siftUp(heap, count++);
+                } else if (before(v, heap[0])) {
+                    heap[0] = v;
+                    siftDown(heap, count);
+                }
+            }
+            int[] top = new int[count];
+            for (int i = count - 1; i >= 0; i--) {
+                top[i] = heap[0];
+                heap[0] = heap[i];
+                siftDown(heap, i);
+            }
+            return top;
+        }
+
+        /**
+         * Get the number of source iterations the result is built on
+         * @return number of sources (the vertex count for an exact result)
+         */
+        public int getSampleCount() {
+            return samples;
+        }
+
+        /**
+         * Whether every vertex was a source
+         * @return true for an exact result
+         */
+        public boolean isExact() {
+            return samples == vertexCount;
+        }
+
+        /**
+         * Get the largest error of the normalized centralities that holds with the given confidence:
+         * with probability at least `1 - delta`, every `getNormalizedCentrality` is within the bound of its exact value.
+         * @param delta allowed failure probability, in `(0, 1)`
+         * @return the additive error bound (0 for an exact result)
+         * @throws IllegalArgumentException when `delta` is outside `(0, 1)`.
+         */
+        public double getErrorBound(double delta) {
+            if (!(delta > 0 && delta < 1)) {
+                throw new IllegalArgumentException("delta must be in (0, 1): " + delta);
+            }
+            if (isExact() || vertexCount < 3) {
+                return 0.0;
+            }
+            double n = vertexCount;
+            return n / (n - 1) * Math.sqrt(Math.log(2 * n / delta) / (2.0 * samples));
+        }
+
+        /**
+         * Whether `a` ranks before `b`.
+         */
+        private boolean before(int a, int b) {
+            return centrality[a] > centrality[b] || (centrality[a] == centrality[b] && a < b);
+        }
+
+        private void siftUp(int[] heap, int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(heap[parent], heap[i])) {
+                    return;
+                }
+                int tmp = heap[parent];
+                heap[parent] = heap[i];
+                heap[i] = tmp;
+                i = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int size) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    return;
+                }
+                if (child + 1 < size && before(heap[child], heap[child + 1])) {
+                    child++;
+                }
+                if (!before(heap[i], heap[child])) {
+                    return;
+                }
+                int tmp = heap[child];
+                heap[child] = heap[i];
+                heap[i] = tmp;
+                i = child;
+            }
+        }
+    }
+
+    /**
+     * Get the number of sources `approximate` needs so that every normalized centrality is within `epsilon` of its
+     * exact value with probability at least `1 - delta` (Hoeffding's inequality with a union bound over the vertices)
+     * @param vertexCount number of vertices
+     * @param epsilon additive error of the normalized centrality, in `(0, 1)`
+     * @param delta allowed failure probability, in `(0, 1)`
+     * @return number of sources (may exceed the vertex count, in which case the exact centrality is cheaper)
+     * @throws IllegalArgumentException when `epsilon` or `delta` is outside `(0, 1)`.
+     */
+    public static int sampleSize(int vertexCount, double epsilon, double delta) {
+        if (!(epsilon > 0 && epsilon < 1) || !(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException("epsilon and delta must be in (0, 1): " + epsilon + ", " + delta);
+        }
+        double n = Math.max(vertexCount, 3);
+        double scaled = epsilon * (n - 1) / n;
+        return (int) Math.min(Integer.MAX_VALUE, Math.ceil(Math.log(2 * n / delta) / (2 * scaled * scaled)));
+    }
+
+    /**
+     * Computes the exact centrality, with every vertex as a source.
+     * @return the centralities
+     */
+    public Result exact() {
+        int n = graph.getVertexCount();
+        int[] sources = new int[n];
+        for (int v = 0; v < n; v++) {
+            sources[v] = v;
+        }
+        return run(sources);
+    }
+
+    /**
+     * Estimates the centrality from `samples` sources drawn uniformly without replacement.
+     * @param samples number of sources (the exact centrality is computed when it reaches the vertex count)
+     * @param seed seed of the source sampling
+     * @return the estimated centralities
+     * @throws IllegalArgumentException when `samples` is not positive.
+     */
+    public Result approximate(int samples, long seed) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("The number of samples must be positive: " + samples);
+        }
+        int n = graph.getVertexCount();
+        if (samples >= n) {
+            return exact();
+        }
+        // Partial Fisher-Yates shuffle: the first `samples` entries are a uniform sample of the vertices
+        int[] ids = new int[n];
+        for (int v = 0; v < n; v++) {
+            ids[v] = v;
+        }
+        Random random = new Random(seed);
+        for (int i = 0; i < samples; i++) {
+            int j = i + random.nextInt(n - i);
+            int tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+        return run(Arrays.copyOf(ids, samples));
+    }
+
+    /**
+     * Estimates the centrality with enough sources (see `sampleSize`) that every normalized centrality is within
+     * `epsilon` of its exact value with probability at least `1 - delta`.
+     * @param epsilon additive error of the normalized centrality, in `(0, 1)`
+     * @param delta allowed failure probability, in `(0, 1)`
+     * @param seed seed of the source sampling
+     * @return the estimated centralities
+     * @throws IllegalArgumentException when `epsilon` or `delta` is outside `(0, 1)`.
+     */
+    public Result approximate(double epsilon, double delta, long seed) {
+        return approximate(sampleSize(graph.getVertexCount(), epsilon, delta), seed);
+    }
+
+    /**
+     * Runs the iterations of the given sources on the pool and scales the summed dependencies.
+     */
+    private Result run(int[] sources) {
+        int n = graph.getVertexCount();
+        int workers = Math.max(1, Math.min(pool.getParallelism(), sources.length));
+        double[][] partial = new double[workers][];
+        AtomicInteger next = new AtomicInteger();
+        parallel(workers, w -> {
+            Worker worker = new Worker(n);
+            for (int i = next.getAndIncrement(); i < sources.length; i = next.getAndIncrement()) {
+                worker.accumulate(sources[i]);
+            }
+            partial[w] = worker.centrality;
+        });
+        double[] centrality = partial[0];
+        for (int w = 1; w < workers; w++) {
+            double[] other = partial[w];
+            for (int v = 0; v < n; v++) {
+                centrality[v] += other[v];
+            }
+        }
+        // Scale a sample up to all sources; an undirected pair is seen from both of its ends
+        double scale = sources.length == 0 ? 0.0 : (double) n / sources.length;
+        if (graph.isUndirected()) {
+            scale /= 2;
+        }
+        for (int v = 0; v < n; v++) {
+            centrality[v] *= scale;
+        }
+        double pairs = n < 3 ? 0.0 : (double) (n - 1) * (n - 2);
+        return new Result(centrality, graph.isUndirected() ? pairs / 2 : pairs, sources.length, n);
+    }
+
+    /**
+     * The scratch space and centrality accumulator of one thread.
+     */
+    private final class Worker {
+        private final double[] centrality;
+        private final int[] distance;
+        private final double[] paths;
+        private final double[] coefficient;
+        private final int[] order;
+        private final double[] levelScale;
+
+        Worker(int n) {
+            this.centrality = new double[n];
+            this.distance = new int[n];
+            this.paths = new double[n];
+            this.coefficient = new double[n];
+            this.order = new int[n];
+            this.levelScale = new double[n + 1];
+            Arrays.fill(distance, -1);
+        }
+
+        /**
+         * Adds the dependencies of every vertex on the shortest paths from `s`.
+         * The BFS order doubles as the stack of the backward pass, and successors are recognised by their
+         * distance, so no predecessor lists are kept. Only the touched entries are reset afterwards.
+         * A level whose path counts pass `PATH_LIMIT` is divided by its largest count once it is complete;
+         * `levelScale` keeps the divisor, which the backward pass puts back into the ratio of path counts.
+         */
+        void accumulate(int s) {
+            int head = 0;
+            int tail = 0;
+            int level = 0;
+            double levelMax = 0;
+            distance[s] = 0;
+            paths[s] = 1;
+            order[tail++] = s;
+            while (head < tail) {
+                int v = order[head];
+                if (distance[v] != level) {
+                    // Level `distance[v]` is complete: it is exactly the queue
+                    level = distance[v];
+                    levelScale[level] = 1;
+                    if (levelMax > PATH_LIMIT) {
+                        for (int k = head; k < tail; k++) {
+                            paths[order[k]] /= levelMax;
+                        }
+                        levelScale[level] = levelMax;
+                    }
+                    levelMax = 0;
+                }
+                head++;
+                int next = level + 1;
+                double sigma = paths[v];
+                for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                    int w = graph.getTarget(i);
+                    if (distance[w] < 0) {
+                        distance[w] = next;
+                        order[tail++] = w;
+                    }
+                    if (distance[w] == next) {
+                        double p = paths[w] + sigma;
+                        paths[w] = p;
+                        if (p > levelMax) {
+                            levelMax = p;
+                        }
+                    }
+                }
+            }
+            // The deepest level has no successors
+            levelScale[level + 1] = 1;
+            // `coefficient[w]` = (1 + dependency of w) / paths to w, so the sum over the successors needs no division
+            for (int k = tail - 1; k > 0; k--) {
+                int v = order[k];
+                int next = distance[v] + 1;
+                double sum = 0;
+                for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                    int w = graph.getTarget(i);
+                    if (distance[w] == next) {
+                        sum += coefficient[w];
+                    }
+                }
+                double dependency = paths[v] * sum / levelScale[next];
+                centrality[v] += dependency;
+                coefficient[v] = (1 + dependency) / paths[v];
+            }
+            if (2 * tail > distance.length) {
+                Arrays.fill(distance, -1);
+                Arrays.fill(paths, 0);
+                Arrays.fill(coefficient, 0);
+                return;
+            }
+            for (int k = 0; k < tail; k++) {
+                int v = order[k];
+                distance[v] = -1;
+                paths[v] = 0;
+                coefficient[v] = 0;
+            }
+        }
+    }
+
+    /**
+     * Runs `body(0) .. body(parts - 1)` on the pool and waits for all of them.
+     */
+    private void parallel(int parts, IntConsumer body) {
+        if (parts == 1) {
+            body.accept(0);
+            return;
+        }
+        RecursiveAction[] tasks = new RecursiveAction[parts];
+        for (int p = 0; p < parts; p++) {
+            int part = p;
+            tasks[p] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    body.accept(part);
+                }
+            };
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+    }
+}
@@ -0,0 +1,276 @@
+package graph.algo;
+
+import graph.CSRGraph;
+import graph.IndexedGraph;
+import java.util.Arrays;
+
+/**
+ * Iterative Hopcroft-Tarjan biconnectivity engine.
+ * A single depth-first pass over an `IndexedGraph` reports the articulation points, the bridges and the
+ * biconnected components (blocks) of the graph. The DFS keeps an explicit frame stack in primitive
+ * arrays, so it does not overflow the call stack on long paths and works on graphs with tens of
+ * millions of vertices.
+ * The adjacency is expected to be symmetric (an undirected graph).
+ */
+public class Biconnectivity {
+
+    private final int vertexCount;
+
+    private final boolean[] isArticulationPoint;
+
+    private final int[] articulationPoints;
+
+    private final int[] bridges;
+
+    private final int bridgeCount;
+
+    private final int[] blockOffsets;
+
+    private final int[] blockVertices;
+
+    private final int[] blockEdgeCounts;
+
+    /**
+     * Constructor: runs the decomposition.
+     * @param graph The graph object
+     */
+    public Biconnectivity(IndexedGraph graph) {
+        int n = graph.getVertexCount();
+        this.vertexCount = n;
+        this.isArticulationPoint = new boolean[n];
+
+        int[] discovery = new int[n];
+        int[] low = new int[n];
+        int[] parent = new int[n];
+        int[] parentArc = new int[n];
+        int[] next = new int[n];
+        boolean[] parentSkipped = new boolean[n];
+        int[] frames = new int[n];
+        int[] arcStack = new int[graph.getArcCount()];
+        int[] mark = new int[n];
+
+        int[] bridgeBuffer = new int[16];
+        int bridgeSize = 0;
+        int[] offsetsBuffer = new int[16];
+        int[] verticesBuffer = new int[16];
+        int[] edgeCountBuffer = new int[16];
+        int blockCount = 0;
+        int blockVertexCount = 0;
+        int timer = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (discovery[root] != 0) {
+                continue;
+            }
+            int rootChildren = 0;
+            int sp = 0;
+            int arcTop = 0;
+            discovery[root] = low[root] = ++timer;
+            parent[root] = -1;
+            next[root] = graph.adjStart(root);
+            frames[sp++] = root;
+            while (sp > 0) {
+                int v = frames[sp - 1];
+                if (next[v] < graph.adjEnd(v)) {
+                    int i = next[v]++;
+                    int w = graph.getTarget(i);
+                    if (discovery[w] == 0) {
+                        discovery[w] = low[w] = ++timer;
+                        parent[w] = v;
+                        parentArc[w] = i;
+                        parentSkipped[w] = false;
+                        next[w] = graph.adjStart(w);
+                        arcStack[arcTop++] = i;
+                        frames[sp++] = w;
+                    } else if (w == parent[v] && !parentSkipped[v]) {
+                        // The first copy of the tree edge back to the parent is not a back edge
+                        parentSkipped[v] = true;
+                    } else if (discovery[w] < discovery[v]) {
+                        low[v] = Math.min(low[v], discovery[w]);
+                        arcStack[arcTop++] = i;
+                    }
+                    continue;
+                }
+                // All neighbors of `v` are done: return to the parent frame
+                sp--;
+                int p = parent[v];
+                if (p < 0) {
+                    continue;
+                }
+                low[p] = Math.min(low[p], low[v]);
+                if (p == root) {
+                    rootChildren++;
+                }
+                if (low[v] > discovery[p]) {
+                    if (bridgeSize + 2 > bridgeBuffer.length) {
+                        bridgeBuffer = Arrays.copyOf(bridgeBuffer, 2 * bridgeBuffer.length);
+                    }
+                    bridgeBuffer[bridgeSize++] = p;
+                    bridgeBuffer[bridgeSize++] = v;
+                }
+                if (low[v] >= discovery[p]) {
+                    if (p != root) {
+                        isArticulationPoint[p] = true;
+                    }
+                    // Pop the arcs of the block closed by the tree edge (p, v)
+                    int stamp = blockCount + 1;
+                    int edges = 0;
+                    if (blockCount + 2 > offsetsBuffer.length) {
+                        offsetsBuffer = Arrays.copyOf(offsetsBuffer, 2 * offsetsBuffer.length);
+                        edgeCountBuffer = Arrays.copyOf(edgeCountBuffer, 2 * edgeCountBuffer.length);
+                    }
+                    offsetsBuffer[blockCount] = blockVertexCount;
+                    // Every block vertex except possibly `p` is the head of one of the block's arcs
+                    int arc;
+                    do {
+                        arc = arcStack[--arcTop];
+                        edges++;
+                        int head = graph.getTarget(arc);
+                        if (mark[head] != stamp) {
+                            mark[head] = stamp;
+                            if (blockVertexCount == verticesBuffer.length) {
+                                verticesBuffer = Arrays.copyOf(verticesBuffer, 2 * verticesBuffer.length);
+                            }
+                            verticesBuffer[blockVertexCount++] = head;
+                        }
+                    } while (arc != parentArc[v]);
+                    if (mark[p] != stamp) {
+                        mark[p] = stamp;
+                        if (blockVertexCount == verticesBuffer.length) {
+                            verticesBuffer = Arrays.copyOf(verticesBuffer, 2 * verticesBuffer.length);
+                        }
+                        verticesBuffer[blockVertexCount++] = p;
+                    }
+                    edgeCountBuffer[blockCount] = edges;
+                    blockCount++;
+                }
+            }
+            if (rootChildren > 1) {
+                isArticulationPoint[root] = true;
+            }
+        }
+
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            if (isArticulationPoint[v]) {
+                count++;
+            }
+        }
+        this.articulationPoints = new int[count];
+        count = 0;
+        for (int v = 0; v < n; v++) {
+            if (isArticulationPoint[v]) {
+                articulationPoints[count++] = v;
+            }
+        }
+        this.bridges = Arrays.copyOf(bridgeBuffer, bridgeSize);
+        this.bridgeCount = bridgeSize / 2;
+        offsetsBuffer[blockCount] = blockVertexCount;
+        this.blockOffsets = Arrays.copyOf(offsetsBuffer, blockCount + 1);
+        this.blockVertices = Arrays.copyOf(verticesBuffer, blockVertexCount);
+        this.blockEdgeCounts = Arrays.copyOf(edgeCountBuffer, blockCount);
+    }
+
+    /**
+     * Check whether a vertex is an articulation point
+     * @param v vertex id
+     * @return true if removing `v` disconnects its component
+     */
+    public boolean isArticulationPoint(int v) {
+        return isArticulationPoint[v];
+    }
+
+    /**
+     * Get the articulation points
+     * @return ids of the articulation points in increasing order
+     */
+    public int[] getArticulationPoints() {
+        return articulationPoints.clone();
+    }
+
+    /**
+     * Get the number of bridges
+     * @return number of bridges
+     */
+    public int getBridgeCount() {
+        return bridgeCount;
+    }
+
+    /**
+     * Get the DFS-parent endpoint of a bridge
+     * @param i bridge index in `[0, getBridgeCount())`
+     * @return vertex id
+     */
+    public int getBridgeSource(int i) {
+        return bridges[2 * i];
+    }
+
+    /**
+     * Get the DFS-child endpoint of a bridge
+     * @param i bridge index in `[0, getBridgeCount())`
+     * @return vertex id
+     */
+    public int getBridgeTarget(int i) {
+        return bridges[2 * i + 1];
+    }
+
+    /**
+     * Get the number of biconnected components (blocks). Isolated vertices belong to no block.
+     * @return number of blocks
+     */
+    public int getBlockCount() {
+        return blockEdgeCounts.length;
+    }
+
+    /**
+     * Get the vertices of a block
+     * @param b block index in `[0, getBlockCount())`
+     * @return vertex ids of the block
+     */
+    public int[] getBlockVertices(int b) {
+        return Arrays.copyOfRange(blockVertices, blockOffsets[b], blockOffsets[b + 1]);
+    }
+
+    /**
+     * Get the number of edges in a block
+     * @param b block index in `[0, getBlockCount())`
+     * @return number of edges of the block
+     */
+    public int getBlockEdgeCount(int b) {
+        return blockEdgeCounts[b];
+    }
+
+    /**
+     * Builds the block-cut tree (a forest for disconnected graphs).
+     * Ids `[0, getBlockCount())` are blocks; id `getBlockCount() + k` is the k-th entry of
+     * `getArticulationPoints()`. Each articulation point is connected to every block containing it.
+     * @return the block-cut tree as an undirected CSR graph
+     */
+    public CSRGraph getBlockCutTree() {
+        int blockCount = getBlockCount();
+        int[] apIndex = new int[vertexCount];
+        for (int k = 0; k < articulationPoints.length; k++) {
+            apIndex[articulationPoints[k]] = k;
+        }
+        int edgeCount = 0;
+        for (int v : blockVertices) {
+            if (isArticulationPoint[v]) {
+                edgeCount++;
+            }
+        }
+        int[] src = new int[edgeCount];
+        int[] dest = new int[edgeCount];
+        edgeCount = 0;
+        for (int b = 0; b < blockCount; b++) {
+            for (int i = blockOffsets[b]; i < blockOffsets[b + 1]; i++) {
+                int v = blockVertices[i];
+                if (isArticulationPoint[v]) {
+                    src[edgeCount] = b;
+                    dest[edgeCount] = blockCount + apIndex[v];
+                    edgeCount++;
+                }
+            }
+        }
+        return CSRGraph.fromEdgeList(blockCount + articulationPoints.length, src, dest, null, edgeCount, true);
+    }
+}
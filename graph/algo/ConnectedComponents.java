@@ -0,0 +1,382 @@
+package graph.algo;
+
+import graph.IndexedGraph;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Parallel connected components of an `IndexedGraph` (weakly connected components for a directed graph).
+ * Two engines are available, both without recursion and spread over a `ForkJoinPool`:
+ * <ul>
+ * <li>`UNION_FIND`: a lock-free concurrent union-find in the style of Afforest (Sutton et al.). Every vertex is
+ * first linked to its first two neighbors, the largest intermediate component is found by sampling, and the
+ * remaining edges are only processed for vertices outside of it, so most edges of a giant component are never read.</li>
+ * <li>`LABEL_PROPAGATION`: every vertex starts with its own id as label; the smallest label is pushed and pulled
+ * across every edge with an atomic minimum, and labels jump to the label of their label between rounds,
+ * until a round changes nothing.</li>
+ * </ul>
+ * Both engines number the components by their smallest vertex, so they produce identical results.
+ */
+public class ConnectedComponents {
+
+    /**
+     * The algorithm used to find the components.
+     */
+    public enum Engine {
+        UNION_FIND,
+        LABEL_PROPAGATION
+    }
+
+    private static final int NEIGHBOR_ROUNDS = 2;
+    private static final int SAMPLES = 1024;
+    private static final int GRAIN = 4096;
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final IndexedGraph graph;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor (uses the common `ForkJoinPool`)
+     * @param graph The graph object
+     */
+    public ConnectedComponents(IndexedGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     * @param graph The graph object
+     * @param pool the pool the engines run on
+     */
+    public ConnectedComponents(IndexedGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * The components of the graph.
+     */
+    public static class Result {
+        private final int[] components;
+        private final int[] sizes;
+
+        Result(int[] components, int[] sizes) {
+            this.components = components;
+            this.sizes = sizes;
+        }
+
+        /**
+         * Get the number of connected components
+         * @return number of connected components
+         */
+        public int getComponentCount() {
+            return sizes.length;
+        }
+
+        /**
+         * Get the component of a vertex
+         * @param v vertex id
+         * @return component id in `[0, getComponentCount())`; components are numbered by their smallest vertex
+         */
+        public int getComponent(int v) {
+            return components[v];
+        }
+
+        /**
+         * Get the number of vertices in a component
+         * @param c component id
+         * @return size of the component
+         */
+        public int getComponentSize(int c) {
+            return sizes[c];
+        }
+
+        /**
+         * Get the component of every vertex
+         * @return component id per vertex id
+         */
+        public int[] getComponents() {
+            return components.clone();
+        }
+
+        /**
+         * Get the size of every component
+         * @return size per component id
+         */
+        public int[] getComponentSizes() {
+            return sizes.clone();
+        }
+
+        /**
+         * Get the size of the largest component
+         * @return number of vertices in the largest component (0 for an empty graph)
+         */
+        public int getLargestComponentSize() {
+            int largest = 0;
+            for (int size : sizes) {
+                largest = Math.max(largest, size);
+            }
+            return largest;
+        }
+    }
+
+    /**
+     * Finds the components with the union-find engine.
+     * @return the components
+     */
+    public Result run() {
+        return run(Engine.UNION_FIND);
+    }
+
+    /**
+     * Finds the components.
+     * @param engine the algorithm to use
+     * @return the components
+     */
+    public Result run(Engine engine) {
+        int[] labels = engine == Engine.UNION_FIND ? unionFind() : labelPropagation();
+        return number(labels);
+    }
+
+    /**
+     * Afforest-style union-find; returns the root (smallest vertex) of every vertex.
+     */
+    private int[] unionFind() {
+        int n = graph.getVertexCount();
+        int[] parent = new int[n];
+        int parts = parts(n);
+        parallel(parts, p -> {
+            for (int v = lo(p, parts, n); v < hi(p, parts, n); v++) {
+                parent[v] = v;
+            }
+        });
+        // Link every vertex to its first neighbors: cheap, and enough to form most of a giant component
+        for (int r = 0; r < NEIGHBOR_ROUNDS; r++) {
+            int round = r;
+            parallel(parts, p -> {
+                for (int v = lo(p, parts, n); v < hi(p, parts, n); v++) {
+                    if (graph.degree(v) > round) {
+                        link(parent, v, graph.getTarget(graph.adjStart(v) + round));
+                    }
+                }
+            });
+            compress(parent, parts);
+        }
+        // On undirected graphs every edge is stored at both ends, so the edges of the most frequent
+        // component can be skipped: an edge leaving it is also seen from its other end
+        int skip = graph.isUndirected() ? mostFrequent(parent) : -1;
+        parallel(parts, p -> {
+            for (int v = lo(p, parts, n); v < hi(p, parts, n); v++) {
+                if (parent[v] == skip) {
+                    continue;
+                }
+                for (int i = graph.adjStart(v) + NEIGHBOR_ROUNDS; i < graph.adjEnd(v); i++) {
+                    link(parent, v, graph.getTarget(i));
+                }
+            }
+        });
+        compress(parent, parts);
+        return parent;
+    }
+
+    /**
+     * Hooks the larger root onto the smaller one until `u` and `v` share a root.
+     */
+    private static void link(int[] parent, int u, int v) {
+        int a = find(parent, u);
+        int b = find(parent, v);
+        while (a != b) {
+            int high = Math.max(a, b);
+            int low = Math.min(a, b);
+            if (INTS.compareAndSet(parent, high, high, low)) {
+                return;
+            }
+            a = find(parent, high);
+            b = find(parent, low);
+        }
+    }
+
+    /**
+     * Finds the root with path halving; parents only ever decrease, so racing updates are harmless.
+     */
+    private static int find(int[] parent, int v) {
+        int p = (int) INTS.getOpaque(parent, v);
+        while (p != v) {
+            int grandParent = (int) INTS.getOpaque(parent, p);
+            if (grandParent != p) {
+                INTS.compareAndSet(parent, v, p, grandParent);
+            }
+            v = p;
+            p = grandParent;
+        }
+        return v;
+    }
+
+    private void compress(int[] parent, int parts) {
+        int n = parent.length;
+        parallel(parts, p -> {
+            for (int v = lo(p, parts, n); v < hi(p, parts, n); v++) {
+                parent[v] = find(parent, v);
+            }
+        });
+    }
+
+    /**
+     * Estimates the most frequent root from a fixed-seed sample.
+     */
+    private static int mostFrequent(int[] parent) {
+        int n = parent.length;
+        if (n == 0) {
+            return -1;
+        }
+        Random random = new Random(n);
+        int[] sample = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            sample[i] = parent[random.nextInt(n)];
+        }
+        Arrays.sort(sample);
+        int best = sample[0];
+        int bestCount = 0;
+        for (int i = 0, j; i < SAMPLES; i = j) {
+            for (j = i; j < SAMPLES && sample[j] == sample[i]; j++) {
+                // count the run
+            }
+            if (j - i > bestCount) {
+                best = sample[i];
+                bestCount = j - i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Min-label propagation with pointer jumping; returns the smallest vertex of the component of every vertex.
+     */
+    private int[] labelPropagation() {
+        int n = graph.getVertexCount();
+        int[] labels = new int[n];
+        int parts = parts(n);
+        parallel(parts, p -> {
+            for (int v = lo(p, parts, n); v < hi(p, parts, n); v++) {
+                labels[v] = v;
+            }
+        });
+        boolean[] changed = new boolean[parts];
+        boolean again = true;
+        while (again) {
+            Arrays.fill(changed, false);
+            parallel(parts, p -> {
+                boolean any = false;
+                for (int v = lo(p, parts, n); v < hi(p, parts, n); v++) {
+                    for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                        int w = graph.getTarget(i);
+                        int lv = (int) INTS.getOpaque(labels, v);
+                        int lw = (int) INTS.getOpaque(labels, w);
+                        if (lv < lw) {
+                            any |= lowerTo(labels, w, lv);
+                        } else if (lw < lv) {
+                            any |= lowerTo(labels, v, lw);
+                        }
+                    }
+                }
+                changed[p] = any;
+            });
+            // Pointer jumping: the label of a label belongs to the same component and is not larger
+            parallel(parts, p -> {
+                for (int v = lo(p, parts, n); v < hi(p, parts, n); v++) {
+                    int l = (int) INTS.getOpaque(labels, v);
+                    int ll = (int) INTS.getOpaque(labels, l);
+                    while (ll < l) {
+                        l = ll;
+                        ll = (int) INTS.getOpaque(labels, l);
+                    }
+                    lowerTo(labels, v, l);
+                }
+            });
+            again = false;
+            for (boolean c : changed) {
+                again |= c;
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Atomic minimum.
+     * @return true if the label was lowered
+     */
+    private static boolean lowerTo(int[] labels, int v, int label) {
+        int old = (int) INTS.getOpaque(labels, v);
+        while (label < old) {
+            int witness = (int) INTS.compareAndExchange(labels, v, old, label);
+            if (witness == old) {
+                return true;
+            }
+            old = witness;
+        }
+        return false;
+    }
+
+    /**
+     * Renumbers the roots (the smallest vertex of each component) densely in increasing order.
+     */
+    private static Result number(int[] roots) {
+        int n = roots.length;
+        int[] components = new int[n];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            // The root of `v` is never larger than `v`, so it has been numbered already
+            components[v] = roots[v] == v ? count++ : components[roots[v]];
+        }
+        int[] sizes = new int[count];
+        for (int v = 0; v < n; v++) {
+            sizes[components[v]]++;
+        }
+        return new Result(components, sizes);
+    }
+
+    private int parts(int n) {
+        return Math.max(1, Math.min(pool.getParallelism() * 8, n / GRAIN));
+    }
+
+    private static int lo(int part, int parts, int n) {
+        return (int) ((long) n * part / parts);
+    }
+
+    private static int hi(int part, int parts, int n) {
+        return (int) ((long) n * (part + 1) / parts);
+    }
+
+    /**
+     * Runs `body` for every part index on the pool.
+     */
+    private void parallel(int parts, IntConsumer body) {
+        if (parts == 1) {
+            body.accept(0);
+            return;
+        }
+        RecursiveAction[] tasks = new RecursiveAction[parts];
+        for (int p = 0; p < parts; p++) {
+            int part = p;
+            tasks[p] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    body.accept(part);
+                }
+            };
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+    }
+}
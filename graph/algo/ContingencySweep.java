@@ -0,0 +1,408 @@
+package graph.algo;
+
+import graph.BitMask;
+import graph.IndexedGraph;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel N-1 contingency sweep.
+ * Evaluates the outage of every vertex (or every edge) of an undirected `IndexedGraph` and reports the
+ * number of connected components and the component sizes after each outage. The outages are split
+ * into chunks that run on a `ForkJoinPool`; every chunk owns its scratch arrays and masks the failed
+ * element out while traversing, so the shared graph is never mutated.
+ * Multi-outage scenarios are given as `BitMask`s of failed vertices and failed adjacency entries, which
+ * can be composed with `and`/`or` before the sweep.
+ */
+public class ContingencySweep {
+
+    private final IndexedGraph graph;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor (uses the common `ForkJoinPool`)
+     * @param graph The graph object (undirected)
+     */
+    public ContingencySweep(IndexedGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     * @param graph The graph object (undirected)
+     * @param pool the pool the outages are evaluated on
+     */
+    public ContingencySweep(IndexedGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * The outcome of a sweep: one entry per outage.
+     */
+    public static class Result {
+        private final int baseComponentCount;
+        private final int[] outageSource;
+        private final int[] outageTarget;
+        private final int[] componentCounts;
+        private final int[] sizeOffsets;
+        private final int[] sizes;
+
+        Result(int baseComponentCount, int[] outageSource, int[] outageTarget, int[] componentCounts, int[] sizeOffsets, int[] sizes) {
+            this.baseComponentCount = baseComponentCount;
+            this.outageSource = outageSource;
+            this.outageTarget = outageTarget;
+            this.componentCounts = componentCounts;
+            this.sizeOffsets = sizeOffsets;
+            this.sizes = sizes;
+        }
+
+        /**
+         * Get the number of components with nothing removed
+         * @return number of connected components of the intact graph
+         */
+        public int getBaseComponentCount() {
+            return baseComponentCount;
+        }
+
+        /**
+         * Get the number of evaluated outages
+         * @return number of outages
+         */
+        public int getOutageCount() {
+            return componentCounts.length;
+        }
+
+        /**
+         * Get the removed vertex (vertex sweep) or the first endpoint of the removed edge (edge sweep)
+         * @param k outage index
+         * @return vertex id, or -1 for a scenario sweep
+         */
+        public int getOutageSource(int k) {
+            return outageSource == null ? -1 : outageSource[k];
+        }
+
+        /**
+         * Get the second endpoint of the removed edge (-1 for a vertex sweep)
+         * @param k outage index
+         * @return vertex id, or -1
+         */
+        public int getOutageTarget(int k) {
+            return outageTarget == null ? -1 : outageTarget[k];
+        }
+
+        /**
+         * Get the number of connected components after outage `k`
+         * @param k outage index
+         * @return number of connected components
+         */
+        public int getComponentCount(int k) {
+            return componentCounts[k];
+        }
+
+        /**
+         * Get the component sizes after outage `k`
+         * @param k outage index
+         * @return component sizes in decreasing order
+         */
+        public int[] getComponentSizes(int k) {
+            return Arrays.copyOfRange(sizes, sizeOffsets[k], sizeOffsets[k + 1]);
+        }
+    }
+
+    /**
+     * Evaluates the removal of every vertex.
+     * @return one outage per vertex id
+     */
+    public Result sweepVertices() {
+        int n = graph.getVertexCount();
+        int[] outageSource = new int[n];
+        for (int v = 0; v < n; v++) {
+            outageSource[v] = v;
+        }
+        return sweep(outageSource, null);
+    }
+
+    /**
+     * Counts the connected components after the removal of every vertex, without the component sizes.
+     * The blocks of the graph are computed once (`DynamicBiconnectivity`), then every outage costs the number
+     * of blocks its vertex lies in instead of a traversal, i.e. O(V + E) for the whole sweep.
+     * @return number of connected components per removed vertex id (as `getComponentCount` of `sweepVertices`)
+     */
+    public int[] countVertexOutages() {
+        DynamicBiconnectivity blocks = new DynamicBiconnectivity(graph);
+        int n = graph.getVertexCount();
+        int[] componentCounts = new int[n];
+        for (int v = 0; v < n; v++) {
+            componentCounts[v] = blocks.countConnectedComponentsWithout(v);
+        }
+        return componentCounts;
+    }
+
+    /**
+     * Evaluates the removal of every edge (each undirected edge once). Parallel copies of an edge are one
+     * outage that removes all of them, so a doubled line is never reported as a bridge.
+     * @return one outage per pair of adjacent vertices
+     */
+    public Result sweepEdges() {
+        int n = graph.getVertexCount();
+        int[] seen = new int[n];
+        int m = 0;
+        for (int v = 0; v < n; v++) {
+            for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                int w = graph.getTarget(i);
+                if (v < w && seen[w] != v + 1) {
+                    seen[w] = v + 1;
+                    m++;
+                }
+            }
+        }
+        int[] outageSource = new int[m];
+        int[] outageTarget = new int[m];
+        Arrays.fill(seen, 0);
+        m = 0;
+        for (int v = 0; v < n; v++) {
+            for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                int w = graph.getTarget(i);
+                if (v < w && seen[w] != v + 1) {
+                    seen[w] = v + 1;
+                    outageSource[m] = v;
+                    outageTarget[m] = w;
+                    m++;
+                }
+            }
+        }
+        return sweep(outageSource, outageTarget);
+    }
+
+    /**
+     * Evaluates multi-outage scenarios. Scenario `k` removes the vertices in `failedVertices[k]` and the
+     * adjacency entries in `failedArcs[k]` (see `failedEdges`); removed vertices are not counted as components.
+     * @param failedVertices failed vertex ids per scenario (entries may be null for none)
+     * @param failedArcs failed adjacency entries per scenario, or null (entries may be null for none)
+     * @return one outage per scenario
+     * @throws IllegalArgumentException when the arrays differ in length.
+     */
+    public Result sweepScenarios(BitMask[] failedVertices, BitMask[] failedArcs) {
+        if (failedArcs != null && failedArcs.length != failedVertices.length) {
+            throw new IllegalArgumentException(failedVertices.length + " vertex masks but " + failedArcs.length + " edge masks");
+        }
+        return sweep(failedVertices.length, null, null, failedVertices, failedArcs == null ? new BitMask[failedVertices.length] : failedArcs);
+    }
+
+    /**
+     * Builds the adjacency entry mask of a set of failed undirected edges (both directions of each edge).
+     * @param graph The graph object
+     * @param sources first endpoint per failed edge
+     * @param targets second endpoint per failed edge
+     * @return mask over the adjacency entries of the graph
+     */
+    public static BitMask failedEdges(IndexedGraph graph, int[] sources, int[] targets) {
+        BitMask mask = new BitMask(graph.getArcCount());
+        for (int k = 0; k < sources.length; k++) {
+            markArcs(graph, sources[k], targets[k], mask);
+            markArcs(graph, targets[k], sources[k], mask);
+        }
+        return mask;
+    }
+
+    private static void markArcs(IndexedGraph graph, int a, int b, BitMask mask) {
+        for (int i = graph.adjStart(a); i < graph.adjEnd(a); i++) {
+            if (graph.getTarget(i) == b) {
+                mask.set(i);
+            }
+        }
+    }
+
+    private Result sweep(int[] outageSource, int[] outageTarget) {
+        return sweep(outageSource.length, outageSource, outageTarget, null, null);
+    }
+
+    /**
+     * Runs the outages on the pool and assembles the result.
+     * @param outages number of outages
+     * @param outageSource removed vertex / first edge endpoint per outage, or null for scenarios
+     * @param outageTarget second edge endpoint per outage, or null for vertex outages
+     * @param failedVertices failed vertices per scenario, or null for single outages
+     * @param failedArcs failed adjacency entries per scenario, or null for single outages
+     * @return the sweep result
+     */
+    private Result sweep(int outages, int[] outageSource, int[] outageTarget, BitMask[] failedVertices, BitMask[] failedArcs) {
+        int[] componentCounts = new int[outages];
+        int chunkCount = Math.max(1, Math.min(outages, pool.getParallelism() * 8));
+        Chunk[] chunks = new Chunk[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            int lo = (int) ((long) outages * c / chunkCount);
+            int hi = (int) ((long) outages * (c + 1) / chunkCount);
+            chunks[c] = new Chunk(lo, hi, outageSource, outageTarget, failedVertices, failedArcs, componentCounts);
+        }
+        if (outages > 0) {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(chunks);
+                }
+            });
+        }
+
+        int[] sizeOffsets = new int[outages + 1];
+        for (int k = 0; k < outages; k++) {
+            sizeOffsets[k + 1] = sizeOffsets[k] + componentCounts[k];
+        }
+        int[] sizes = new int[sizeOffsets[outages]];
+        for (Chunk chunk : chunks) {
+            System.arraycopy(chunk.sizes, 0, sizes, sizeOffsets[chunk.lo], chunk.sizeCount);
+        }
+        Chunk base = new Chunk(0, 0, outageSource, outageTarget, failedVertices, failedArcs, componentCounts);
+        int baseComponentCount = base.countComponents(-1, -1, -1);
+        return new Result(baseComponentCount, outageSource, outageTarget, componentCounts, sizeOffsets, sizes);
+    }
+
+    /**
+     * A range of outages evaluated by one worker with its own scratch space.
+     */
+    private final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+        private final int[] outageSource;
+        private final int[] outageTarget;
+        private final BitMask[] failedVertices;
+        private final BitMask[] failedArcs;
+        private final int[] componentCounts;
+        private int[] mark;
+        private int stamp;
+        private int[] queue;
+        private int[] sizes;
+        private int sizeCount;
+
+        Chunk(int lo, int hi, int[] outageSource, int[] outageTarget, BitMask[] failedVertices, BitMask[] failedArcs, int[] componentCounts) {
+            this.lo = lo;
+            this.hi = hi;
+            this.outageSource = outageSource;
+            this.outageTarget = outageTarget;
+            this.failedVertices = failedVertices;
+            this.failedArcs = failedArcs;
+            this.componentCounts = componentCounts;
+            this.sizes = new int[16];
+            this.sizeCount = 0;
+        }
+
+        @Override
+        protected void compute() {
+            for (int k = lo; k < hi; k++) {
+                int start = sizeCount;
+                if (failedVertices != null) {
+                    componentCounts[k] = countComponents(failedVertices[k], failedArcs[k]);
+                } else if (outageTarget == null) {
+                    componentCounts[k] = countComponents(outageSource[k], -1, -1);
+                } else {
+                    componentCounts[k] = countComponents(-1, outageSource[k], outageTarget[k]);
+                }
+                // Decreasing order of component size
+                Arrays.sort(sizes, start, sizeCount);
+                for (int i = start, j = sizeCount - 1; i < j; i++, j--) {
+                    int tmp = sizes[i];
+                    sizes[i] = sizes[j];
+                    sizes[j] = tmp;
+                }
+            }
+        }
+
+        /**
+         * Counts the components with one vertex or every copy of one edge masked out and records their sizes.
+         * @param removedVertex vertex to skip, or -1
+         * @param edgeSource first endpoint of the edge to skip, or -1
+         * @param edgeTarget second endpoint of the edge to skip, or -1
+         * @return number of connected components
+         */
+        private int countComponents(int removedVertex, int edgeSource, int edgeTarget) {
+            int n = graph.getVertexCount();
+            if (mark == null) {
+                mark = new int[n];
+                queue = new int[n];
+            }
+            stamp++;
+            if (removedVertex >= 0) {
+                mark[removedVertex] = stamp;
+            }
+            int components = 0;
+            for (int root = 0; root < n; root++) {
+                if (mark[root] == stamp) {
+                    continue;
+                }
+                components++;
+                int head = 0;
+                int tail = 0;
+                mark[root] = stamp;
+                queue[tail++] = root;
+                while (head < tail) {
+                    int x = queue[head++];
+                    for (int i = graph.adjStart(x); i < graph.adjEnd(x); i++) {
+                        int w = graph.getTarget(i);
+                        if (mark[w] != stamp && !(x == edgeSource && w == edgeTarget) && !(x == edgeTarget && w == edgeSource)) {
+                            mark[w] = stamp;
+                            queue[tail++] = w;
+                        }
+                    }
+                }
+                if (sizeCount == sizes.length) {
+                    sizes = Arrays.copyOf(sizes, 2 * sizeCount);
+                }
+                sizes[sizeCount++] = tail;
+            }
+            return components;
+        }
+
+        /**
+         * Counts the components with the masked vertices and adjacency entries left out and records their sizes.
+         * @param vertices failed vertices, or null
+         * @param arcs failed adjacency entries, or null
+         * @return number of connected components
+         */
+        private int countComponents(BitMask vertices, BitMask arcs) {
+            int n = graph.getVertexCount();
+            if (mark == null) {
+                mark = new int[n];
+                queue = new int[n];
+            }
+            stamp++;
+            if (vertices != null) {
+                for (int v = vertices.nextSetBit(0); v >= 0 && v < n; v = vertices.nextSetBit(v + 1)) {
+                    mark[v] = stamp;
+                }
+            }
+            BitMask skip = arcs != null && !arcs.isEmpty() ? arcs : null;
+            int components = 0;
+            for (int root = 0; root < n; root++) {
+                if (mark[root] == stamp) {
+                    continue;
+                }
+                components++;
+                int head = 0;
+                int tail = 0;
+                mark[root] = stamp;
+                queue[tail++] = root;
+                while (head < tail) {
+                    int x = queue[head++];
+                    for (int i = graph.adjStart(x); i < graph.adjEnd(x); i++) {
+                        int w = graph.getTarget(i);
+                        if (mark[w] != stamp && (skip == null || !skip.get(i))) {
+                            mark[w] = stamp;
+                            queue[tail++] = w;
+                        }
+                    }
+                }
+                if (sizeCount == sizes.length) {
+                    sizes = Arrays.copyOf(sizes, 2 * sizeCount);
+                }
+                sizes[sizeCount++] = tail;
+            }
+            return components;
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package graph.algo;
+
+import graph.IndexedGraph;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * k-core decomposition of an `IndexedGraph`: the core number of a vertex is the largest `k` such that it belongs
+ * to a subgraph where every vertex has at least `k` neighbors. The decomposition works on the simple undirected
+ * graph underneath: directions are dropped, parallel edges count once and self-loops are ignored.
+ * Two engines are available:
+ * <ul>
+ * <li>`run()`: the bucket peeling of Batagelj and Zaversnik, sequential and O(V + E). Vertices are kept sorted by
+ * current degree in one array; removing the vertex of least degree moves each of its neighbors one bucket down
+ * with a swap.</li>
+ * <li>`runParallel()`: level-synchronous peeling (in the style of PKC) spread over a `ForkJoinPool`. For every
+ * level `k`, the vertices of degree `k` are removed in parallel frontiers, decrementing their neighbors' degrees
+ * atomically, until no vertex of degree `k` is left. Each level rescans the vertices not yet removed, so it does
+ * O(E + V * L) work for `L` distinct core numbers, which is small for sparse graphs.</li>
+ * </ul>
+ * Both engines produce identical results.
+ */
+public class CoreDecomposition {
+
+    private static final int GRAIN = 4096;
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final ForkJoinPool pool;
+
+    private final int n;
+
+    private final int[] offsets;
+
+    private final int[] neighbors;
+
+    /**
+     * Constructor (uses the common `ForkJoinPool`): builds the simple undirected adjacency of the graph.
+     * @param graph The graph object
+     */
+    public CoreDecomposition(IndexedGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor: builds the simple undirected adjacency of the graph.
+     * @param graph The graph object
+     * @param pool the pool `runParallel()` runs on
+     */
+    public CoreDecomposition(IndexedGraph graph, ForkJoinPool pool) {
+        this.pool = pool;
+        this.n = graph.getVertexCount();
+        this.offsets = new int[n + 1];
+        // Count every arc (both ways for a directed graph), then drop the repeated neighbors in place
+        boolean directed = !graph.isUndirected();
+        for (int v = 0; v < n; v++) {
+            for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                int w = graph.getTarget(i);
+                if (w != v) {
+                    offsets[v + 1]++;
+                    if (directed) {
+                        offsets[w + 1]++;
+                    }
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] adjacency = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int v = 0; v < n; v++) {
+            for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                int w = graph.getTarget(i);
+                if (w != v) {
+                    adjacency[fill[v]++] = w;
+                    if (directed) {
+                        adjacency[fill[w]++] = v;
+                    }
+                }
+            }
+        }
+        int[] stamp = fill;
+        Arrays.fill(stamp, -1);
+        int size = 0;
+        for (int v = 0; v < n; v++) {
+            int start = offsets[v];
+            offsets[v] = size;
+            for (int i = start; i < offsets[v + 1]; i++) {
+                int w = adjacency[i];
+                if (stamp[w] != v) {
+                    stamp[w] = v;
+                    adjacency[size++] = w;
+                }
+            }
+        }
+        offsets[n] = size;
+        this.neighbors = adjacency;
+    }
+
+    /**
+     * The core numbers of the graph.
+     */
+    public static class Result {
+        private final int[] cores;
+        private final int[] shellSizes;
+
+        Result(int[] cores) {
+            int degeneracy = 0;
+            for (int core : cores) {
+                degeneracy = Math.max(degeneracy, core);
+            }
+            this.cores = cores;
+            this.shellSizes = new int[cores.length == 0 ? 0 : degeneracy + 1];
+            for (int core : cores) {
+                shellSizes[core]++;
+            }
+        }
+
+        /**
+         * Get the core number of a vertex
+         * @param v vertex id
+         * @return largest `k` such that `v` is in the `k`-core
+         */
+        public int getCoreNumber(int v) {
+            return cores[v];
+        }
+
+        /**
+         * Get the core number of every vertex
+         * @return core number per vertex id
+         */
+        public int[] getCoreNumbers() {
+            return cores.clone();
+        }
+
+        /**
+         * Get the degeneracy of the graph, i.e. the largest core number
+         * @return degeneracy (0 for an empty graph)
+         */
+        public int getDegeneracy() {
+            return Math.max(0, shellSizes.length - 1);
+        }
+
+        /**
+         * Get the vertices of the `k`-core, i.e. those with a core number of at least `k`
+         * @param k the core
+         * @return vertex ids in increasing order
+         */
+        public int[] getCore(int k) {
+            int size = 0;
+            for (int c = Math.max(0, k); c < shellSizes.length; c++) {
+                size += shellSizes[c];
+            }
+            int[] core = new int[size];
+            int next = 0;
+            for (int v = 0; v < cores.length && next < size; v++) {
+                if (cores[v] >= k) {
+                    core[next++] = v;
+                }
+            }
+            return core;
+        }
+
+        /**
+         * Get the number of vertices per core number (the `k`-shells)
+         * @return number of vertices whose core number is exactly `k`, indexed by `k`
+         */
+        public int[] getShellSizes() {
+            return shellSizes.clone();
+        }
+    }
+
+    /**
+     * Get the number of distinct neighbors of a vertex in the simple undirected graph
+     * @param v vertex id
+     * @return degree of `v`
+     */
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * Computes the core numbers with the sequential bucket peeling.
+     * @return the core numbers
+     */
+    public Result run() {
+        int[] degree = new int[n];
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            degree[v] = degree(v);
+            maxDegree = Math.max(maxDegree, degree[v]);
+        }
+        // `vertices` is sorted by degree; `bins[d]` is the position of the first vertex of degree `d`
+        int[] bins = new int[maxDegree + 1];
+        for (int v = 0; v < n; v++) {
+            bins[degree[v]]++;
+        }
+        int start = 0;
+        for (int d = 0; d <= maxDegree; d++) {
+            int count = bins[d];
+            bins[d] = start;
+            start += count;
+        }
+        int[] position = new int[n];
+        int[] vertices = new int[n];
+        for (int v = 0; v < n; v++) {
+            position[v] = bins[degree[v]]++;
+            vertices[position[v]] = v;
+        }
+        for (int d = maxDegree; d > 0; d--) {
+            bins[d] = bins[d - 1];
+        }
+        bins[0] = 0;
+        for (int i = 0; i < n; i++) {
+            int v = vertices[i];
+            for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                int u = neighbors[j];
+                if (degree[u] > degree[v]) {
+                    // Swap `u` with the first vertex of its bin, then shrink the bin past it
+                    int du = degree[u];
+                    int pu = position[u];
+                    int pw = bins[du];
+                    int w = vertices[pw];
+                    if (u != w) {
+                        position[u] = pw;
+                        vertices[pu] = w;
+                        position[w] = pu;
+                        vertices[pw] = u;
+                    }
+                    bins[du]++;
+                    degree[u]--;
+                }
+            }
+        }
+        return new Result(degree);
+    }
+
+    /**
+     * Computes the core numbers with the parallel level peeling.
+     * @return the core numbers
+     */
+    public Result runParallel() {
+        int[] degree = new int[n];
+        int[] cores = new int[n];
+        int[] remaining = new int[n];
+        int[] frontier = new int[n];
+        int[] next = new int[n];
+        int[] lowest = new int[Math.max(1, parts(n))];
+        parallel(parts(n), p -> {
+            int lo = lo(p, parts(n), n);
+            int hi = hi(p, parts(n), n);
+            for (int v = lo; v < hi; v++) {
+                degree[v] = degree(v);
+                cores[v] = -1;
+                remaining[v] = v;
+            }
+        });
+        int remainingCount = n;
+        int level = 0;
+        while (remainingCount > 0) {
+            int k = level;
+            int frontierCount = select(remaining, remainingCount, frontier, v -> degree[v] == k);
+            while (frontierCount > 0) {
+                int[] current = frontier;
+                int count = frontierCount;
+                int parts = parts(count);
+                int[][] found = new int[parts][];
+                int[] foundCount = new int[parts];
+                parallel(parts, p -> {
+                    int[] local = new int[16];
+                    int size = 0;
+                    for (int i = lo(p, parts, count); i < hi(p, parts, count); i++) {
+                        int v = current[i];
+                        cores[v] = k;
+                        for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                            int u = neighbors[j];
+                            if ((int) INTS.getOpaque(degree, u) <= k) {
+                                continue;
+                            }
+                            int previous = (int) INTS.getAndAdd(degree, u, -1);
+                            if (previous == k + 1) {
+                                // This decrement brought `u` down to the level: it joins the next frontier once
+                                if (size == local.length) {
+                                    local = Arrays.copyOf(local, size * 2);
+                                }
+                                local[size++] = u;
+                            } else if (previous <= k) {
+                                // Another vertex of the frontier got there first
+                                INTS.getAndAdd(degree, u, 1);
+                            }
+                        }
+                    }
+                    found[p] = local;
+                    foundCount[p] = size;
+                });
+                frontierCount = 0;
+                for (int p = 0; p < parts; p++) {
+                    System.arraycopy(found[p], 0, next, frontierCount, foundCount[p]);
+                    frontierCount += foundCount[p];
+                }
+                frontier = next;
+                next = current;
+            }
+            // Drop the vertices of this level and jump to the smallest degree left
+            remainingCount = select(remaining, remainingCount, remaining, v -> cores[v] < 0);
+            int parts = parts(remainingCount);
+            int count = remainingCount;
+            Arrays.fill(lowest, Integer.MAX_VALUE);
+            parallel(parts, p -> {
+                int min = Integer.MAX_VALUE;
+                for (int i = lo(p, parts, count); i < hi(p, parts, count); i++) {
+                    min = Math.min(min, degree[remaining[i]]);
+                }
+                lowest[p] = min;
+            });
+            level = Integer.MAX_VALUE;
+            for (int p = 0; p < parts; p++) {
+                level = Math.min(level, lowest[p]);
+            }
+        }
+        return new Result(cores);
+    }
+
+    /**
+     * Copies the vertices of `source[0, count)` accepted by `filter` to `target`, in order; `target` may be `source`.
+     * @return number of vertices copied
+     */
+    private int select(int[] source, int count, int[] target, IntPredicate filter) {
+        int parts = parts(count);
+        int[] kept = new int[parts + 1];
+        parallel(parts, p -> {
+            int size = 0;
+            for (int i = lo(p, parts, count); i < hi(p, parts, count); i++) {
+                if (filter.test(source[i])) {
+                    size++;
+                }
+            }
+            kept[p + 1] = size;
+        });
+        for (int p = 0; p < parts; p++) {
+            kept[p + 1] += kept[p];
+        }
+        if (source == target) {
+            // In place: each part only moves vertices down, but the parts must go in order
+            for (int p = 0; p < parts; p++) {
+                scatter(source, target, filter, lo(p, parts, count), hi(p, parts, count), kept[p]);
+            }
+        } else {
+            parallel(parts, p -> scatter(source, target, filter, lo(p, parts, count), hi(p, parts, count), kept[p]));
+        }
+        return kept[parts];
+    }
+
+    private static void scatter(int[] source, int[] target, IntPredicate filter, int lo, int hi,
+            int at) {
+        for (int i = lo; i < hi; i++) {
+            if (filter.test(source[i])) {
+                target[at++] = source[i];
+            }
+        }
+    }
+
+    private int parts(int count) {
+        return Math.max(1, Math.min(pool.getParallelism() * 8, count / GRAIN));
+    }
+
+    private static int lo(int part, int parts, int n) {
+        return (int) ((long) n * part / parts);
+    }
+
+    private static int hi(int part, int parts, int n) {
+        return (int) ((long) n * (part + 1) / parts);
+    }
+
+    /**
+     * Runs `body` for every part index on the pool.
+     */
+    private void parallel(int parts, IntConsumer body) {
+        if (parts == 1) {
+            body.accept(0);
+            return;
+        }
+        RecursiveAction[] tasks = new RecursiveAction[parts];
+        for (int p = 0; p < parts; p++) {
+            int part = p;
+            tasks[p] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    body.accept(part);
+                }
+            };
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package graph.algo;
+
+import graph.IndexedGraph;
+import java.util.Arrays;
+
+/**
+ * The degree distribution of an `IndexedGraph`, in O(V + E).
+ * The degree of a vertex is its number of distinct neighbors (out-neighbors for a directed graph): parallel
+ * edges count once and self-loops not at all, as for `Graph.degree`.
+ */
+public class DegreeDistribution {
+
+    private final int[] degrees;
+    private final int[] histogram;
+    private final long degreeSum;
+
+    private DegreeDistribution(int[] degrees) {
+        int maxDegree = 0;
+        long sum = 0;
+        for (int d : degrees) {
+            maxDegree = Math.max(maxDegree, d);
+            sum += d;
+        }
+        this.degrees = degrees;
+        this.histogram = new int[maxDegree + 1];
+        this.degreeSum = sum;
+        for (int d : degrees) {
+            histogram[d]++;
+        }
+    }
+
+    /**
+     * Computes the degree distribution of a graph.
+     * @param graph The graph object
+     * @return the distribution
+     */
+    public static DegreeDistribution of(IndexedGraph graph) {
+        int n = graph.getVertexCount();
+        int[] degrees = new int[n];
+        int[] stamp = new int[n];
+        Arrays.fill(stamp, -1);
+        for (int v = 0; v < n; v++) {
+            int degree = 0;
+            for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                int w = graph.getTarget(i);
+                if (w != v && stamp[w] != v) {
+                    stamp[w] = v;
+                    degree++;
+                }
+            }
+            degrees[v] = degree;
+        }
+        return new DegreeDistribution(degrees);
+    }
+
+    /**
+     * Get the degree of a vertex
+     * @param v vertex id
+     * @return number of distinct neighbors of `v`
+     */
+    public int getDegree(int v) {
+        return degrees[v];
+    }
+
+    /**
+     * Get the number of vertices of a given degree
+     * @param degree the degree
+     * @return number of vertices with exactly `degree` distinct neighbors
+     */
+    public int getCount(int degree) {
+        return degree >= 0 && degree < histogram.length ? histogram[degree] : 0;
+    }
+
+    /**
+     * Get the histogram of the degrees
+     * @return number of vertices per degree, indexed by degree (up to `getMaxDegree()`)
+     */
+    public int[] getHistogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * Get the number of vertices
+     * @return vertex count
+     */
+    public int getVertexCount() {
+        return degrees.length;
+    }
+
+    /**
+     * Get the smallest degree
+     * @return min degree (0 for an empty graph)
+     */
+    public int getMinDegree() {
+        for (int d = 0; d < histogram.length; d++) {
+            if (histogram[d] > 0) {
+                return d;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Get the largest degree
+     * @return max degree (0 for an empty graph)
+     */
+    public int getMaxDegree() {
+        return histogram.length - 1;
+    }
+
+    /**
+     * Get the mean degree
+     * @return mean degree (0.0 for an empty graph)
+     */
+    public double getMeanDegree() {
+        return degrees.length == 0 ? 0.0 : (double) degreeSum / degrees.length;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("degree: count\n");
+        for (int d = 0; d < histogram.length; d++) {
+            if (histogram[d] > 0) {
+                sb.append(d).append(": ").append(histogram[d]).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+}
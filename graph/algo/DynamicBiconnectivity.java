@@ -0,0 +1,443 @@
+package graph.algo;
+
+import graph.IndexedGraph;
+import java.util.Arrays;
+
+/**
+ * Maintains the articulation points and the number of connected components of an `IndexedGraph`
+ * while vertices are disabled and enabled.
+ *
+ * The structure keeps the biconnected blocks of the alive subgraph. Disabling a vertex `v` only
+ * changes the blocks that contain `v`, so those blocks are re-decomposed locally: the cost is the total
+ * size (vertices and edges) of the blocks of `v`. That is small on a radial or tree-like network, but on a
+ * meshed grid one block spans most of the graph and a disable costs O(V + E) like a recount. Enabling the
+ * most recently disabled vertex, which is the pattern of an N-1 outage sweep, rolls the change back in time
+ * proportional to what the disable created. Any other enable re-decomposes the whole component the vertex
+ * joins.
+ *
+ * With the blocks known, a vertex is an articulation point iff it belongs to two or more blocks, and
+ * the number of connected components is `aliveVertices + blocks - blockMemberships` (each component's
+ * block-cut tree is a tree), so both queries are O(1), and `countConnectedComponentsWithout` answers a
+ * single outage in time proportional to the number of blocks of the vertex without re-decomposing
+ * anything; `ContingencySweep.countVertexOutages` uses it for a whole N-1 vertex sweep.
+ */
+public class DynamicBiconnectivity {
+
+    private final IndexedGraph graph;
+
+    private final boolean[] alive;
+
+    private int aliveCount;
+
+    // Block storage: block `b` owns pool[blockStart[b] .. blockEnd[b])
+    private int[] pool;
+    private int poolSize;
+    private int[] blockStart;
+    private int[] blockEnd;
+    private boolean[] blockLive;
+    private int blockCount;
+    private int liveBlockCount;
+    private long memberships;
+
+    // Per-vertex block membership
+    private final int[] blockDegree;
+    private final int[][] vertexBlocks;
+    private final int[] vertexBlockCount;
+    private int articulationPointCount;
+
+    // Undo log of disable operations
+    private int[] logVertex;
+    private int[] logBlockCount;
+    private int[] logPoolSize;
+    private int[] logKilledStart;
+    private int logSize;
+    private int[] killed;
+    private int killedSize;
+
+    // Scratch space shared by the local decompositions
+    private final int[] inSet;
+    private int setStamp;
+    private final int[] visitMark;
+    private int visitStamp;
+    private final int[] blockMark;
+    private int blockStamp;
+    private final int[] discovery;
+    private final int[] low;
+    private final int[] parent;
+    private final int[] parentArc;
+    private final int[] next;
+    private final boolean[] parentSkipped;
+    private final int[] frames;
+    private final int[] arcStack;
+    private final int[] work;
+
+    /**
+     * Constructor: all vertices start enabled.
+     * @param graph The graph object (undirected)
+     */
+    public DynamicBiconnectivity(IndexedGraph graph) {
+        int n = graph.getVertexCount();
+        this.graph = graph;
+        this.alive = new boolean[n];
+        Arrays.fill(alive, true);
+        this.aliveCount = n;
+        this.blockDegree = new int[n];
+        this.vertexBlocks = new int[n][];
+        this.vertexBlockCount = new int[n];
+        this.inSet = new int[n];
+        this.visitMark = new int[n];
+        this.blockMark = new int[n];
+        this.discovery = new int[n];
+        this.low = new int[n];
+        this.parent = new int[n];
+        this.parentArc = new int[n];
+        this.next = new int[n];
+        this.parentSkipped = new boolean[n];
+        this.frames = new int[n];
+        this.arcStack = new int[graph.getArcCount()];
+        this.work = new int[n];
+        this.logVertex = new int[16];
+        this.logBlockCount = new int[16];
+        this.logPoolSize = new int[16];
+        this.logKilledStart = new int[16];
+        this.killed = new int[16];
+        rebuild();
+    }
+
+    /**
+     * Check whether a vertex is currently enabled
+     * @param v vertex id
+     * @return true if `v` is enabled
+     */
+    public boolean isAlive(int v) {
+        return alive[v];
+    }
+
+    /**
+     * Check whether a vertex is currently an articulation point of the alive subgraph
+     * @param v vertex id
+     * @return true if disabling `v` would disconnect its component
+     */
+    public boolean isArticulationPoint(int v) {
+        return alive[v] && blockDegree[v] >= 2;
+    }
+
+    /**
+     * Get the current number of articulation points
+     * @return number of articulation points of the alive subgraph
+     */
+    public int getArticulationPointCount() {
+        return articulationPointCount;
+    }
+
+    /**
+     * Get the current number of connected components of the alive subgraph
+     * @return number of connected components
+     */
+    public int countConnectedComponents() {
+        return (int) (aliveCount + liveBlockCount - memberships);
+    }
+
+    /**
+     * Get the number of components the alive subgraph would have if `v` were disabled, without changing anything.
+     * @param v vertex id (must be enabled)
+     * @return number of connected components after removing `v`
+     */
+    public int countConnectedComponentsWithout(int v) {
+        int live = 0;
+        for (int k = 0; k < vertexBlockCount[v]; k++) {
+            if (blockLive[vertexBlocks[v][k]]) {
+                live++;
+            }
+        }
+        // Each block of `v` leaves one piece behind; an isolated vertex leaves none
+        return countConnectedComponents() - 1 + live;
+    }
+
+    /**
+     * Disables a vertex as if it is not present in the graph.
+     * @param v vertex id
+     */
+    public void disableVertex(int v) {
+        if (!alive[v]) {
+            return;
+        }
+        if (logSize == logVertex.length) {
+            int size = 2 * logSize;
+            logVertex = Arrays.copyOf(logVertex, size);
+            logBlockCount = Arrays.copyOf(logBlockCount, size);
+            logPoolSize = Arrays.copyOf(logPoolSize, size);
+            logKilledStart = Arrays.copyOf(logKilledStart, size);
+        }
+        logVertex[logSize] = v;
+        logBlockCount[logSize] = blockCount;
+        logPoolSize[logSize] = poolSize;
+        logKilledStart[logSize] = killedSize;
+        logSize++;
+
+        alive[v] = false;
+        aliveCount--;
+        int[] blocks = vertexBlocks[v];
+        int count = vertexBlockCount[v];
+        for (int k = 0; k < count; k++) {
+            int b = blocks[k];
+            if (!blockLive[b]) {
+                continue;
+            }
+            killBlock(b);
+            if (killedSize == killed.length) {
+                killed = Arrays.copyOf(killed, 2 * killedSize);
+            }
+            killed[killedSize++] = b;
+            // `b` minus `v` is connected; re-decompose it on its own
+            int size = 0;
+            for (int i = blockStart[b]; i < blockEnd[b]; i++) {
+                if (pool[i] != v) {
+                    work[size++] = pool[i];
+                }
+            }
+            decompose(size);
+        }
+    }
+
+    /**
+     * Enables a vertex that was disabled.
+     * @param v vertex id
+     */
+    public void enableVertex(int v) {
+        if (alive[v]) {
+            return;
+        }
+        if (logSize > 0 && logVertex[logSize - 1] == v) {
+            rollback();
+            return;
+        }
+        // Not the last disabled vertex: the undo log no longer describes the state
+        logSize = 0;
+        killedSize = 0;
+        alive[v] = true;
+        aliveCount++;
+        // Collect the component `v` now belongs to and re-decompose it
+        visitStamp++;
+        int head = 0;
+        int tail = 0;
+        work[tail++] = v;
+        visitMark[v] = visitStamp;
+        while (head < tail) {
+            int x = work[head++];
+            for (int i = graph.adjStart(x); i < graph.adjEnd(x); i++) {
+                int w = graph.getTarget(i);
+                if (alive[w] && visitMark[w] != visitStamp) {
+                    visitMark[w] = visitStamp;
+                    work[tail++] = w;
+                }
+            }
+        }
+        for (int j = 0; j < tail; j++) {
+            int x = work[j];
+            for (int k = 0; k < vertexBlockCount[x]; k++) {
+                int b = vertexBlocks[x][k];
+                if (blockLive[b]) {
+                    killBlock(b);
+                }
+            }
+        }
+        decompose(tail);
+        if (blockCount - liveBlockCount > liveBlockCount + 1024) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Undo the most recent `disableVertex`.
+     */
+    private void rollback() {
+        logSize--;
+        int savedBlockCount = logBlockCount[logSize];
+        for (int b = blockCount - 1; b >= savedBlockCount; b--) {
+            if (blockLive[b]) {
+                killBlock(b);
+            }
+            for (int i = blockStart[b]; i < blockEnd[b]; i++) {
+                vertexBlockCount[pool[i]]--;
+            }
+        }
+        blockCount = savedBlockCount;
+        poolSize = logPoolSize[logSize];
+        for (int k = killedSize - 1; k >= logKilledStart[logSize]; k--) {
+            reviveBlock(killed[k]);
+        }
+        killedSize = logKilledStart[logSize];
+        int v = logVertex[logSize];
+        alive[v] = true;
+        aliveCount++;
+    }
+
+    /**
+     * Recompute all blocks of the alive subgraph from scratch.
+     */
+    private void rebuild() {
+        int n = graph.getVertexCount();
+        pool = new int[Math.max(16, graph.getArcCount() + n)];
+        poolSize = 0;
+        blockStart = new int[16];
+        blockEnd = new int[16];
+        blockLive = new boolean[16];
+        blockCount = 0;
+        liveBlockCount = 0;
+        memberships = 0;
+        articulationPointCount = 0;
+        Arrays.fill(blockDegree, 0);
+        Arrays.fill(vertexBlockCount, 0);
+        logSize = 0;
+        killedSize = 0;
+        int size = 0;
+        for (int v = 0; v < n; v++) {
+            if (alive[v]) {
+                work[size++] = v;
+            }
+        }
+        decompose(size);
+    }
+
+    /**
+     * Runs an iterative Hopcroft-Tarjan pass over the subgraph induced by the alive vertices `work[0 .. size)`
+     * and registers the blocks it finds.
+     * @param size number of vertices in `work`
+     */
+    private void decompose(int size) {
+        setStamp++;
+        for (int j = 0; j < size; j++) {
+            inSet[work[j]] = setStamp;
+            discovery[work[j]] = 0;
+        }
+        int timer = 0;
+        for (int j = 0; j < size; j++) {
+            int root = work[j];
+            if (discovery[root] != 0) {
+                continue;
+            }
+            int sp = 0;
+            int arcTop = 0;
+            discovery[root] = low[root] = ++timer;
+            parent[root] = -1;
+            next[root] = graph.adjStart(root);
+            frames[sp++] = root;
+            while (sp > 0) {
+                int v = frames[sp - 1];
+                if (next[v] < graph.adjEnd(v)) {
+                    int i = next[v]++;
+                    int w = graph.getTarget(i);
+                    if (!alive[w] || inSet[w] != setStamp) {
+                        continue;
+                    }
+                    if (discovery[w] == 0) {
+                        discovery[w] = low[w] = ++timer;
+                        parent[w] = v;
+                        parentArc[w] = i;
+                        parentSkipped[w] = false;
+                        next[w] = graph.adjStart(w);
+                        arcStack[arcTop++] = i;
+                        frames[sp++] = w;
+                    } else if (w == parent[v] && !parentSkipped[v]) {
+                        parentSkipped[v] = true;
+                    } else if (discovery[w] < discovery[v]) {
+                        low[v] = Math.min(low[v], discovery[w]);
+                        arcStack[arcTop++] = i;
+                    }
+                    continue;
+                }
+                sp--;
+                int p = parent[v];
+                if (p < 0) {
+                    continue;
+                }
+                low[p] = Math.min(low[p], low[v]);
+                if (low[v] >= discovery[p]) {
+                    blockStamp++;
+                    int start = poolSize;
+                    int arc;
+                    do {
+                        arc = arcStack[--arcTop];
+                        appendBlockVertex(graph.getTarget(arc));
+                    } while (arc != parentArc[v]);
+                    appendBlockVertex(p);
+                    addBlock(start, poolSize);
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends a vertex to the block being built unless it is already in it.
+     * @param x vertex id
+     */
+    private void appendBlockVertex(int x) {
+        if (blockMark[x] == blockStamp) {
+            return;
+        }
+        blockMark[x] = blockStamp;
+        if (poolSize == pool.length) {
+            pool = Arrays.copyOf(pool, 2 * poolSize);
+        }
+        pool[poolSize++] = x;
+    }
+
+    /**
+     * Registers the block stored in `pool[start .. end)`.
+     * @param start start index in the pool
+     * @param end end index in the pool
+     */
+    private void addBlock(int start, int end) {
+        if (blockCount == blockStart.length) {
+            int size = 2 * blockCount;
+            blockStart = Arrays.copyOf(blockStart, size);
+            blockEnd = Arrays.copyOf(blockEnd, size);
+            blockLive = Arrays.copyOf(blockLive, size);
+        }
+        int b = blockCount++;
+        blockStart[b] = start;
+        blockEnd[b] = end;
+        for (int i = start; i < end; i++) {
+            int x = pool[i];
+            int[] blocks = vertexBlocks[x];
+            if (blocks == null) {
+                blocks = vertexBlocks[x] = new int[2];
+            } else if (vertexBlockCount[x] == blocks.length) {
+                blocks = vertexBlocks[x] = Arrays.copyOf(blocks, 2 * blocks.length);
+            }
+            blocks[vertexBlockCount[x]++] = b;
+        }
+        reviveBlock(b);
+    }
+
+    /**
+     * Marks a registered block live and updates the counters.
+     * @param b block id
+     */
+    private void reviveBlock(int b) {
+        blockLive[b] = true;
+        liveBlockCount++;
+        for (int i = blockStart[b]; i < blockEnd[b]; i++) {
+            memberships++;
+            if (++blockDegree[pool[i]] == 2) {
+                articulationPointCount++;
+            }
+        }
+    }
+
+    /**
+     * Marks a block dead and updates the counters.
+     * @param b block id
+     */
+    private void killBlock(int b) {
+        blockLive[b] = false;
+        liveBlockCount--;
+        for (int i = blockStart[b]; i < blockEnd[b]; i++) {
+            memberships--;
+            if (blockDegree[pool[i]]-- == 2) {
+                articulationPointCount--;
+            }
+        }
+    }
+}
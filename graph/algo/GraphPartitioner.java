@@ -0,0 +1,558 @@
+package graph.algo;
+
+import graph.IndexedGraph;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Multilevel k-way partitioning of an `IndexedGraph` that minimizes the edge cut (in the style of METIS).
+ * The graph is coarsened by heavy-edge matching until it is small, the coarsest graph is split by greedy graph
+ * growing (the best of a few seeds is kept), and the split is projected back level by level, each level
+ * refined by moving boundary vertices to the neighboring piece they are most connected to while the pieces
+ * stay within the allowed imbalance.
+ * Directions are dropped and self-loops ignored; parallel edges (and the two arcs of a directed pair) weigh
+ * as many edges. All levels live in primitive arrays.
+ */
+public class GraphPartitioner {
+
+    private static final int COARSEST_PER_PART = 20;
+    private static final int SEEDS = 4;
+    private static final int REFINE_PASSES = 8;
+
+    private final IndexedGraph graph;
+
+    private final Level finest;
+
+    private double imbalance = 1.03;
+
+    private long seed;
+
+    /**
+     * Constructor: builds the symmetric, weighted adjacency of the graph.
+     * @param graph The graph object
+     */
+    public GraphPartitioner(IndexedGraph graph) {
+        this.graph = graph;
+        this.finest = Level.of(graph);
+    }
+
+    /**
+     * Sets the largest allowed piece weight as a factor of the average (1.03 by default).
+     * A piece may still exceed it by one vertex when the vertices cannot be split finer.
+     * @param imbalance factor of at least 1.0
+     * @return this partitioner
+     * @throws IllegalArgumentException when `imbalance` is below 1.0.
+     */
+    public GraphPartitioner setImbalance(double imbalance) {
+        if (!(imbalance >= 1.0)) {
+            throw new IllegalArgumentException("Imbalance must be at least 1.0: " + imbalance);
+        }
+        this.imbalance = imbalance;
+        return this;
+    }
+
+    /**
+     * Sets the seed of the random visiting orders, so that runs are reproducible (0 by default).
+     * @param seed the seed
+     * @return this partitioner
+     */
+    public GraphPartitioner setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * The pieces of a partition, with the ghost bookkeeping every piece needs to work on its own: the boundary
+     * vertices (owned vertices with a neighbor in another piece) and the ghost vertices (the vertices of other
+     * pieces adjacent to an owned vertex).
+     */
+    public static class Result {
+        private final int[] parts;
+        private final int[] ownedOffsets;
+        private final int[] owned;
+        private final int[] ghostOffsets;
+        private final int[] ghosts;
+        private final boolean[] boundary;
+        private final long edgeCut;
+
+        Result(IndexedGraph graph, int[] parts, int k) {
+            int n = parts.length;
+            this.parts = parts;
+            this.ownedOffsets = new int[k + 1];
+            for (int v = 0; v < n; v++) {
+                ownedOffsets[parts[v] + 1]++;
+            }
+            for (int p = 0; p < k; p++) {
+                ownedOffsets[p + 1] += ownedOffsets[p];
+            }
+            this.owned = new int[n];
+            int[] fill = Arrays.copyOf(ownedOffsets, k);
+            for (int v = 0; v < n; v++) {
+                owned[fill[parts[v]]++] = v;
+            }
+            // Ghosts are collected per piece in increasing owned order, deduplicated with a stamp
+            this.boundary = new boolean[n];
+            int[] stamp = new int[n];
+            Arrays.fill(stamp, -1);
+            int[] buffer = new int[16];
+            int size = 0;
+            long cut = 0;
+            this.ghostOffsets = new int[k + 1];
+            for (int p = 0; p < k; p++) {
+                int start = size;
+                for (int i = ownedOffsets[p]; i < ownedOffsets[p + 1]; i++) {
+                    int v = owned[i];
+                    for (int j = graph.adjStart(v); j < graph.adjEnd(v); j++) {
+                        int w = graph.getTarget(j);
+                        if (parts[w] == p) {
+                            continue;
+                        }
+                        cut++;
+                        boundary[v] = true;
+                        if (stamp[w] != p) {
+                            stamp[w] = p;
+                            if (size == buffer.length) {
+                                buffer = Arrays.copyOf(buffer, 2 * size);
+                            }
+                            buffer[size++] = w;
+                        }
+                    }
+                }
+                Arrays.sort(buffer, start, size);
+                ghostOffsets[p + 1] = size;
+            }
+            this.ghosts = Arrays.copyOf(buffer, size);
+            this.edgeCut = graph.isUndirected() ? cut / 2 : cut;
+        }
+
+        /**
+         * Get the number of pieces
+         * @return k
+         */
+        public int getPartCount() {
+            return ownedOffsets.length - 1;
+        }
+
+        /**
+         * Get the piece of a vertex
+         * @param v vertex id
+         * @return piece in `[0, getPartCount())`
+         */
+        public int getPart(int v) {
+            return parts[v];
+        }
+
+        /**
+         * Get the piece of every vertex
+         * @return piece per vertex id
+         */
+        public int[] getParts() {
+            return parts.clone();
+        }
+
+        /**
+         * Get the number of vertices of a piece
+         * @param p piece
+         * @return number of owned vertices
+         */
+        public int getPartSize(int p) {
+            return ownedOffsets[p + 1] - ownedOffsets[p];
+        }
+
+        /**
+         * Get the vertices owned by a piece
+         * @param p piece
+         * @return vertex ids in increasing order
+         */
+        public int[] getVertices(int p) {
+            return Arrays.copyOfRange(owned, ownedOffsets[p], ownedOffsets[p + 1]);
+        }
+
+        /**
+         * Get the ghost vertices of a piece, i.e. the vertices of other pieces adjacent to one of its vertices
+         * (the targets of its outgoing arcs for a directed graph)
+         * @param p piece
+         * @return vertex ids in increasing order
+         */
+        public int[] getGhosts(int p) {
+            return Arrays.copyOfRange(ghosts, ghostOffsets[p], ghostOffsets[p + 1]);
+        }
+
+        /**
+         * Whether a vertex has a neighbor in another piece
+         * @param v vertex id
+         * @return true if `v` is on the boundary of its piece
+         */
+        public boolean isBoundary(int v) {
+            return boundary[v];
+        }
+
+        /**
+         * Get the number of edges between different pieces (arcs for a directed graph)
+         * @return the edge cut
+         */
+        public long getEdgeCut() {
+            return edgeCut;
+        }
+
+        /**
+         * Get the size of the largest piece relative to the average
+         * @return 1.0 for a perfectly balanced partition
+         */
+        public double getImbalance() {
+            int k = getPartCount();
+            int largest = 0;
+            for (int p = 0; p < k; p++) {
+                largest = Math.max(largest, getPartSize(p));
+            }
+            return parts.length == 0 ? 1.0 : (double) largest * k / parts.length;
+        }
+    }
+
+    /**
+     * Partitions the graph.
+     * @param k number of pieces
+     * @return the partition
+     * @throws IllegalArgumentException when `k` is not positive.
+     */
+    public Result partition(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Number of parts must be positive: " + k);
+        }
+        Random random = new Random(seed);
+        // Coarsen until the graph is small or matching stops shrinking it
+        Level[] levels = new Level[8];
+        int depth = 0;
+        levels[depth++] = finest;
+        long maxVertexWeight = Math.max(1, finest.totalWeight / (4L * k));
+        while (levels[depth - 1].n > COARSEST_PER_PART * k) {
+            Level coarse = levels[depth - 1].coarsen(random, maxVertexWeight);
+            if (coarse.n > 0.95 * levels[depth - 1].n) {
+                break;
+            }
+            if (depth == levels.length) {
+                levels = Arrays.copyOf(levels, 2 * depth);
+            }
+            levels[depth++] = coarse;
+        }
+        Level coarsest = levels[depth - 1];
+        int[] parts = null;
+        long bestCut = Long.MAX_VALUE;
+        for (int s = 0; s < SEEDS; s++) {
+            int[] candidate = coarsest.grow(k, random);
+            coarsest.refine(candidate, k, limit(coarsest, k), random);
+            long cut = coarsest.cut(candidate);
+            if (cut < bestCut) {
+                bestCut = cut;
+                parts = candidate;
+            }
+        }
+        for (int level = depth - 2; level >= 0; level--) {
+            Level fine = levels[level];
+            int[] projected = new int[fine.n];
+            for (int v = 0; v < fine.n; v++) {
+                projected[v] = parts[fine.coarseId[v]];
+            }
+            parts = projected;
+            fine.refine(parts, k, limit(fine, k), random);
+        }
+        return new Result(graph, parts, k);
+    }
+
+    private long limit(Level level, int k) {
+        return (long) Math.ceil(imbalance * level.totalWeight / k);
+    }
+
+    /**
+     * A level of the hierarchy: a simple undirected graph with vertex and edge weights.
+     */
+    private static final class Level {
+        private final int n;
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] edgeWeights;
+        private final int[] vertexWeights;
+        private final long totalWeight;
+        /** The vertex of the next coarser level each vertex was merged into. */
+        private int[] coarseId;
+
+        Level(int[] offsets, int[] targets, int[] edgeWeights, int[] vertexWeights) {
+            this.n = vertexWeights.length;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.edgeWeights = edgeWeights;
+            this.vertexWeights = vertexWeights;
+            long total = 0;
+            for (int w : vertexWeights) {
+                total += w;
+            }
+            this.totalWeight = total;
+        }
+
+        static Level of(IndexedGraph graph) {
+            int n = graph.getVertexCount();
+            boolean directed = !graph.isUndirected();
+            int[] offsets = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                    int w = graph.getTarget(i);
+                    if (w != v) {
+                        offsets[v + 1]++;
+                        if (directed) {
+                            offsets[w + 1]++;
+                        }
+                    }
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] arcs = new int[offsets[n]];
+            int[] fill = Arrays.copyOf(offsets, n);
+            for (int v = 0; v < n; v++) {
+                for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                    int w = graph.getTarget(i);
+                    if (w != v) {
+                        arcs[fill[v]++] = w;
+                        if (directed) {
+                            arcs[fill[w]++] = v;
+                        }
+                    }
+                }
+            }
+            int[] vertexWeights = new int[n];
+            Arrays.fill(vertexWeights, 1);
+            return merge(n, offsets, arcs, null, vertexWeights);
+        }
+
+        /**
+         * Builds a level from adjacency lists that may repeat a neighbor: repeats are merged and their
+         * weights (1 each when `weights` is null) summed, `position` remembering where each neighbor went.
+         */
+        private static Level merge(int n, int[] offsets, int[] arcs, int[] weights, int[] vertexWeights) {
+            int[] position = new int[n];
+            Arrays.fill(position, -1);
+            int[] targets = new int[arcs.length];
+            int[] edgeWeights = new int[arcs.length];
+            int[] merged = new int[n + 1];
+            int size = 0;
+            for (int v = 0; v < n; v++) {
+                int start = size;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int w = arcs[i];
+                    int weight = weights == null ? 1 : weights[i];
+                    if (w == v) {
+                        continue;
+                    }
+                    if (position[w] >= start) {
+                        edgeWeights[position[w]] += weight;
+                    } else {
+                        position[w] = size;
+                        targets[size] = w;
+                        edgeWeights[size++] = weight;
+                    }
+                }
+                merged[v + 1] = size;
+            }
+            return new Level(merged, Arrays.copyOf(targets, size), Arrays.copyOf(edgeWeights, size), vertexWeights);
+        }
+
+        /**
+         * Merges every vertex with its unmatched neighbor of heaviest edge, visiting the vertices in random order.
+         */
+        Level coarsen(Random random, long maxVertexWeight) {
+            int[] match = new int[n];
+            Arrays.fill(match, -1);
+            for (int v : shuffled(random)) {
+                if (match[v] >= 0) {
+                    continue;
+                }
+                int best = v;
+                int bestWeight = 0;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int w = targets[i];
+                    if (match[w] < 0 && edgeWeights[i] > bestWeight
+                            && vertexWeights[v] + vertexWeights[w] <= maxVertexWeight) {
+                        best = w;
+                        bestWeight = edgeWeights[i];
+                    }
+                }
+                match[v] = best;
+                match[best] = v;
+            }
+            coarseId = new int[n];
+            int coarseCount = 0;
+            for (int v = 0; v < n; v++) {
+                if (match[v] >= v) {
+                    coarseId[v] = coarseCount;
+                    coarseId[match[v]] = coarseCount++;
+                }
+            }
+            int[] coarseWeights = new int[coarseCount];
+            int[] coarseOffsets = new int[coarseCount + 1];
+            for (int v = 0; v < n; v++) {
+                coarseWeights[coarseId[v]] += vertexWeights[v];
+                coarseOffsets[coarseId[v] + 1] += offsets[v + 1] - offsets[v];
+            }
+            for (int c = 0; c < coarseCount; c++) {
+                coarseOffsets[c + 1] += coarseOffsets[c];
+            }
+            int[] arcs = new int[offsets[n]];
+            int[] weights = new int[offsets[n]];
+            int[] fill = Arrays.copyOf(coarseOffsets, coarseCount);
+            for (int v = 0; v < n; v++) {
+                int c = coarseId[v];
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    arcs[fill[c]] = coarseId[targets[i]];
+                    weights[fill[c]++] = edgeWeights[i];
+                }
+            }
+            return merge(coarseCount, coarseOffsets, arcs, weights, coarseWeights);
+        }
+
+        /**
+         * Splits the level into `k` pieces by breadth-first growth from random seeds, each piece taking its share
+         * of the weight that is left; the last piece takes the rest.
+         */
+        int[] grow(int k, Random random) {
+            int[] parts = new int[n];
+            Arrays.fill(parts, -1);
+            int[] order = shuffled(random);
+            int[] queue = new int[n];
+            int next = 0;
+            long left = totalWeight;
+            for (int p = 0; p < k - 1; p++) {
+                long target = left / (k - p);
+                long weight = 0;
+                int head = 0;
+                int tail = 0;
+                while (weight < target) {
+                    if (head == tail) {
+                        while (next < n && parts[order[next]] >= 0) {
+                            next++;
+                        }
+                        if (next == n) {
+                            break;
+                        }
+                        parts[order[next]] = p;
+                        queue[tail++] = order[next];
+                    }
+                    int v = queue[head++];
+                    weight += vertexWeights[v];
+                    for (int i = offsets[v]; i < offsets[v + 1] && weight < target; i++) {
+                        int w = targets[i];
+                        if (parts[w] < 0) {
+                            parts[w] = p;
+                            queue[tail++] = w;
+                        }
+                    }
+                }
+                // Queued vertices that did not fit go back to the pool
+                while (head < tail) {
+                    parts[queue[head++]] = -1;
+                }
+                left -= weight;
+            }
+            for (int v = 0; v < n; v++) {
+                if (parts[v] < 0) {
+                    parts[v] = k - 1;
+                }
+            }
+            return parts;
+        }
+
+        /**
+         * Greedy boundary refinement: vertices move to the neighboring piece they are most connected to when it
+         * lowers the cut (or keeps it and evens the weights) without overloading the piece; pieces over the limit
+         * first shed vertices at the least cost.
+         */
+        void refine(int[] parts, int k, long limit, Random random) {
+            long[] weights = new long[k];
+            for (int v = 0; v < n; v++) {
+                weights[parts[v]] += vertexWeights[v];
+            }
+            long[] connection = new long[k];
+            int[] touched = new int[k];
+            int[] order = shuffled(random);
+            for (int pass = 0; pass < REFINE_PASSES; pass++) {
+                int moves = 0;
+                for (int v : order) {
+                    int own = parts[v];
+                    int count = 0;
+                    for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                        int q = parts[targets[i]];
+                        if (connection[q] == 0) {
+                            touched[count++] = q;
+                        }
+                        connection[q] += edgeWeights[i];
+                    }
+                    boolean overloaded = weights[own] > limit;
+                    int best = -1;
+                    long bestGain = overloaded ? Long.MIN_VALUE : 0;
+                    for (int t = 0; t < count; t++) {
+                        int q = touched[t];
+                        if (q == own || weights[q] + vertexWeights[v] > limit) {
+                            continue;
+                        }
+                        long gain = connection[q] - connection[own];
+                        boolean evens = weights[q] + vertexWeights[v] < weights[own];
+                        if (gain > bestGain || (gain == bestGain && best < 0 && (overloaded || evens))) {
+                            best = q;
+                            bestGain = gain;
+                        }
+                    }
+                    if (best < 0 && overloaded) {
+                        // No neighboring piece has room: move to the lightest piece
+                        best = 0;
+                        for (int q = 1; q < k; q++) {
+                            if (weights[q] < weights[best]) {
+                                best = q;
+                            }
+                        }
+                        if (best == own || weights[best] + vertexWeights[v] > limit) {
+                            best = -1;
+                        }
+                    }
+                    for (int t = 0; t < count; t++) {
+                        connection[touched[t]] = 0;
+                    }
+                    if (best >= 0) {
+                        parts[v] = best;
+                        weights[own] -= vertexWeights[v];
+                        weights[best] += vertexWeights[v];
+                        moves++;
+                    }
+                }
+                if (moves == 0) {
+                    break;
+                }
+            }
+        }
+
+        long cut(int[] parts) {
+            long cut = 0;
+            for (int v = 0; v < n; v++) {
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    if (parts[targets[i]] != parts[v]) {
+                        cut += edgeWeights[i];
+                    }
+                }
+            }
+            return cut / 2;
+        }
+
+        private int[] shuffled(Random random) {
+            int[] order = new int[n];
+            for (int v = 0; v < n; v++) {
+                order[v] = v;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int t = order[i];
+                order[i] = order[j];
+                order[j] = t;
+            }
+            return order;
+        }
+    }
+}
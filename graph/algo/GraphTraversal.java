@@ -0,0 +1,363 @@
+package graph.algo;
+
+import graph.IndexedGraph;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A reusable DFS/BFS engine over an `IndexedGraph`.
+ * All scratch space (stack, queue, edge cursors, visited and on-stack bitsets) is allocated once in the
+ * constructor and reset by every traversal, so repeated traversals allocate nothing. Traversals report to
+ * a `Visitor` (push style) or are pulled vertex by vertex through a `PrimitiveIterator.OfInt`.
+ * An engine runs one traversal at a time and is not thread-safe; use one engine per thread.
+ */
+public class GraphTraversal {
+
+    /**
+     * Receives the events of a traversal; every method does nothing by default.
+     */
+    public interface Visitor {
+
+        /**
+         * A vertex is entered (DFS: when it is discovered; BFS: when it leaves the queue).
+         * @param v vertex id
+         */
+        default void preVisit(int v) {
+        }
+
+        /**
+         * A vertex is left (DFS: when all its edges are done; BFS: after its edges are scanned).
+         * @param v vertex id
+         */
+        default void postVisit(int v) {
+        }
+
+        /**
+         * `w` is discovered from `u`.
+         * @param u parent vertex id
+         * @param w child vertex id
+         */
+        default void treeEdge(int u, int w) {
+        }
+
+        /**
+         * DFS: `w` is an ancestor of `u` that is still being explored (for undirected graphs the edge back
+         * to the parent is not reported, once per parent).
+         * @param u vertex id
+         * @param w ancestor vertex id
+         */
+        default void backEdge(int u, int w) {
+        }
+
+        /**
+         * Any other edge to an already discovered vertex: forward and cross edges of a directed DFS, the
+         * second sighting of an undirected back edge, and the non-tree edges of a BFS.
+         * @param u vertex id
+         * @param w vertex id
+         */
+        default void crossEdge(int u, int w) {
+        }
+    }
+
+    private final IndexedGraph graph;
+    private final int[] stack;
+    private final int[] cursor;
+    private final boolean[] parentSkipped;
+    private final long[] visited;
+    private final long[] onStack;
+    private final DepthFirstIterator depthFirst = new DepthFirstIterator();
+    private final BreadthFirstIterator breadthFirst = new BreadthFirstIterator();
+    private int visitedCount;
+    private boolean stopped;
+
+    /**
+     * Constructor: allocates the scratch space for the graph.
+     * @param graph The graph object
+     */
+    public GraphTraversal(IndexedGraph graph) {
+        int n = graph.getVertexCount();
+        this.graph = graph;
+        this.stack = new int[n];
+        this.cursor = new int[n];
+        this.parentSkipped = new boolean[n];
+        this.visited = new long[(n + 63) >>> 6];
+        this.onStack = new long[visited.length];
+    }
+
+    /**
+     * Depth-first traversal of every component, roots taken in increasing id order.
+     * @param visitor receiver of the events
+     */
+    public void dfs(Visitor visitor) {
+        reset();
+        for (int v = 0; v < stack.length && !stopped; v++) {
+            if (!isVisited(v)) {
+                dfsFrom(v, visitor);
+            }
+        }
+    }
+
+    /**
+     * Depth-first traversal of the vertices reachable from `source`.
+     * @param source vertex id to start from
+     * @param visitor receiver of the events
+     * @throws IndexOutOfBoundsException when `source` is not a vertex of the graph.
+     */
+    public void dfs(int source, Visitor visitor) {
+        checkVertex(source);
+        reset();
+        dfsFrom(source, visitor);
+    }
+
+    /**
+     * Breadth-first traversal of every component, roots taken in increasing id order.
+     * @param visitor receiver of the events
+     */
+    public void bfs(Visitor visitor) {
+        reset();
+        for (int v = 0; v < stack.length && !stopped; v++) {
+            if (!isVisited(v)) {
+                bfsFrom(v, visitor);
+            }
+        }
+    }
+
+    /**
+     * Breadth-first traversal of the vertices reachable from `source`.
+     * @param source vertex id to start from
+     * @param visitor receiver of the events
+     * @throws IndexOutOfBoundsException when `source` is not a vertex of the graph.
+     */
+    public void bfs(int source, Visitor visitor) {
+        checkVertex(source);
+        reset();
+        bfsFrom(source, visitor);
+    }
+
+    /**
+     * Ends the running traversal after the current event; meant to be called from a `Visitor`.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Iterates the vertices reachable from `source` in depth-first pre-order.
+     * The iterator is owned by the engine: the next traversal or iterator request restarts it.
+     * @param source vertex id to start from
+     * @return the vertices in DFS pre-order
+     * @throws IndexOutOfBoundsException when `source` is not a vertex of the graph.
+     */
+    public PrimitiveIterator.OfInt depthFirst(int source) {
+        checkVertex(source);
+        reset();
+        depthFirst.start(source);
+        return depthFirst;
+    }
+
+    /**
+     * Iterates the vertices reachable from `source` in breadth-first order.
+     * The iterator is owned by the engine: the next traversal or iterator request restarts it.
+     * @param source vertex id to start from
+     * @return the vertices in BFS order
+     * @throws IndexOutOfBoundsException when `source` is not a vertex of the graph.
+     */
+    public PrimitiveIterator.OfInt breadthFirst(int source) {
+        checkVertex(source);
+        reset();
+        breadthFirst.start(source);
+        return breadthFirst;
+    }
+
+    /**
+     * Whether the last traversal reached `v`
+     * @param v vertex id
+     * @return true if visited
+     */
+    public boolean isVisited(int v) {
+        return (visited[v >>> 6] & (1L << v)) != 0;
+    }
+
+    /**
+     * Get the number of vertices reached by the last traversal
+     * @return number of visited vertices
+     */
+    public int getVisitedCount() {
+        return visitedCount;
+    }
+
+    private void reset() {
+        Arrays.fill(visited, 0L);
+        Arrays.fill(onStack, 0L);
+        visitedCount = 0;
+        stopped = false;
+    }
+
+    private void markVisited(int v) {
+        visited[v >>> 6] |= 1L << v;
+        visitedCount++;
+    }
+
+    /**
+     * Pushes a newly discovered vertex as DFS frame `top`.
+     */
+    private void push(int top, int v) {
+        markVisited(v);
+        onStack[v >>> 6] |= 1L << v;
+        stack[top] = v;
+        cursor[top] = graph.adjStart(v);
+        parentSkipped[top] = false;
+    }
+
+    private void dfsFrom(int root, Visitor visitor) {
+        int top = 0;
+        push(top, root);
+        visitor.preVisit(root);
+        while (top >= 0 && !stopped) {
+            int u = stack[top];
+            int i = cursor[top];
+            if (i == graph.adjEnd(u)) {
+                onStack[u >>> 6] &= ~(1L << u);
+                visitor.postVisit(u);
+                top--;
+                continue;
+            }
+            cursor[top] = i + 1;
+            int w = graph.getTarget(i);
+            if (!isVisited(w)) {
+                visitor.treeEdge(u, w);
+                push(++top, w);
+                visitor.preVisit(w);
+            } else if ((onStack[w >>> 6] & (1L << w)) != 0) {
+                if (graph.isUndirected() && top > 0 && w == stack[top - 1] && !parentSkipped[top]) {
+                    parentSkipped[top] = true;
+                } else {
+                    visitor.backEdge(u, w);
+                }
+            } else {
+                visitor.crossEdge(u, w);
+            }
+        }
+    }
+
+    /**
+     * BFS using `stack` as the queue and `cursor` for the parent of each queued vertex.
+     */
+    private void bfsFrom(int root, Visitor visitor) {
+        int head = 0;
+        int tail = 0;
+        markVisited(root);
+        stack[tail] = root;
+        cursor[tail++] = -1;
+        while (head < tail && !stopped) {
+            int parent = cursor[head];
+            int u = stack[head++];
+            visitor.preVisit(u);
+            boolean skipParent = graph.isUndirected();
+            for (int i = graph.adjStart(u); i < graph.adjEnd(u) && !stopped; i++) {
+                int w = graph.getTarget(i);
+                if (!isVisited(w)) {
+                    markVisited(w);
+                    visitor.treeEdge(u, w);
+                    stack[tail] = w;
+                    cursor[tail++] = u;
+                } else if (skipParent && w == parent) {
+                    skipParent = false;
+                } else {
+                    visitor.crossEdge(u, w);
+                }
+            }
+            visitor.postVisit(u);
+        }
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= stack.length) {
+            throw new IndexOutOfBoundsException("Vertex " + v + " is not a vertex of the graph");
+        }
+    }
+
+    /**
+     * Pre-order DFS pulled one vertex at a time over the engine's stack.
+     */
+    private final class DepthFirstIterator implements PrimitiveIterator.OfInt {
+        private int top;
+        private int pending;
+
+        void start(int source) {
+            top = 0;
+            push(0, source);
+            pending = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending >= 0) {
+                return true;
+            }
+            while (top >= 0) {
+                int u = stack[top];
+                int i = cursor[top];
+                if (i == graph.adjEnd(u)) {
+                    top--;
+                    continue;
+                }
+                cursor[top] = i + 1;
+                int w = graph.getTarget(i);
+                if (!isVisited(w)) {
+                    push(++top, w);
+                    pending = w;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int v = pending;
+            pending = -1;
+            return v;
+        }
+    }
+
+    /**
+     * BFS pulled one vertex at a time; a vertex's neighbors are queued when it is returned.
+     */
+    private final class BreadthFirstIterator implements PrimitiveIterator.OfInt {
+        private int head;
+        private int tail;
+
+        void start(int source) {
+            head = 0;
+            tail = 0;
+            markVisited(source);
+            stack[tail++] = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return head < tail;
+        }
+
+        @Override
+        public int nextInt() {
+            if (head == tail) {
+                throw new NoSuchElementException();
+            }
+            int u = stack[head++];
+            for (int i = graph.adjStart(u); i < graph.adjEnd(u); i++) {
+                int w = graph.getTarget(i);
+                if (!isVisited(w)) {
+                    markVisited(w);
+                    stack[tail++] = w;
+                }
+            }
+            return u;
+        }
+    }
+}
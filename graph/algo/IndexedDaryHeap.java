@@ -0,0 +1,119 @@
+package graph.algo;
+
+import java.util.Arrays;
+
+/**
+ * A min-heap of vertex ids keyed by a double, with an index from vertex to heap slot so that
+ * `decreaseKey` works in place. Arity 4 keeps the tree shallow and the children of a slot in one cache line.
+ * Everything lives in primitive arrays sized once; `clear` only touches the slots that were used.
+ */
+final class IndexedDaryHeap {
+
+    private static final int ARITY = 4;
+
+    private final int[] heap;
+    private final int[] slot;
+    private final double[] keys;
+    private int size;
+
+    /**
+     * Constructor
+     * @param capacity number of distinct vertex ids (`0 .. capacity - 1`)
+     */
+    IndexedDaryHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.slot = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(slot, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int v) {
+        return slot[v] >= 0;
+    }
+
+    /**
+     * Inserts `v`, or lowers its key if it is already in the heap with a larger one.
+     */
+    void insertOrDecrease(int v, double key) {
+        int i = slot[v];
+        if (i < 0) {
+            i = size++;
+        } else if (key >= keys[v]) {
+            return;
+        }
+        keys[v] = key;
+        siftUp(i, v);
+    }
+
+    double peekKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes and returns the vertex with the smallest key.
+     */
+    int poll() {
+        int top = heap[0];
+        slot[top] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            slot[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int i, int v) {
+        double key = keys[v];
+        while (i > 0) {
+            int parent = (i - 1) / ARITY;
+            int p = heap[parent];
+            if (keys[p] <= key) {
+                break;
+            }
+            heap[i] = p;
+            slot[p] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        slot[v] = i;
+    }
+
+    private void siftDown(int i, int v) {
+        double key = keys[v];
+        while (true) {
+            int first = ARITY * i + 1;
+            if (first >= size) {
+                break;
+            }
+            int best = first;
+            double bestKey = keys[heap[first]];
+            int end = Math.min(first + ARITY, size);
+            for (int c = first + 1; c < end; c++) {
+                double k = keys[heap[c]];
+                if (k < bestKey) {
+                    best = c;
+                    bestKey = k;
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            heap[i] = heap[best];
+            slot[heap[i]] = i;
+            i = best;
+        }
+        heap[i] = v;
+        slot[v] = i;
+    }
+}
@@ -0,0 +1,379 @@
+package graph.algo;
+
+import graph.IndexedGraph;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel level-synchronous, direction-optimizing breadth-first search.
+ * Every level is expanded by chunks running on a `ForkJoinPool`. While the frontier is small the level is
+ * expanded top-down (the frontier claims its unvisited neighbors in an atomic bitset); once the frontier
+ * touches a large share of the remaining edges it switches to bottom-up (every unvisited vertex looks for a
+ * parent in the frontier bitset and stops at the first hit), and back when the frontier shrinks again
+ * (Beamer et al., "Direction-Optimizing Breadth-First Search"). Bottom-up needs incoming edges, so it is
+ * only used on undirected graphs.
+ */
+public class ParallelBFS {
+
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    private static final int GRAIN = 2048;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final IndexedGraph graph;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor (uses the common `ForkJoinPool`)
+     * @param graph The graph object
+     */
+    public ParallelBFS(IndexedGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     * @param graph The graph object
+     * @param pool the pool the levels are expanded on
+     */
+    public ParallelBFS(IndexedGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * The outcome of a search.
+     */
+    public static class Result {
+        private final int[] distances;
+        private final int[] parents;
+        private final int reachedCount;
+        private final int depth;
+
+        Result(int[] distances, int[] parents, int reachedCount, int depth) {
+            this.distances = distances;
+            this.parents = parents;
+            this.reachedCount = reachedCount;
+            this.depth = depth;
+        }
+
+        /**
+         * Get the number of edges on a shortest path from the closest source to `v`
+         * @param v vertex id
+         * @return distance, or -1 if `v` is not reachable
+         */
+        public int getDistance(int v) {
+            return distances[v];
+        }
+
+        /**
+         * Get the predecessor of `v` in the BFS tree
+         * @param v vertex id
+         * @return parent vertex id, `v` itself for a source, or -1 if `v` is not reachable
+         */
+        public int getParent(int v) {
+            return parents[v];
+        }
+
+        /**
+         * Get all distances
+         * @return distance per vertex id (-1 if not reachable)
+         */
+        public int[] getDistances() {
+            return distances.clone();
+        }
+
+        /**
+         * Get all parents
+         * @return parent per vertex id (-1 if not reachable)
+         */
+        public int[] getParents() {
+            return parents.clone();
+        }
+
+        /**
+         * Get the number of reached vertices (sources included)
+         * @return number of reached vertices
+         */
+        public int getReachedCount() {
+            return reachedCount;
+        }
+
+        /**
+         * Get the largest distance of a reached vertex
+         * @return number of levels below the sources
+         */
+        public int getDepth() {
+            return depth;
+        }
+    }
+
+    /**
+     * Runs the search from one or more sources (all at distance 0).
+     * @param sources vertex ids to start from
+     * @return distances and parents
+     * @throws IndexOutOfBoundsException when a source is not a vertex of the graph.
+     */
+    public Result run(int... sources) {
+        int n = graph.getVertexCount();
+        int[] distances = new int[n];
+        int[] parents = new int[n];
+        Arrays.fill(distances, -1);
+        Arrays.fill(parents, -1);
+        long[] visited = new long[(n + 63) >>> 6];
+        int[] frontier = new int[n];
+        int[] next = new int[n];
+        long[] frontierBits = null;
+        long[] nextBits = null;
+
+        int frontierSize = 0;
+        long frontierArcs = 0;
+        for (int s : sources) {
+            if (s < 0 || s >= n) {
+                throw new IndexOutOfBoundsException("Source " + s + " is not a vertex of the graph");
+            }
+            if (distances[s] == -1) {
+                distances[s] = 0;
+                parents[s] = s;
+                visited[s >>> 6] |= 1L << s;
+                frontier[frontierSize++] = s;
+                frontierArcs += graph.degree(s);
+            }
+        }
+        long unexploredArcs = graph.getArcCount() - frontierArcs;
+        int reached = frontierSize;
+        int previousSize = 0;
+        int level = 0;
+        boolean bottomUp = false;
+
+        while (frontierSize > 0) {
+            // A bottom-up level scans every word of the visited bitset, so a frontier must also outweigh that scan
+            if (!bottomUp && graph.isUndirected() && frontierArcs > unexploredArcs / ALPHA && frontierArcs > visited.length) {
+                // Switch to bottom-up: turn the frontier list into a bitset
+                if (frontierBits == null) {
+                    frontierBits = new long[visited.length];
+                    nextBits = new long[visited.length];
+                } else {
+                    Arrays.fill(frontierBits, 0L);
+                }
+                for (int i = 0; i < frontierSize; i++) {
+                    frontierBits[frontier[i] >>> 6] |= 1L << frontier[i];
+                }
+                bottomUp = true;
+            } else if (bottomUp && frontierSize < n / BETA && frontierSize < previousSize) {
+                // Switch back to top-down: turn the frontier bitset into a list
+                int size = 0;
+                for (int word = 0; word < frontierBits.length; word++) {
+                    for (long bits = frontierBits[word]; bits != 0; bits &= bits - 1) {
+                        frontier[size++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    }
+                }
+                bottomUp = false;
+            }
+
+            int nextSize;
+            long nextArcs;
+            if (bottomUp) {
+                Arrays.fill(nextBits, 0L);
+                int words = visited.length;
+                BottomUp[] chunks = new BottomUp[chunkCount(n)];
+                for (int c = 0; c < chunks.length; c++) {
+                    chunks[c] = new BottomUp((int) ((long) words * c / chunks.length), (int) ((long) words * (c + 1) / chunks.length),
+                        level, distances, parents, visited, frontierBits, nextBits);
+                }
+                invoke(chunks);
+                nextSize = 0;
+                nextArcs = 0;
+                for (BottomUp chunk : chunks) {
+                    nextSize += chunk.found;
+                    nextArcs += chunk.arcs;
+                }
+                long[] swap = frontierBits;
+                frontierBits = nextBits;
+                nextBits = swap;
+            } else {
+                TopDown[] chunks = new TopDown[chunkCount(frontierSize)];
+                for (int c = 0; c < chunks.length; c++) {
+                    chunks[c] = new TopDown((int) ((long) frontierSize * c / chunks.length), (int) ((long) frontierSize * (c + 1) / chunks.length),
+                        level, distances, parents, visited, frontier, chunks.length > 1 ? null : next);
+                }
+                invoke(chunks);
+                nextSize = 0;
+                nextArcs = 0;
+                for (TopDown chunk : chunks) {
+                    if (chunk.found != next) {
+                        System.arraycopy(chunk.found, 0, next, nextSize, chunk.foundCount);
+                    }
+                    nextSize += chunk.foundCount;
+                    nextArcs += chunk.arcs;
+                }
+                int[] swap = frontier;
+                frontier = next;
+                next = swap;
+            }
+            previousSize = frontierSize;
+            frontierSize = nextSize;
+            frontierArcs = nextArcs;
+            unexploredArcs -= nextArcs;
+            reached += nextSize;
+            if (nextSize > 0) {
+                level++;
+            }
+        }
+        return new Result(distances, parents, reached, level);
+    }
+
+    private int chunkCount(int work) {
+        return Math.max(1, Math.min(pool.getParallelism() * 8, work / GRAIN));
+    }
+
+    private void invoke(RecursiveAction[] chunks) {
+        if (chunks.length == 1) {
+            // Not worth a trip through the pool
+            chunks[0].invoke();
+            return;
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(chunks);
+            }
+        });
+    }
+
+    /**
+     * Expands a slice of the frontier list: each unvisited neighbor is claimed with a CAS on the visited bitset
+     * (a plain write when the slice is the whole frontier).
+     */
+    private final class TopDown extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+        private final int level;
+        private final int[] distances;
+        private final int[] parents;
+        private final long[] visited;
+        private final int[] frontier;
+        private final boolean shared;
+        private int[] found;
+        private int foundCount;
+        private long arcs;
+
+        TopDown(int lo, int hi, int level, int[] distances, int[] parents, long[] visited, int[] frontier, int[] next) {
+            this.lo = lo;
+            this.hi = hi;
+            this.level = level;
+            this.distances = distances;
+            this.parents = parents;
+            this.visited = visited;
+            this.frontier = frontier;
+            this.shared = next == null;
+            // The only chunk of a level writes straight into the next frontier, which has room for every vertex
+            this.found = shared ? new int[Math.max(16, hi - lo)] : next;
+        }
+
+        @Override
+        protected void compute() {
+            for (int k = lo; k < hi; k++) {
+                int u = frontier[k];
+                for (int i = graph.adjStart(u); i < graph.adjEnd(u); i++) {
+                    int w = graph.getTarget(i);
+                    // Racy pre-check: a stale -1 only costs a failed claim
+                    if (distances[w] == -1 && claim(w)) {
+                        distances[w] = level + 1;
+                        parents[w] = u;
+                        if (foundCount == found.length) {
+                            found = Arrays.copyOf(found, 2 * foundCount);
+                        }
+                        found[foundCount++] = w;
+                        arcs += graph.degree(w);
+                    }
+                }
+            }
+        }
+
+        private boolean claim(int w) {
+            int word = w >>> 6;
+            long bit = 1L << w;
+            if (!shared) {
+                // The only chunk of the level: nobody else writes the bitset
+                boolean claimed = (visited[word] & bit) == 0;
+                visited[word] |= bit;
+                return claimed;
+            }
+            long old = (long) WORDS.getOpaque(visited, word);
+            while ((old & bit) == 0) {
+                long witness = (long) WORDS.compareAndExchange(visited, word, old, old | bit);
+                if (witness == old) {
+                    return true;
+                }
+                old = witness;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Scans a range of 64-vertex words: every unvisited vertex looks for a neighbor in the frontier.
+     * The words are owned by the chunk, so the visited and next-frontier bits are written without atomics.
+     */
+    private final class BottomUp extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int fromWord;
+        private final int toWord;
+        private final int level;
+        private final int[] distances;
+        private final int[] parents;
+        private final long[] visited;
+        private final long[] frontierBits;
+        private final long[] nextBits;
+        private int found;
+        private long arcs;
+
+        BottomUp(int fromWord, int toWord, int level, int[] distances, int[] parents, long[] visited, long[] frontierBits, long[] nextBits) {
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+            this.level = level;
+            this.distances = distances;
+            this.parents = parents;
+            this.visited = visited;
+            this.frontierBits = frontierBits;
+            this.nextBits = nextBits;
+        }
+
+        @Override
+        protected void compute() {
+            int n = graph.getVertexCount();
+            for (int word = fromWord; word < toWord; word++) {
+                long unvisited = ~visited[word];
+                if (word == visited.length - 1 && (n & 63) != 0) {
+                    unvisited &= (1L << n) - 1;
+                }
+                long newBits = 0;
+                for (; unvisited != 0; unvisited &= unvisited - 1) {
+                    int v = (word << 6) + Long.numberOfTrailingZeros(unvisited);
+                    for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                        int w = graph.getTarget(i);
+                        if ((frontierBits[w >>> 6] & (1L << w)) != 0) {
+                            distances[v] = level + 1;
+                            parents[v] = w;
+                            newBits |= 1L << v;
+                            found++;
+                            arcs += graph.degree(v);
+                            break;
+                        }
+                    }
+                }
+                visited[word] |= newBits;
+                nextBits[word] = newBits;
+            }
+        }
+    }
+}
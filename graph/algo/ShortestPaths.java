@@ -0,0 +1,494 @@
+package graph.algo;
+
+import graph.IndexedGraph;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntConsumer;
+
+/**
+ * Weighted shortest paths over an `IndexedGraph`.
+ * The length of every adjacency entry is derived once from its stored weight by a length function, e.g.
+ * `IMPEDANCE` turns the admittances of a MatrixMarket bus matrix into line impedances, so that a shortest
+ * path is the electrically closest route. Lengths must not be negative.
+ * <ul>
+ * <li>`dijkstra`: serial Dijkstra on an indexed 4-ary heap (exact, the reference).</li>
+ * <li>`deltaStepping`: parallel delta-stepping; the vertices of one distance bucket are relaxed together on a
+ * `ForkJoinPool` with an atomic minimum on the distances.</li>
+ * <li>`batch`: one Dijkstra per source, the sources spread over the pool, each worker reusing its heap.</li>
+ * </ul>
+ */
+public class ShortestPaths {
+
+    /**
+     * Length = stored weight.
+     */
+    public static final DoubleUnaryOperator WEIGHT = w -> w;
+
+    /**
+     * Length = 1 / |weight|, e.g. the impedance of a line from its admittance (an admittance of 0 is no line at all).
+     */
+    public static final DoubleUnaryOperator IMPEDANCE = w -> 1.0 / Math.abs(w);
+
+    /**
+     * Length = 1 for every edge.
+     */
+    public static final DoubleUnaryOperator HOPS = w -> 1.0;
+
+    private static final int GRAIN = 1024;
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final IndexedGraph graph;
+
+    private final ForkJoinPool pool;
+
+    private final double[] lengths;
+
+    private final double meanLength;
+
+    private final boolean hasZeroLength;
+
+    /**
+     * Constructor (uses the common `ForkJoinPool`)
+     * @param graph The graph object
+     * @param length maps the weight of an edge to its (non-negative) length, e.g. `IMPEDANCE`
+     * @throws IllegalArgumentException when an edge gets a negative or NaN length.
+     */
+    public ShortestPaths(IndexedGraph graph, DoubleUnaryOperator length) {
+        this(graph, length, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     * @param graph The graph object
+     * @param length maps the weight of an edge to its (non-negative) length, e.g. `IMPEDANCE`
+     * @param pool the pool the parallel runs use
+     * @throws IllegalArgumentException when an edge gets a negative or NaN length.
+     */
+    public ShortestPaths(IndexedGraph graph, DoubleUnaryOperator length, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        int arcs = graph.getArcCount();
+        this.lengths = new double[arcs];
+        double sum = 0.0;
+        boolean zero = false;
+        for (int i = 0; i < arcs; i++) {
+            double l = length.applyAsDouble(graph.getWeight(i));
+            if (!(l >= 0.0)) {
+                throw new IllegalArgumentException("Edge " + i + " has length " + l + " (weight " + graph.getWeight(i) + ")");
+            }
+            lengths[i] = l;
+            if (l != Double.POSITIVE_INFINITY) {
+                sum += l;
+            }
+            zero |= l == 0.0;
+        }
+        this.meanLength = arcs == 0 ? 1.0 : sum / arcs;
+        this.hasZeroLength = zero;
+    }
+
+    /**
+     * Get the length of adjacency entry `i`
+     * @param i adjacency entry index
+     * @return length of the edge
+     */
+    public double getLength(int i) {
+        return lengths[i];
+    }
+
+    /**
+     * The shortest path tree of a run.
+     */
+    public static class Result {
+        private final double[] distances;
+        private final int[] parents;
+
+        Result(double[] distances, int[] parents) {
+            this.distances = distances;
+            this.parents = parents;
+        }
+
+        /**
+         * Get the length of a shortest path from the closest source to `v`
+         * @param v vertex id
+         * @return distance, or `Double.POSITIVE_INFINITY` if `v` is not reachable
+         */
+        public double getDistance(int v) {
+            return distances[v];
+        }
+
+        /**
+         * Whether `v` can be reached from a source
+         * @param v vertex id
+         * @return true if reachable
+         */
+        public boolean isReachable(int v) {
+            return distances[v] != Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Get the predecessor of `v` on a shortest path
+         * @param v vertex id
+         * @return parent vertex id, or -1 for a source or an unreachable vertex
+         */
+        public int getParent(int v) {
+            return parents[v];
+        }
+
+        /**
+         * Get all distances
+         * @return distance per vertex id
+         */
+        public double[] getDistances() {
+            return distances.clone();
+        }
+
+        /**
+         * Get all parents
+         * @return parent per vertex id (-1 for a source or an unreachable vertex)
+         */
+        public int[] getParents() {
+            return parents.clone();
+        }
+
+        /**
+         * Get the vertices of a shortest path from the closest source to `v`
+         * @param v vertex id
+         * @return vertex ids from the source to `v`, or an empty array if `v` is not reachable
+         */
+        public int[] getPath(int v) {
+            if (!isReachable(v)) {
+                return new int[0];
+            }
+            int length = 1;
+            for (int u = parents[v]; u != -1; u = parents[u]) {
+                length++;
+            }
+            int[] path = new int[length];
+            for (int u = v; u != -1; u = parents[u]) {
+                path[--length] = u;
+            }
+            return path;
+        }
+    }
+
+    /**
+     * Serial Dijkstra from one or more sources (all at distance 0).
+     * @param sources vertex ids to start from
+     * @return distances to the closest source and the shortest path tree
+     * @throws IndexOutOfBoundsException when a source is not a vertex of the graph.
+     */
+    public Result dijkstra(int... sources) {
+        int n = graph.getVertexCount();
+        double[] distances = new double[n];
+        int[] parents = new int[n];
+        dijkstra(sources, distances, parents, new IndexedDaryHeap(n));
+        return new Result(distances, parents);
+    }
+
+    private void dijkstra(int[] sources, double[] distances, int[] parents, IndexedDaryHeap heap) {
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+        for (int s : sources) {
+            checkSource(s);
+            distances[s] = 0.0;
+            heap.insertOrDecrease(s, 0.0);
+        }
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            double du = distances[u];
+            for (int i = graph.adjStart(u); i < graph.adjEnd(u); i++) {
+                int w = graph.getTarget(i);
+                double d = du + lengths[i];
+                if (d < distances[w]) {
+                    distances[w] = d;
+                    parents[w] = u;
+                    heap.insertOrDecrease(w, d);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs one Dijkstra per source in parallel.
+     * @param sources vertex ids; the `k`-th result belongs to `sources[k]`
+     * @return one shortest path tree per source
+     * @throws IndexOutOfBoundsException when a source is not a vertex of the graph.
+     */
+    public Result[] batch(int... sources) {
+        int n = graph.getVertexCount();
+        for (int s : sources) {
+            checkSource(s);
+        }
+        Result[] results = new Result[sources.length];
+        int parts = Math.max(1, Math.min(pool.getParallelism(), sources.length));
+        parallel(parts, p -> {
+            IndexedDaryHeap heap = new IndexedDaryHeap(n);
+            for (int k = p; k < sources.length; k += parts) {
+                double[] distances = new double[n];
+                int[] parents = new int[n];
+                dijkstra(new int[] {sources[k]}, distances, parents, heap);
+                results[k] = new Result(distances, parents);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Parallel delta-stepping with the mean edge length as bucket width.
+     * @param sources vertex ids to start from
+     * @return distances to the closest source and a shortest path tree
+     * @throws IndexOutOfBoundsException when a source is not a vertex of the graph.
+     */
+    public Result deltaStepping(int... sources) {
+        return deltaStepping(meanLength > 0.0 ? meanLength : 1.0, sources);
+    }
+
+    /**
+     * Parallel delta-stepping.
+     * Vertices are kept in buckets of width `delta` by tentative distance. The smallest non-empty bucket is
+     * relaxed in parallel (each chunk files the vertices it improves into its own buckets) until it stays
+     * empty, then the next one. Small widths approach Dijkstra (little wasted work, little parallelism),
+     * large widths approach Bellman-Ford.
+     * @param delta bucket width (> 0)
+     * @param sources vertex ids to start from
+     * @return distances to the closest source and a shortest path tree
+     * @throws IllegalArgumentException when `delta` is not positive.
+     * @throws IndexOutOfBoundsException when a source is not a vertex of the graph.
+     */
+    public Result deltaStepping(double delta, int... sources) {
+        if (!(delta > 0.0)) {
+            throw new IllegalArgumentException("Bucket width must be positive: " + delta);
+        }
+        int n = graph.getVertexCount();
+        long[] bits = new long[n];
+        long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        Arrays.fill(bits, infinity);
+        int[] frontier = new int[Math.max(16, sources.length)];
+        int frontierSize = 0;
+        for (int s : sources) {
+            checkSource(s);
+            if (bits[s] != 0L) {
+                bits[s] = 0L;
+                frontier[frontierSize++] = s;
+            }
+        }
+        int parts = Math.max(1, Math.min(pool.getParallelism() * 4, n / GRAIN));
+        Buckets[] buckets = new Buckets[parts];
+        for (int p = 0; p < parts; p++) {
+            buckets[p] = new Buckets();
+        }
+        int current = 0;
+        while (frontierSize > 0) {
+            int[] slice = frontier;
+            int size = frontierSize;
+            int bucket = current;
+            parallel(parts, p -> {
+                Buckets own = buckets[p];
+                for (int k = (int) ((long) size * p / parts); k < (int) ((long) size * (p + 1) / parts); k++) {
+                    int u = slice[k];
+                    // Non-negative doubles order like their raw bits
+                    double du = Double.longBitsToDouble((long) LONGS.getOpaque(bits, u));
+                    if (bucketOf(du, delta) < bucket) {
+                        continue; // settled in an earlier bucket already
+                    }
+                    for (int i = graph.adjStart(u); i < graph.adjEnd(u); i++) {
+                        int w = graph.getTarget(i);
+                        double d = du + lengths[i];
+                        if (lower(bits, w, Double.doubleToRawLongBits(d))) {
+                            own.add(bucketOf(d, delta), w);
+                        }
+                    }
+                }
+            });
+            int next = Integer.MAX_VALUE;
+            for (Buckets b : buckets) {
+                next = Math.min(next, b.firstNonEmpty(current));
+            }
+            if (next == Integer.MAX_VALUE) {
+                break;
+            }
+            frontierSize = 0;
+            for (Buckets b : buckets) {
+                frontierSize += b.size(next);
+            }
+            if (frontier.length < frontierSize) {
+                frontier = new int[Math.max(frontierSize, 2 * frontier.length)];
+            }
+            frontierSize = 0;
+            for (Buckets b : buckets) {
+                frontierSize = b.drain(next, frontier, frontierSize);
+            }
+            current = next;
+        }
+
+        double[] distances = new double[n];
+        for (int v = 0; v < n; v++) {
+            distances[v] = Double.longBitsToDouble(bits[v]);
+        }
+        return new Result(distances, parents(distances, sources));
+    }
+
+    /**
+     * Derives a shortest path tree from final distances: `u` is a valid parent of `w` when the edge is tight.
+     * Tight edges between vertices at different distances cannot form a cycle, so they are taken in parallel;
+     * vertices only reachable over zero-length edges are then attached by a serial sweep.
+     */
+    private int[] parents(double[] distances, int[] sources) {
+        int n = distances.length;
+        int[] parents = new int[n];
+        Arrays.fill(parents, -1);
+        int parts = Math.max(1, Math.min(pool.getParallelism() * 4, n / GRAIN));
+        parallel(parts, p -> {
+            for (int u = (int) ((long) n * p / parts); u < (int) ((long) n * (p + 1) / parts); u++) {
+                double du = distances[u];
+                if (du == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int i = graph.adjStart(u); i < graph.adjEnd(u); i++) {
+                    int w = graph.getTarget(i);
+                    if (du < distances[w] && du + lengths[i] == distances[w]) {
+                        INTS.compareAndSet(parents, w, -1, u);
+                    }
+                }
+            }
+        });
+        if (hasZeroLength) {
+            boolean[] isSource = new boolean[n];
+            for (int s : sources) {
+                isSource[s] = true;
+            }
+            int[] queue = new int[n];
+            int tail = 0;
+            for (int v = 0; v < n; v++) {
+                if (parents[v] != -1 || isSource[v]) {
+                    queue[tail++] = v;
+                }
+            }
+            for (int head = 0; head < tail; head++) {
+                int u = queue[head];
+                for (int i = graph.adjStart(u); i < graph.adjEnd(u); i++) {
+                    int w = graph.getTarget(i);
+                    if (lengths[i] == 0.0 && parents[w] == -1 && !isSource[w] && distances[w] == distances[u]) {
+                        parents[w] = u;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+        return parents;
+    }
+
+    private static int bucketOf(double distance, double delta) {
+        double b = distance / delta;
+        return b >= Integer.MAX_VALUE - 1 ? Integer.MAX_VALUE - 1 : (int) b;
+    }
+
+    /**
+     * Atomic minimum on the raw bits of a non-negative double.
+     * @return true if the distance was lowered
+     */
+    private static boolean lower(long[] bits, int v, long value) {
+        long old = (long) LONGS.getOpaque(bits, v);
+        while (value < old) {
+            long witness = (long) LONGS.compareAndExchange(bits, v, old, value);
+            if (witness == old) {
+                return true;
+            }
+            old = witness;
+        }
+        return false;
+    }
+
+    private void checkSource(int s) {
+        if (s < 0 || s >= graph.getVertexCount()) {
+            throw new IndexOutOfBoundsException("Source " + s + " is not a vertex of the graph");
+        }
+    }
+
+    /**
+     * The buckets filled by one chunk: a growable int list per bucket index.
+     */
+    private static final class Buckets {
+        private int[][] lists = new int[16][];
+        private int[] sizes = new int[16];
+        private int highest = -1;
+
+        void add(int bucket, int v) {
+            if (bucket >= lists.length) {
+                int length = Math.max(bucket + 1, 2 * lists.length);
+                lists = Arrays.copyOf(lists, length);
+                sizes = Arrays.copyOf(sizes, length);
+            }
+            int[] list = lists[bucket];
+            if (list == null) {
+                list = new int[16];
+                lists[bucket] = list;
+            } else if (sizes[bucket] == list.length) {
+                list = Arrays.copyOf(list, 2 * list.length);
+                lists[bucket] = list;
+            }
+            list[sizes[bucket]++] = v;
+            highest = Math.max(highest, bucket);
+        }
+
+        int firstNonEmpty(int from) {
+            for (int b = from; b <= highest; b++) {
+                if (sizes[b] > 0) {
+                    return b;
+                }
+            }
+            return Integer.MAX_VALUE;
+        }
+
+        int size(int bucket) {
+            return bucket > highest ? 0 : sizes[bucket];
+        }
+
+        /**
+         * Appends the bucket to `target` at `offset`, empties it and returns the new end.
+         */
+        int drain(int bucket, int[] target, int offset) {
+            if (bucket > highest || sizes[bucket] == 0) {
+                return offset;
+            }
+            System.arraycopy(lists[bucket], 0, target, offset, sizes[bucket]);
+            offset += sizes[bucket];
+            sizes[bucket] = 0;
+            // Buckets below the current one are never refilled: let their arrays go
+            lists[bucket] = bucket == highest ? lists[bucket] : null;
+            return offset;
+        }
+    }
+
+    /**
+     * Runs `body` for every part index on the pool.
+     */
+    private void parallel(int parts, IntConsumer body) {
+        if (parts == 1) {
+            body.accept(0);
+            return;
+        }
+        RecursiveAction[] tasks = new RecursiveAction[parts];
+        for (int p = 0; p < parts; p++) {
+            int part = p;
+            tasks[p] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    body.accept(part);
+                }
+            };
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+    }
+}
@@ -0,0 +1,466 @@
+package graph.algo;
+
+import graph.CSRGraph;
+import graph.IndexedGraph;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A renumbering of the vertices of an `IndexedGraph`, for cache locality.
+ * Bus matrices come with arbitrary numbering, so the neighbors of a vertex are scattered over the arrays
+ * and every traversal step is a likely cache miss. An ordering that gives neighbors close ids keeps
+ * the visited, discovery and low arrays of DFS/BFS/Tarjan hot in the cache.
+ * <ul>
+ * <li>`REVERSE_CUTHILL_MCKEE`: BFS from a pseudo-peripheral vertex of every component, neighbors taken by
+ * increasing degree, the whole order reversed. Minimizes the bandwidth of sparse symmetric matrices.</li>
+ * <li>`DEGREE`: decreasing degree, so the hubs (and their frequently read entries) share cache lines.</li>
+ * <li>`BFS`: breadth-first order from the smallest id of every component.</li>
+ * </ul>
+ * `apply` rewrites a graph into the new ids (`getValue` still returns the original value of a vertex);
+ * results computed on it are mapped back with `toOriginal` and `toOriginalOrder`.
+ * `DEGREE` and `BFS` follow outgoing edges only; `REVERSE_CUTHILL_MCKEE` runs on the symmetrized
+ * adjacency of a directed graph, since the bandwidth of `A + A^T` is what it minimizes.
+ */
+public class VertexOrdering {
+
+    /**
+     * How the vertices are ordered.
+     */
+    public enum Strategy {
+        REVERSE_CUTHILL_MCKEE,
+        DEGREE,
+        BFS
+    }
+
+    // order[newId] = old id, rank[oldId] = new id
+    private final int[] order;
+    private final int[] rank;
+
+    private VertexOrdering(int[] order) {
+        this.order = order;
+        this.rank = new int[order.length];
+        Arrays.fill(rank, -1);
+        for (int k = 0; k < order.length; k++) {
+            int v = order[k];
+            if (v < 0 || v >= order.length || rank[v] != -1) {
+                throw new IllegalArgumentException("Not a permutation of [0, " + order.length + "): " + v + " at " + k);
+            }
+            rank[v] = k;
+        }
+    }
+
+    /**
+     * Computes an ordering of the vertices of a graph.
+     * @param graph The graph object
+     * @param strategy how to order the vertices
+     * @return the ordering
+     */
+    public static VertexOrdering compute(IndexedGraph graph, Strategy strategy) {
+        switch (strategy) {
+            case REVERSE_CUTHILL_MCKEE:
+                return new VertexOrdering(reverseCuthillMcKee(graph.isUndirected() ? graph : symmetrized(graph)));
+            case DEGREE:
+                return new VertexOrdering(byDegree(graph));
+            default:
+                return new VertexOrdering(breadthFirst(graph));
+        }
+    }
+
+    /**
+     * Wraps an explicit ordering.
+     * @param order the old id of every new id
+     * @return the ordering
+     * @throws IllegalArgumentException when `order` is not a permutation of `[0, order.length)`.
+     */
+    public static VertexOrdering of(int[] order) {
+        return new VertexOrdering(order.clone());
+    }
+
+    /**
+     * A seeded random ordering, e.g. to measure what an ordering recovers.
+     * @param vertexCount number of vertices
+     * @param seed random seed
+     * @return the ordering
+     */
+    public static VertexOrdering shuffle(int vertexCount, long seed) {
+        int[] order = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            order[v] = v;
+        }
+        Random random = new Random(seed);
+        for (int i = vertexCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return new VertexOrdering(order);
+    }
+
+    /**
+     * Get the number of vertices
+     * @return number of vertices
+     */
+    public int getVertexCount() {
+        return order.length;
+    }
+
+    /**
+     * Get the original id of a vertex
+     * @param newId id in the reordered graph
+     * @return id in the original graph
+     */
+    public int toOriginal(int newId) {
+        return order[newId];
+    }
+
+    /**
+     * Get the new id of a vertex
+     * @param oldId id in the original graph
+     * @return id in the reordered graph
+     */
+    public int toReordered(int oldId) {
+        return rank[oldId];
+    }
+
+    /**
+     * Get the original id of every new id
+     * @return the permutation (new id -> old id)
+     */
+    public int[] getOrder() {
+        return order.clone();
+    }
+
+    /**
+     * Get the new id of every original id
+     * @return the inverse permutation (old id -> new id)
+     */
+    public int[] getRank() {
+        return rank.clone();
+    }
+
+    /**
+     * Maps ids of the reordered graph back, e.g. the articulation points found on it.
+     * @param newIds ids in the reordered graph
+     * @return ids in the original graph, in increasing order
+     */
+    public int[] toOriginal(int[] newIds) {
+        int[] ids = new int[newIds.length];
+        for (int k = 0; k < newIds.length; k++) {
+            ids[k] = order[newIds[k]];
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Re-indexes a per-vertex result of the reordered graph by original id, e.g. component numbers.
+     * @param perNewId one entry per id of the reordered graph
+     * @return the same entries, indexed by original id
+     */
+    public int[] toOriginalOrder(int[] perNewId) {
+        int[] result = new int[perNewId.length];
+        for (int k = 0; k < perNewId.length; k++) {
+            result[order[k]] = perNewId[k];
+        }
+        return result;
+    }
+
+    /**
+     * Re-indexes a per-vertex result of the reordered graph by original id, e.g. distances.
+     * @param perNewId one entry per id of the reordered graph
+     * @return the same entries, indexed by original id
+     */
+    public double[] toOriginalOrder(double[] perNewId) {
+        double[] result = new double[perNewId.length];
+        for (int k = 0; k < perNewId.length; k++) {
+            result[order[k]] = perNewId[k];
+        }
+        return result;
+    }
+
+    /**
+     * Rewrites a graph into the new ids. Every adjacency row is sorted by new id, weights move along
+     * with their edges, and values and labels follow their vertex.
+     * @param graph The graph object (with `getVertexCount()` equal to the size of the ordering)
+     * @return the reordered graph
+     * @throws IllegalArgumentException when the graph does not have as many vertices as the ordering.
+     */
+    public CSRGraph apply(IndexedGraph graph) {
+        int n = order.length;
+        if (graph.getVertexCount() != n) {
+            throw new IllegalArgumentException("The ordering has " + n + " vertices, the graph " + graph.getVertexCount());
+        }
+        int[] offsets = new int[n + 1];
+        for (int k = 0; k < n; k++) {
+            offsets[k + 1] = offsets[k] + graph.degree(order[k]);
+        }
+        int[] targets = new int[offsets[n]];
+        double[] weights = graph.isWeighted() ? new double[targets.length] : null;
+        int[] values = new int[n];
+        String[] labels = null;
+        long[] row = new long[16];
+        for (int k = 0; k < n; k++) {
+            int v = order[k];
+            values[k] = graph.getValue(v);
+            String label = graph.getLabel(v);
+            if (!label.equals(String.valueOf(values[k]))) {
+                if (labels == null) {
+                    labels = new String[n];
+                }
+                labels[k] = label;
+            }
+            int start = graph.adjStart(v);
+            int degree = graph.degree(v);
+            if (weights == null) {
+                for (int i = 0; i < degree; i++) {
+                    targets[offsets[k] + i] = rank[graph.getTarget(start + i)];
+                }
+                Arrays.sort(targets, offsets[k], offsets[k + 1]);
+            } else {
+                // Sort (new target, entry) pairs so that the weights can follow
+                if (row.length < degree) {
+                    row = new long[Math.max(degree, 2 * row.length)];
+                }
+                for (int i = 0; i < degree; i++) {
+                    row[i] = ((long) rank[graph.getTarget(start + i)] << 32) | i;
+                }
+                Arrays.sort(row, 0, degree);
+                for (int i = 0; i < degree; i++) {
+                    targets[offsets[k] + i] = (int) (row[i] >>> 32);
+                    weights[offsets[k] + i] = graph.getWeight(start + (int) row[i]);
+                }
+            }
+        }
+        return new CSRGraph(offsets, targets, weights, values, labels, graph.isUndirected());
+    }
+
+    /**
+     * Get the bandwidth of a graph, the largest id distance between the endpoints of an edge
+     * @param graph The graph object
+     * @return bandwidth (0 for a graph without edges)
+     */
+    public static int getBandwidth(IndexedGraph graph) {
+        int bandwidth = 0;
+        for (int v = 0; v < graph.getVertexCount(); v++) {
+            for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                bandwidth = Math.max(bandwidth, Math.abs(graph.getTarget(i) - v));
+            }
+        }
+        return bandwidth;
+    }
+
+    /**
+     * Get the average id distance between the endpoints of an edge, a proxy for the cache misses of a traversal
+     * @param graph The graph object
+     * @return average gap (0 for a graph without edges)
+     */
+    public static double getAverageGap(IndexedGraph graph) {
+        long sum = 0;
+        for (int v = 0; v < graph.getVertexCount(); v++) {
+            for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                sum += Math.abs(graph.getTarget(i) - v);
+            }
+        }
+        return graph.getArcCount() == 0 ? 0.0 : (double) sum / graph.getArcCount();
+    }
+
+    /**
+     * Cuthill-McKee from a pseudo-peripheral start vertex of every component, reversed.
+     */
+    private static int[] reverseCuthillMcKee(IndexedGraph graph) {
+        int n = graph.getVertexCount();
+        int[] byDegree = byIncreasingDegree(graph);
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int[] level = new int[n];
+        Arrays.fill(level, -1);
+        int[] queue = new int[n];
+        long[] row = new long[16];
+        int size = 0;
+        for (int start : byDegree) {
+            if (visited[start]) {
+                continue;
+            }
+            int root = pseudoPeripheral(graph, start, level, queue);
+            if (visited[root]) {
+                root = start;
+            }
+            visited[root] = true;
+            int head = size;
+            order[size++] = root;
+            while (head < size) {
+                int u = order[head++];
+                int count = 0;
+                for (int i = graph.adjStart(u); i < graph.adjEnd(u); i++) {
+                    int w = graph.getTarget(i);
+                    if (!visited[w]) {
+                        visited[w] = true;
+                        if (count == row.length) {
+                            row = Arrays.copyOf(row, 2 * count);
+                        }
+                        row[count++] = ((long) graph.degree(w) << 32) | w;
+                    }
+                }
+                Arrays.sort(row, 0, count);
+                for (int k = 0; k < count; k++) {
+                    order[size++] = (int) row[k];
+                }
+            }
+        }
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    /**
+     * The simple undirected adjacency of a directed graph: every arc both ways, without self-loops
+     * and repeated neighbors.
+     */
+    private static CSRGraph symmetrized(IndexedGraph graph) {
+        int n = graph.getVertexCount();
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                int w = graph.getTarget(i);
+                if (w != v) {
+                    offsets[v + 1]++;
+                    offsets[w + 1]++;
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] targets = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int v = 0; v < n; v++) {
+            for (int i = graph.adjStart(v); i < graph.adjEnd(v); i++) {
+                int w = graph.getTarget(i);
+                if (w != v) {
+                    targets[fill[v]++] = w;
+                    targets[fill[w]++] = v;
+                }
+            }
+        }
+        int[] stamp = fill;
+        Arrays.fill(stamp, -1);
+        int size = 0;
+        for (int v = 0; v < n; v++) {
+            int start = offsets[v];
+            offsets[v] = size;
+            for (int i = start; i < offsets[v + 1]; i++) {
+                int w = targets[i];
+                if (stamp[w] != v) {
+                    stamp[w] = v;
+                    targets[size++] = w;
+                }
+            }
+        }
+        offsets[n] = size;
+        return new CSRGraph(offsets, targets, null, null, null, true);
+    }
+
+    /**
+     * George-Liu: restart a BFS from a smallest-degree vertex of the last level while the eccentricity grows.
+     * `level` is left all -1 again for the next component.
+     */
+    private static int pseudoPeripheral(IndexedGraph graph, int start, int[] level, int[] queue) {
+        int root = start;
+        int eccentricity = -1;
+        while (true) {
+            int size = levels(graph, root, level, queue, 0);
+            int depth = level[queue[size - 1]];
+            int candidate = queue[size - 1];
+            for (int k = size - 1; k >= 0 && level[queue[k]] == depth; k--) {
+                if (graph.degree(queue[k]) < graph.degree(candidate)) {
+                    candidate = queue[k];
+                }
+            }
+            for (int k = 0; k < size; k++) {
+                level[queue[k]] = -1;
+            }
+            if (depth <= eccentricity) {
+                return root;
+            }
+            eccentricity = depth;
+            root = candidate;
+        }
+    }
+
+    /**
+     * Plain BFS filling `level`; the reached vertices are appended to `queue` from index `from` on.
+     * @return the number of reached vertices
+     */
+    private static int levels(IndexedGraph graph, int root, int[] level, int[] queue, int from) {
+        int head = from;
+        int tail = from;
+        level[root] = 0;
+        queue[tail++] = root;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = graph.adjStart(u); i < graph.adjEnd(u); i++) {
+                int w = graph.getTarget(i);
+                if (level[w] == -1) {
+                    level[w] = level[u] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return tail - from;
+    }
+
+    private static int[] byIncreasingDegree(IndexedGraph graph) {
+        int n = graph.getVertexCount();
+        long[] keys = new long[n];
+        for (int v = 0; v < n; v++) {
+            keys[v] = ((long) graph.degree(v) << 32) | v;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[n];
+        for (int k = 0; k < n; k++) {
+            order[k] = (int) keys[k];
+        }
+        return order;
+    }
+
+    /**
+     * Decreasing degree, ties by id (counting sort).
+     */
+    private static int[] byDegree(IndexedGraph graph) {
+        int n = graph.getVertexCount();
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            maxDegree = Math.max(maxDegree, graph.degree(v));
+        }
+        int[] start = new int[maxDegree + 2];
+        for (int v = 0; v < n; v++) {
+            start[maxDegree - graph.degree(v) + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            start[d + 1] += start[d];
+        }
+        int[] order = new int[n];
+        for (int v = 0; v < n; v++) {
+            order[start[maxDegree - graph.degree(v)]++] = v;
+        }
+        return order;
+    }
+
+    private static int[] breadthFirst(IndexedGraph graph) {
+        int n = graph.getVertexCount();
+        int[] level = new int[n];
+        Arrays.fill(level, -1);
+        int[] order = new int[n];
+        int size = 0;
+        for (int v = 0; v < n; v++) {
+            if (level[v] == -1) {
+                size += levels(graph, v, level, order, size);
+            }
+        }
+        return order;
+    }
+}
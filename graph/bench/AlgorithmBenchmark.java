@@ -0,0 +1,143 @@
+package graph.bench;
+
+import graph.CSRGraph;
+import graph.Graph;
+import graph.GraphOps;
+import graph.GraphOps.MyInteger;
+import graph.Node;
+import graph.algo.Biconnectivity;
+import graph.algo.GraphTraversal;
+import graph.util.EdgeList;
+import graph.util.OffHeapGraph;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the `GraphOps` algorithms on the adjacency-list `Graph`, on `CSRGraph` and on the off-heap
+ * `OffHeapGraph`.
+ * The traversals print every visited label; standard output is swapped for a discarding stream
+ * while the benchmark runs so that the terminal is not what gets measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xss16m"})
+public class AlgorithmBenchmark {
+
+    @Param({"power-494-bus", "power-1138-bus", "power-bcspwr09", "grid-100", "tree-100000", "random-100000-4"})
+    public String dataset;
+
+    private Graph<Node> graph;
+    private CSRGraph csr;
+    private OffHeapGraph offHeap;
+    private GraphTraversal traversal;
+    private final GraphTraversal.Visitor visitor = new GraphTraversal.Visitor() { };
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        EdgeList edges = BenchmarkGraphs.load(dataset);
+        graph = edges.toGraph(true);
+        csr = edges.toCSRGraph(true);
+        offHeap = OffHeapGraph.fromEdgeList(edges, true);
+        traversal = new GraphTraversal(csr);
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(stdout);
+        offHeap.close();
+    }
+
+    @Benchmark
+    public void dfs() {
+        GraphOps.dfsIterative(graph);
+    }
+
+    @Benchmark
+    public void bfs() {
+        GraphOps.bfsIterative(graph);
+    }
+
+    @Benchmark
+    public void dfsCSR() {
+        GraphOps.dfsIterative(csr);
+    }
+
+    @Benchmark
+    public void bfsCSR() {
+        GraphOps.bfsIterative(csr);
+    }
+
+    @Benchmark
+    public int dfsTraversal() {
+        traversal.dfs(visitor);
+        return traversal.getVisitedCount();
+    }
+
+    @Benchmark
+    public int bfsTraversal() {
+        traversal.bfs(visitor);
+        return traversal.getVisitedCount();
+    }
+
+    @Benchmark
+    public void dfsOffHeap() {
+        GraphOps.dfsIterative(offHeap);
+    }
+
+    @Benchmark
+    public int connectedComponents() {
+        return GraphOps.countConnectedComponents(graph);
+    }
+
+    @Benchmark
+    public int connectedComponentsCSR() {
+        return GraphOps.countConnectedComponents(csr);
+    }
+
+    @Benchmark
+    public int connectedComponentsOffHeap() {
+        return GraphOps.countConnectedComponents(offHeap);
+    }
+
+    @Benchmark
+    public Set<Node> articulationPoints() {
+        return GraphOps.detectArticulationPoints(graph, false, new MyInteger(0));
+    }
+
+    @Benchmark
+    public int[] articulationPointsCSR() {
+        return GraphOps.detectArticulationPoints(csr);
+    }
+
+    @Benchmark
+    public int[] articulationPointsOffHeap() {
+        return GraphOps.detectArticulationPoints(offHeap);
+    }
+
+    @Benchmark
+    public Biconnectivity biconnectivity() {
+        return new Biconnectivity(csr);
+    }
+}
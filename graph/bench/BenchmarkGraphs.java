@@ -0,0 +1,131 @@
+package graph.bench;
+
+import graph.util.EdgeList;
+import graph.util.MatrixMarketLoader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Inputs for the benchmarks.
+ * A dataset name is either one of the bundled matrices (`power-494-bus`, ..., read from
+ * `data/<name>/<name>.mtx`, the root can be changed with `-Dgraph.data=<dir>`) or a generated graph:
+ * <ul>
+ * <li>`grid-<side>`: a `side x side` lattice, every vertex connected to its right and lower neighbor</li>
+ * <li>`tree-<n>`: a random recursive tree (every internal vertex is an articulation point)</li>
+ * <li>`random-<n>-<degree>`: a random spanning tree plus random chords up to an average degree of `degree`</li>
+ * </ul>
+ * Generated graphs use a fixed seed so that every fork measures the same input.
+ */
+public final class BenchmarkGraphs {
+
+    private static final long SEED = 0x5eedL;
+
+    /**
+     * Private constructor to hide the default one.
+     */
+    private BenchmarkGraphs() {}
+
+    /**
+     * Get the edges of a dataset.
+     * @param dataset dataset name (see the class description)
+     * @return the edges, with 0-indexed vertex ids
+     * @throws IOException when a bundled matrix cannot be read.
+     */
+    public static EdgeList load(String dataset) throws IOException {
+        String[] tokens = dataset.split("-");
+        switch (tokens[0]) {
+            case "grid":
+                return grid(Integer.parseInt(tokens[1]));
+            case "tree":
+                return random(Integer.parseInt(tokens[1]), 2);
+            case "random":
+                return random(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+            default:
+                return MatrixMarketLoader.load(matrixPath(dataset));
+        }
+    }
+
+    /**
+     * Get a MatrixMarket file holding the dataset; generated graphs are written to a temporary file.
+     * @param dataset dataset name (see the class description)
+     * @return path of the `.mtx` file
+     * @throws IOException when the file cannot be read or written.
+     */
+    public static String matrixFile(String dataset) throws IOException {
+        if (dataset.startsWith("power-")) {
+            return matrixPath(dataset);
+        }
+        EdgeList edges = load(dataset);
+        File file = File.createTempFile(dataset + "-", ".mtx");
+        file.deleteOnExit();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("%%MatrixMarket matrix coordinate pattern symmetric");
+            writer.newLine();
+            writer.write(edges.getVertexCount() + " " + edges.getVertexCount() + " " + edges.getEdgeCount());
+            writer.newLine();
+            for (int i = 0; i < edges.getEdgeCount(); i++) {
+                writer.write((edges.getSource(i) + 1) + " " + (edges.getDestination(i) + 1));
+                writer.newLine();
+            }
+        }
+        return file.getPath();
+    }
+
+    private static String matrixPath(String dataset) {
+        String root = System.getProperty("graph.data", "data");
+        return root + "/" + dataset + "/" + dataset + ".mtx";
+    }
+
+    /**
+     * A `side x side` lattice.
+     */
+    private static EdgeList grid(int side) {
+        int n = side * side;
+        int m = 2 * side * (side - 1);
+        int[] src = new int[m];
+        int[] dest = new int[m];
+        int e = 0;
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int v = r * side + c;
+                if (c + 1 < side) {
+                    src[e] = v;
+                    dest[e++] = v + 1;
+                }
+                if (r + 1 < side) {
+                    src[e] = v;
+                    dest[e++] = v + side;
+                }
+            }
+        }
+        return new EdgeList(n, src, dest, null, e, true);
+    }
+
+    /**
+     * A random recursive tree over `n` vertices plus `n * (degree - 2) / 2` random chords.
+     */
+    private static EdgeList random(int n, int degree) {
+        Random random = new Random(SEED);
+        int chords = (int) Math.max(0, (long) n * (degree - 2) / 2);
+        int m = n - 1 + chords;
+        int[] src = new int[m];
+        int[] dest = new int[m];
+        int e = 0;
+        for (int v = 1; v < n; v++) {
+            src[e] = random.nextInt(v);
+            dest[e++] = v;
+        }
+        while (e < m) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b) {
+                src[e] = a;
+                dest[e++] = b;
+            }
+        }
+        return new EdgeList(n, src, dest, null, e, true);
+    }
+}
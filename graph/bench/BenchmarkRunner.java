@@ -0,0 +1,41 @@
+package graph.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of this package with the GC profiler attached, so that every result
+ * reports the allocation rate (`gc.alloc.rate.norm`, bytes per operation) next to the throughput.
+ * Any regular JMH command line option (`-p dataset=grid-1000`, `-f 1`, a benchmark regexp, ...) is accepted.
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * Private constructor to hide the default one.
+     */
+    private BenchmarkRunner() {}
+
+    /**
+     * Main method
+     * @param args JMH command line options
+     * @throws RunnerException when a benchmark fails
+     * @throws CommandLineOptionException when the options cannot be parsed
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackage().getName() + ".");
+        }
+        Options options = builder
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,76 @@
+package graph.bench;
+
+import graph.CSRGraph;
+import graph.Graph;
+import graph.GraphOps;
+import graph.GraphOps.MyInteger;
+import graph.Node;
+import graph.algo.ContingencySweep;
+import graph.util.EdgeList;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the brute-force articulation point detection and of the contingency sweep behind it.
+ * Both evaluate one outage per vertex (quadratic work), so the default inputs are kept small.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BruteForceBenchmark {
+
+    @Param({"power-494-bus", "power-1138-bus", "power-bcspwr09", "grid-50"})
+    public String dataset;
+
+    private Graph<Node> graph;
+    private CSRGraph csr;
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        EdgeList edges = BenchmarkGraphs.load(dataset);
+        graph = edges.toGraph(true);
+        csr = edges.toCSRGraph(true);
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public Set<Node> articulationPointsBruteForce() {
+        return GraphOps.detectArticulationPoints_BruteForce(graph, false, new MyInteger(0));
+    }
+
+    @Benchmark
+    public ContingencySweep.Result vertexSweep() {
+        return new ContingencySweep(csr).sweepVertices();
+    }
+
+    @Benchmark
+    public ContingencySweep.Result edgeSweep() {
+        return new ContingencySweep(csr).sweepEdges();
+    }
+}
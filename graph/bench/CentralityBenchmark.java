@@ -0,0 +1,55 @@
+package graph.bench;
+
+import graph.CSRGraph;
+import graph.algo.BetweennessCentrality;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time of the exact and of the sampled `BetweennessCentrality`.
+ * The exact centrality is quadratic, so the default inputs are kept small; the sampled one scales to large
+ * grids from the command line, e.g. `-p dataset=grid-1000 -p samples=64`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CentralityBenchmark {
+
+    @Param({"power-1138-bus", "power-bcspwr09", "grid-100"})
+    public String dataset;
+
+    @Param({"64"})
+    public int samples;
+
+    private CSRGraph csr;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        csr = BenchmarkGraphs.load(dataset).toCSRGraph(true);
+    }
+
+    @Benchmark
+    public BetweennessCentrality.Result exact() {
+        return new BetweennessCentrality(csr).exact();
+    }
+
+    @Benchmark
+    public BetweennessCentrality.Result approximate() {
+        return new BetweennessCentrality(csr).approximate(samples, 42L);
+    }
+}
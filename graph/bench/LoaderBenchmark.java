@@ -0,0 +1,80 @@
+package graph.bench;
+
+import graph.CSRGraph;
+import graph.Graph;
+import graph.Node;
+import graph.util.GraphCreator;
+import graph.util.GraphSnapshot;
+import graph.util.ParallelGraphLoader;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of building a graph from a file: `GraphCreator` (adjacency list and CSR),
+ * `ParallelGraphLoader` and opening a `GraphSnapshot`.
+ * Generated datasets are written to a temporary MatrixMarket file once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LoaderBenchmark {
+
+    @Param({"power-494-bus", "power-bcspwr09", "random-100000-4", "random-1000000-8"})
+    public String dataset;
+
+    private final GraphCreator creator = new GraphCreator();
+    private final ParallelGraphLoader loader = new ParallelGraphLoader();
+    private String matrixFile;
+    private String snapshotFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        matrixFile = BenchmarkGraphs.matrixFile(dataset);
+        File snapshot = File.createTempFile(dataset + "-", ".snapshot");
+        snapshot.deleteOnExit();
+        snapshotFile = snapshot.getPath();
+        GraphSnapshot.save(creator.createCSRGraph(matrixFile, true), snapshotFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        new File(snapshotFile).delete();
+    }
+
+    @Benchmark
+    public Graph<Node> createGraph() throws IOException {
+        return creator.createGraph(matrixFile, true);
+    }
+
+    @Benchmark
+    public CSRGraph createCSRGraph() throws IOException {
+        return creator.createCSRGraph(matrixFile, true);
+    }
+
+    @Benchmark
+    public CSRGraph parallelLoad() throws IOException {
+        return loader.loadMatrixMarket(matrixFile, true);
+    }
+
+    @Benchmark
+    public GraphSnapshot openSnapshot() throws IOException {
+        return GraphSnapshot.open(snapshotFile);
+    }
+}
@@ -0,0 +1,72 @@
+package graph.bench;
+
+import graph.CSRGraph;
+import graph.GraphOps;
+import graph.algo.Biconnectivity;
+import graph.algo.ParallelBFS;
+import graph.algo.VertexOrdering;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Effect of the vertex ordering on the traversals.
+ * The ids of the input are shuffled first (a stand-in for arbitrary bus numbering), then renumbered with
+ * the `ordering` under test; `SHUFFLED` keeps the shuffled ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xss16m"})
+public class ReorderingBenchmark {
+
+    @Param({"grid-1000", "random-1000000-4", "power-bcspwr09"})
+    public String dataset;
+
+    @Param({"SHUFFLED", "REVERSE_CUTHILL_MCKEE", "DEGREE", "BFS"})
+    public String ordering;
+
+    private CSRGraph graph;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        CSRGraph csr = BenchmarkGraphs.load(dataset).toCSRGraph(true);
+        graph = VertexOrdering.shuffle(csr.getVertexCount(), 42).apply(csr);
+        if (!ordering.equals("SHUFFLED")) {
+            graph = VertexOrdering.compute(graph, VertexOrdering.Strategy.valueOf(ordering)).apply(graph);
+        }
+    }
+
+    @Benchmark
+    public int connectedComponents() {
+        return GraphOps.countConnectedComponents(graph);
+    }
+
+    @Benchmark
+    public int[] articulationPoints() {
+        return GraphOps.detectArticulationPoints(graph);
+    }
+
+    @Benchmark
+    public ParallelBFS.Result parallelBFS() {
+        return new ParallelBFS(graph).run(0);
+    }
+
+    @Benchmark
+    public Biconnectivity biconnectivity() {
+        return new Biconnectivity(graph);
+    }
+}
@@ -0,0 +1,354 @@
+package graph.dist;
+
+import graph.CSRGraph;
+import graph.IndexedGraph;
+import graph.algo.Biconnectivity;
+import graph.algo.ConnectedComponents;
+import graph.algo.GraphPartitioner;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connected components and articulation points of an undirected `IndexedGraph`, computed by several worker
+ * processes on one machine. The graph is split by `GraphPartitioner`; every worker (`FragmentWorker`, a JVM of
+ * its own started with the class path of this one) receives its piece over a loopback socket and sends back a
+ * `FragmentSummary`: the components and articulation points it could settle alone, and a skeleton of the rest
+ * whose size depends on the boundary of the piece rather than on its size. The coordinator joins the skeletons
+ * with the cut edges and finishes the analysis on that small graph.
+ * The results are those of `GraphOps.countConnectedComponents` and `GraphOps.detectArticulationPoints`.
+ *
+ * Limitation: the coordinator holds the whole graph. It is given the complete `IndexedGraph`, partitions it
+ * and cuts every fragment itself, so it needs O(V + E) memory and a sequential pass over the graph before any
+ * worker starts. The workers spread the block decomposition, not the loading or the memory; a graph that
+ * does not fit in the coordinator's JVM would have to be partitioned ahead of time and loaded piecewise by
+ * the workers, which this class does not do.
+ */
+public class DistributedAnalysis {
+
+    /**
+     * How the workers are started.
+     */
+    public enum Launch {
+        /** One JVM per worker. */
+        PROCESSES,
+        /** One thread per worker in this JVM, talking over the same sockets (for debugging). */
+        THREADS
+    }
+
+    private final IndexedGraph graph;
+
+    private final int workers;
+
+    private Launch launch = Launch.PROCESSES;
+
+    private long timeoutMillis = TimeUnit.MINUTES.toMillis(2);
+
+    private long seed;
+
+    /**
+     * Constructor
+     * @param graph The graph object (undirected)
+     * @param workers number of workers, i.e. of pieces
+     * @throws IllegalArgumentException when the graph is directed or `workers` is not positive.
+     */
+    public DistributedAnalysis(IndexedGraph graph, int workers) {
+        if (!graph.isUndirected()) {
+            throw new IllegalArgumentException("Distributed analysis needs an undirected graph");
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("Number of workers must be positive: " + workers);
+        }
+        this.graph = graph;
+        this.workers = workers;
+    }
+
+    /**
+     * Sets how the workers are started (`Launch.PROCESSES` by default).
+     * @param launch processes or threads
+     * @return this analysis
+     */
+    public DistributedAnalysis setLaunch(Launch launch) {
+        this.launch = launch;
+        return this;
+    }
+
+    /**
+     * Sets how long to wait for a worker to connect and to answer (2 minutes by default).
+     * @param timeout the time to wait
+     * @param unit unit of `timeout`
+     * @return this analysis
+     */
+    public DistributedAnalysis setTimeout(long timeout, TimeUnit unit) {
+        this.timeoutMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    /**
+     * Sets the seed of the partitioner (0 by default).
+     * @param seed the seed
+     * @return this analysis
+     */
+    public DistributedAnalysis setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * The components and articulation points of the graph.
+     */
+    public static class Result {
+        private final int componentCount;
+        private final int[] articulationPoints;
+        private final GraphPartitioner.Result partition;
+        private final int skeletonSize;
+
+        Result(int componentCount, int[] articulationPoints, GraphPartitioner.Result partition, int skeletonSize) {
+            this.componentCount = componentCount;
+            this.articulationPoints = articulationPoints;
+            this.partition = partition;
+            this.skeletonSize = skeletonSize;
+        }
+
+        /**
+         * Get the number of connected components
+         * @return number of connected components
+         */
+        public int getComponentCount() {
+            return componentCount;
+        }
+
+        /**
+         * Get the articulation points
+         * @return ids of the articulation points in increasing order
+         */
+        public int[] getArticulationPoints() {
+            return articulationPoints.clone();
+        }
+
+        /**
+         * Get the partition the workers worked on
+         * @return the partition
+         */
+        public GraphPartitioner.Result getPartition() {
+            return partition;
+        }
+
+        /**
+         * Get the number of vertices of the joined skeletons the coordinator analyzed
+         * @return skeleton vertex count
+         */
+        public int getSkeletonSize() {
+            return skeletonSize;
+        }
+    }
+
+    /**
+     * Partitions the graph, runs the workers and joins their answers.
+     * @return the components and articulation points
+     * @throws IOException when a worker cannot be started, does not connect in time or fails.
+     */
+    public Result run() throws IOException {
+        GraphPartitioner.Result partition = new GraphPartitioner(graph).setSeed(seed).partition(workers);
+        FragmentSummary[] summaries = new FragmentSummary[workers];
+        Process[] processes = new Process[workers];
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout((int) Math.min(Integer.MAX_VALUE, timeoutMillis));
+            String host = server.getInetAddress().getHostAddress();
+            int port = server.getLocalPort();
+            for (int p = 0; p < workers; p++) {
+                processes[p] = start(host, port);
+            }
+            // Workers are served in the order they connect; every fragment is sent before any answer is read
+            Socket[] sockets = new Socket[workers];
+            try {
+                for (int p = 0; p < workers; p++) {
+                    sockets[p] = server.accept();
+                    sockets[p].setSoTimeout((int) Math.min(Integer.MAX_VALUE, timeoutMillis));
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(sockets[p].getOutputStream()));
+                    fragment(partition, p).write(out);
+                }
+                for (int p = 0; p < workers; p++) {
+                    DataInputStream in = new DataInputStream(new BufferedInputStream(sockets[p].getInputStream()));
+                    summaries[p] = FragmentSummary.read(in);
+                }
+            } finally {
+                for (Socket socket : sockets) {
+                    if (socket != null) {
+                        socket.close();
+                    }
+                }
+            }
+            for (Process process : processes) {
+                if (process != null && !process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new IOException("Worker did not exit");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the workers", e);
+        } finally {
+            for (Process process : processes) {
+                if (process != null) {
+                    process.destroy();
+                }
+            }
+        }
+        return join(summaries, partition);
+    }
+
+    private Process start(String host, int port) throws IOException {
+        if (launch == Launch.THREADS) {
+            Thread thread = new Thread(() -> {
+                try {
+                    FragmentWorker.serve(host, port);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }, "fragment-worker");
+            thread.setDaemon(true);
+            thread.start();
+            return null;
+        }
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                FragmentWorker.class.getName(), host, Integer.toString(port))
+            .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+    }
+
+    /**
+     * Cuts the piece `p` out of the graph: its vertices in increasing order, their edges inside the piece in
+     * local ids and their edges leaving it in global ids.
+     */
+    private Fragment fragment(GraphPartitioner.Result partition, int p) {
+        int[] vertices = partition.getVertices(p);
+        int[] offsets = new int[vertices.length + 1];
+        int cutCount = 0;
+        for (int i = 0; i < vertices.length; i++) {
+            int v = vertices[i];
+            int inside = 0;
+            for (int j = graph.adjStart(v); j < graph.adjEnd(v); j++) {
+                int w = graph.getTarget(j);
+                if (w == v) {
+                    continue;
+                }
+                if (partition.getPart(w) == p) {
+                    inside++;
+                } else {
+                    cutCount++;
+                }
+            }
+            offsets[i + 1] = offsets[i] + inside;
+        }
+        int[] targets = new int[offsets[vertices.length]];
+        int[] cutSources = new int[cutCount];
+        int[] cutTargets = new int[cutCount];
+        int t = 0;
+        int c = 0;
+        for (int i = 0; i < vertices.length; i++) {
+            int v = vertices[i];
+            for (int j = graph.adjStart(v); j < graph.adjEnd(v); j++) {
+                int w = graph.getTarget(j);
+                if (w == v) {
+                    continue;
+                }
+                if (partition.getPart(w) == p) {
+                    targets[t++] = Arrays.binarySearch(vertices, w);
+                } else {
+                    cutSources[c] = i;
+                    cutTargets[c++] = w;
+                }
+            }
+        }
+        return new Fragment(vertices, offsets, targets, cutSources, cutTargets);
+    }
+
+    /**
+     * Joins the skeletons with the cut edges and analyzes the result; real vertices come first, then the
+     * star centers of every worker.
+     */
+    private Result join(FragmentSummary[] summaries, GraphPartitioner.Result partition) {
+        int n = graph.getVertexCount();
+        int[] skeletonId = new int[n];
+        Arrays.fill(skeletonId, -1);
+        int realCount = 0;
+        int edgeCount = 0;
+        int closed = 0;
+        boolean[] isArticulationPoint = new boolean[n];
+        for (FragmentSummary summary : summaries) {
+            closed += summary.closedComponents;
+            for (int v : summary.articulationPoints) {
+                isArticulationPoint[v] = true;
+            }
+            for (int v : summary.starLeaves) {
+                if (skeletonId[v] < 0) {
+                    skeletonId[v] = realCount++;
+                }
+            }
+            for (int i = 0; i < summary.cutSources.length; i++) {
+                if (skeletonId[summary.cutSources[i]] < 0) {
+                    skeletonId[summary.cutSources[i]] = realCount++;
+                }
+                if (skeletonId[summary.cutTargets[i]] < 0) {
+                    skeletonId[summary.cutTargets[i]] = realCount++;
+                }
+            }
+            edgeCount += summary.starLeaves.length + summary.cutSources.length;
+        }
+        int[] globalIds = new int[realCount];
+        for (int v = 0; v < n; v++) {
+            if (skeletonId[v] >= 0) {
+                globalIds[skeletonId[v]] = v;
+            }
+        }
+        int[] src = new int[edgeCount];
+        int[] dest = new int[edgeCount];
+        int e = 0;
+        int centerBase = realCount;
+        for (FragmentSummary summary : summaries) {
+            for (int i = 0; i < summary.starLeaves.length; i++) {
+                src[e] = centerBase + summary.starCenters[i];
+                dest[e++] = skeletonId[summary.starLeaves[i]];
+            }
+            for (int i = 0; i < summary.cutSources.length; i++) {
+                src[e] = skeletonId[summary.cutSources[i]];
+                dest[e++] = skeletonId[summary.cutTargets[i]];
+            }
+            centerBase += summary.centerCount;
+        }
+        CSRGraph skeleton = CSRGraph.fromEdgeList(centerBase, src, dest, null, edgeCount, true);
+        for (int v : new Biconnectivity(skeleton).getArticulationPoints()) {
+            if (v < realCount) {
+                isArticulationPoint[globalIds[v]] = true;
+            }
+        }
+        int componentCount = closed;
+        if (centerBase > 0) {
+            componentCount += new ConnectedComponents(skeleton).run().getComponentCount();
+        }
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            if (isArticulationPoint[v]) {
+                count++;
+            }
+        }
+        int[] articulationPoints = new int[count];
+        count = 0;
+        for (int v = 0; v < n; v++) {
+            if (isArticulationPoint[v]) {
+                articulationPoints[count++] = v;
+            }
+        }
+        return new Result(componentCount, articulationPoints, partition, centerBase);
+    }
+}
@@ -0,0 +1,84 @@
+package graph.dist;
+
+import graph.CSRGraph;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The piece of a partitioned undirected graph a worker analyzes: the owned vertices with the edges between
+ * them (in local ids), and the cut edges from owned vertices to ghost vertices (in global ids).
+ *
+ * Wire format: the magic `JGFRAG01`, then the global ids, the local adjacency (offsets and targets) and the
+ * cut edges (local sources, global targets), each as a length-prefixed array of ints.
+ */
+final class Fragment {
+
+    static final long MAGIC = 0x4A47465241473031L;
+
+    final int[] globalIds;
+    final int[] offsets;
+    final int[] targets;
+    final int[] cutSources;
+    final int[] cutTargets;
+
+    /**
+     * Constructor: the arrays are used as they are, not copied.
+     * @param globalIds global id of each local vertex
+     * @param offsets local row offsets (length = local vertex count + 1)
+     * @param targets local neighbor ids (symmetric, without self-loops)
+     * @param cutSources local endpoint of each cut edge
+     * @param cutTargets global id of the ghost endpoint of each cut edge
+     */
+    Fragment(int[] globalIds, int[] offsets, int[] targets, int[] cutSources, int[] cutTargets) {
+        this.globalIds = globalIds;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.cutSources = cutSources;
+        this.cutTargets = cutTargets;
+    }
+
+    /**
+     * Get the local graph (owned vertices and the edges between them)
+     * @return the graph in local ids
+     */
+    CSRGraph localGraph() {
+        return new CSRGraph(offsets, targets, null, null, null, true);
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeLong(MAGIC);
+        writeInts(out, globalIds);
+        writeInts(out, offsets);
+        writeInts(out, targets);
+        writeInts(out, cutSources);
+        writeInts(out, cutTargets);
+        out.flush();
+    }
+
+    static Fragment read(DataInputStream in) throws IOException {
+        if (in.readLong() != MAGIC) {
+            throw new IOException("Not a graph fragment");
+        }
+        return new Fragment(readInts(in), readInts(in), readInts(in), readInts(in), readInts(in));
+    }
+
+    static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    static int[] readInts(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupted array length: " + length);
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,75 @@
+package graph.dist;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * What a worker sends back about its `Fragment`, in global vertex ids:
+ * <ul>
+ * <li>the components of the fragment that have no cut edge (they are components of the whole graph) and the
+ * articulation points already known to be articulation points of the whole graph;</li>
+ * <li>a skeleton of the rest: every remaining block of the fragment becomes a star whose center is a new
+ * vertex and whose leaves are the block's boundary vertices and remaining cut vertices;</li>
+ * <li>the cut edges, each reported by the piece of its smaller endpoint only.</li>
+ * </ul>
+ * Removing any real vertex leaves the skeleton connected exactly as the fragment was, so the articulation points
+ * of the skeletons joined by the cut edges are those of the whole graph.
+ *
+ * Wire format: the magic `JGSUMM01`, the closed component count, the number of star centers, then the known
+ * articulation points, the star edges (centers, leaves) and the cut edges (sources, targets) as length-prefixed
+ * arrays of ints.
+ */
+final class FragmentSummary {
+
+    static final long MAGIC = 0x4A4753554D4D3031L;
+
+    final int closedComponents;
+    final int centerCount;
+    final int[] articulationPoints;
+    final int[] starCenters;
+    final int[] starLeaves;
+    final int[] cutSources;
+    final int[] cutTargets;
+
+    /**
+     * Constructor: the arrays are used as they are, not copied.
+     * @param closedComponents number of components without a cut edge
+     * @param centerCount number of star centers, numbered from 0
+     * @param articulationPoints known articulation points
+     * @param starCenters center of each star edge
+     * @param starLeaves leaf (global id) of each star edge
+     * @param cutSources smaller endpoint of each cut edge
+     * @param cutTargets larger endpoint of each cut edge
+     */
+    FragmentSummary(int closedComponents, int centerCount, int[] articulationPoints, int[] starCenters,
+            int[] starLeaves, int[] cutSources, int[] cutTargets) {
+        this.closedComponents = closedComponents;
+        this.centerCount = centerCount;
+        this.articulationPoints = articulationPoints;
+        this.starCenters = starCenters;
+        this.starLeaves = starLeaves;
+        this.cutSources = cutSources;
+        this.cutTargets = cutTargets;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeLong(MAGIC);
+        out.writeInt(closedComponents);
+        out.writeInt(centerCount);
+        Fragment.writeInts(out, articulationPoints);
+        Fragment.writeInts(out, starCenters);
+        Fragment.writeInts(out, starLeaves);
+        Fragment.writeInts(out, cutSources);
+        Fragment.writeInts(out, cutTargets);
+        out.flush();
+    }
+
+    static FragmentSummary read(DataInputStream in) throws IOException {
+        if (in.readLong() != MAGIC) {
+            throw new IOException("Not a fragment summary");
+        }
+        return new FragmentSummary(in.readInt(), in.readInt(), Fragment.readInts(in), Fragment.readInts(in),
+            Fragment.readInts(in), Fragment.readInts(in), Fragment.readInts(in));
+    }
+}
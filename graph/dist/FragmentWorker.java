@@ -0,0 +1,228 @@
+package graph.dist;
+
+import graph.CSRGraph;
+import graph.algo.Biconnectivity;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.Arrays;
+
+/**
+ * A worker of `DistributedAnalysis`: connects to the coordinator, receives one `Fragment`, answers with its
+ * `FragmentSummary` and exits. Started as its own JVM with `java graph.dist.FragmentWorker <host> <port>`.
+ *
+ * The fragment is decomposed into blocks (`Biconnectivity`). Components without a cut edge are settled
+ * locally. In the others, blocks without a boundary vertex that hang off a single cut vertex are peeled
+ * away (that cut vertex is then an articulation point of the whole graph), and the blocks that are left are
+ * sent as stars.
+ */
+public final class FragmentWorker {
+
+    private FragmentWorker() {
+    }
+
+    /**
+     * Entry point of a worker process.
+     * @param args host and port of the coordinator
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: java graph.dist.FragmentWorker <host> <port>");
+            System.exit(2);
+        }
+        try {
+            serve(args[0], Integer.parseInt(args[1]));
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Connects to the coordinator and answers one fragment.
+     * @param host host of the coordinator
+     * @param port port of the coordinator
+     * @throws IOException when the connection fails.
+     */
+    static void serve(String host, int port) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            summarize(Fragment.read(in)).write(out);
+        }
+    }
+
+    /**
+     * Summarizes a fragment (see `FragmentSummary`).
+     * @param fragment the fragment
+     * @return the summary
+     */
+    static FragmentSummary summarize(Fragment fragment) {
+        CSRGraph local = fragment.localGraph();
+        int n = local.getVertexCount();
+        int[] globalIds = fragment.globalIds;
+        boolean[] boundary = new boolean[n];
+        for (int v : fragment.cutSources) {
+            boundary[v] = true;
+        }
+
+        // Components, and whether they reach another fragment
+        int[] component = new int[n];
+        Arrays.fill(component, -1);
+        boolean[] open = new boolean[n];
+        int[] stack = new int[n];
+        int componentCount = 0;
+        for (int root = 0; root < n; root++) {
+            if (component[root] >= 0) {
+                continue;
+            }
+            int top = 0;
+            component[root] = componentCount;
+            stack[top++] = root;
+            while (top > 0) {
+                int v = stack[--top];
+                open[componentCount] |= boundary[v];
+                for (int i = local.adjStart(v); i < local.adjEnd(v); i++) {
+                    int w = local.getTarget(i);
+                    if (component[w] < 0) {
+                        component[w] = componentCount;
+                        stack[top++] = w;
+                    }
+                }
+            }
+            componentCount++;
+        }
+
+        Biconnectivity blocks = new Biconnectivity(local);
+        boolean[] known = new boolean[n];
+        int closed = 0;
+        for (int c = 0; c < componentCount; c++) {
+            if (!open[c]) {
+                closed++;
+            }
+        }
+        for (int v : blocks.getArticulationPoints()) {
+            known[v] = !open[component[v]];
+        }
+
+        // Block membership, both ways
+        int blockCount = blocks.getBlockCount();
+        int[][] members = new int[blockCount][];
+        int[] blockDegree = new int[n];
+        for (int b = 0; b < blockCount; b++) {
+            members[b] = blocks.getBlockVertices(b);
+            for (int v : members[b]) {
+                blockDegree[v]++;
+            }
+        }
+        int[] memberOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            memberOffsets[v + 1] = memberOffsets[v] + blockDegree[v];
+        }
+        int[] memberships = new int[memberOffsets[n]];
+        int[] fill = Arrays.copyOf(memberOffsets, n);
+        for (int b = 0; b < blockCount; b++) {
+            for (int v : members[b]) {
+                memberships[fill[v]++] = b;
+            }
+        }
+
+        // A cut vertex is active while it is in two live blocks; leaves of the block-cut tree without a
+        // boundary vertex are peeled until every leaf holds one
+        boolean[] live = new boolean[blockCount];
+        boolean[] anchored = new boolean[blockCount];
+        int[] activeCuts = new int[blockCount];
+        int[] queue = new int[blockCount];
+        int head = 0;
+        int tail = 0;
+        for (int b = 0; b < blockCount; b++) {
+            live[b] = open[component[members[b][0]]];
+            for (int v : members[b]) {
+                anchored[b] |= boundary[v];
+                if (blockDegree[v] >= 2) {
+                    activeCuts[b]++;
+                }
+            }
+            if (live[b] && !anchored[b] && activeCuts[b] <= 1) {
+                queue[tail++] = b;
+            }
+        }
+        while (head < tail) {
+            int b = queue[head++];
+            if (!live[b]) {
+                continue;
+            }
+            live[b] = false;
+            for (int v : members[b]) {
+                if (blockDegree[v] < 2) {
+                    continue;
+                }
+                known[v] = true;
+                if (--blockDegree[v] == 1) {
+                    for (int i = memberOffsets[v]; i < memberOffsets[v + 1]; i++) {
+                        int other = memberships[i];
+                        if (live[other] && --activeCuts[other] == 1 && !anchored[other]) {
+                            queue[tail++] = other;
+                        }
+                    }
+                }
+            }
+        }
+
+        int[] centers = new int[16];
+        int[] leaves = new int[16];
+        int starSize = 0;
+        int centerCount = 0;
+        for (int b = 0; b < blockCount; b++) {
+            if (!live[b]) {
+                continue;
+            }
+            for (int v : members[b]) {
+                if (boundary[v] || blockDegree[v] >= 2) {
+                    centers = append(centers, starSize, centerCount);
+                    leaves = append(leaves, starSize++, globalIds[v]);
+                }
+            }
+            centerCount++;
+        }
+
+        int[] cutSources = new int[16];
+        int[] cutTargets = new int[16];
+        int cutSize = 0;
+        for (int i = 0; i < fragment.cutSources.length; i++) {
+            int source = globalIds[fragment.cutSources[i]];
+            int target = fragment.cutTargets[i];
+            if (source < target) {
+                cutSources = append(cutSources, cutSize, source);
+                cutTargets = append(cutTargets, cutSize++, target);
+            }
+        }
+        int knownCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (known[v]) {
+                knownCount++;
+            }
+        }
+        int[] articulationPoints = new int[knownCount];
+        knownCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (known[v]) {
+                articulationPoints[knownCount++] = globalIds[v];
+            }
+        }
+        Arrays.sort(articulationPoints);
+        return new FragmentSummary(closed, centerCount, articulationPoints, Arrays.copyOf(centers, starSize),
+            Arrays.copyOf(leaves, starSize), Arrays.copyOf(cutSources, cutSize), Arrays.copyOf(cutTargets, cutSize));
+    }
+
+    private static int[] append(int[] buffer, int size, int value) {
+        if (size == buffer.length) {
+            buffer = Arrays.copyOf(buffer, 2 * size);
+        }
+        buffer[size] = value;
+        return buffer;
+    }
+}
@@ -0,0 +1,179 @@
+package graph.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe histogram of non-negative long values (nanoseconds, counts, bytes) with fixed memory.
+ * Values below 16 have a bucket each; above, every power of two is split into 8 linear buckets, so a
+ * percentile is within 12.5% of the recorded value. Recording is a few atomic increments and never allocates.
+ */
+public final class Histogram {
+
+    private static final int LINEAR = 16;
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = LINEAR + (63 - 4) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Records a value.
+     * @param value the value (negative values are recorded as 0)
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucket(v));
+        count.increment();
+        sum.add(v);
+        if (v < min.get()) {
+            min.accumulateAndGet(v, Math::min);
+        }
+        if (v > max.get()) {
+            max.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    /**
+     * Forgets every recorded value.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    /**
+     * Get a copy of the histogram as it is now
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sum.sum(), min.get(), max.get());
+    }
+
+    private static int bucket(long v) {
+        if (v < LINEAR) {
+            return (int) v;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Get the largest value that falls in a bucket.
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + 4;
+        long sub = (bucket - LINEAR) % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * An immutable copy of a `Histogram`.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long min;
+        private final long max;
+
+        Snapshot(long[] counts, long count, long sum, long min, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.min = count == 0 ? 0 : min;
+            this.max = count == 0 ? 0 : max;
+        }
+
+        /**
+         * Get the number of recorded values
+         * @return count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Get the sum of the recorded values
+         * @return sum
+         */
+        public long getSum() {
+            return sum;
+        }
+
+        /**
+         * Get the smallest recorded value
+         * @return min, or 0 when empty
+         */
+        public long getMin() {
+            return min;
+        }
+
+        /**
+         * Get the largest recorded value
+         * @return max, or 0 when empty
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Get the mean of the recorded values
+         * @return mean, or 0.0 when empty
+         */
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        /**
+         * Get the value below which the given share of the recorded values fall
+         * @param percentile in `[0, 100]`, e.g. 99.0
+         * @return the value (within 12.5%), or 0 when empty
+         * @throws IllegalArgumentException when `percentile` is outside `[0, 100]`.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (!(percentile >= 0.0 && percentile <= 100.0)) {
+                throw new IllegalArgumentException("Percentile must be in [0, 100]: " + percentile);
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.max(min, Math.min(max, upperBound(i)));
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count + ", mean=" + Math.round(getMean()) + ", p50=" + getValueAtPercentile(50)
+                + ", p99=" + getValueAtPercentile(99) + ", max=" + max;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package graph.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * One running invocation of an operation, started by `MetricsRegistry.start`.
+ * The operation counts its vertex and edge visits and its max depth in local variables and hands them to
+ * `finish`, which adds the wall time (`System.nanoTime`) and the bytes allocated by the calling thread.
+ * Operations that hand the work to an engine which does not count its visits call `finishTimed` instead, so
+ * the visit histograms only ever hold counted values.
+ * When recording is disabled `start` returns `DISABLED`, whose `finish` does nothing, so an uninstrumented
+ * run only pays for the local counters.
+ */
+public final class Invocation {
+
+    /**
+     * The invocation handed out while recording is disabled.
+     */
+    public static final Invocation DISABLED = new Invocation(null);
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+    private final OperationMetrics metrics;
+    private final long startBytes;
+    private final long startNanos;
+
+    Invocation(OperationMetrics metrics) {
+        this.metrics = metrics;
+        this.startBytes = metrics == null ? 0 : allocatedBytes();
+        this.startNanos = metrics == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Whether this invocation is recorded
+     * @return false for `DISABLED`
+     */
+    public boolean isRecording() {
+        return metrics != null;
+    }
+
+    /**
+     * Ends the invocation and records it.
+     * @param verticesVisited vertices visited
+     * @param edgesVisited edges (adjacency entries) examined
+     * @param maxDepth deepest stack or widest frontier
+     * @return the wall time in ns (0 for `DISABLED`)
+     */
+    public long finish(long verticesVisited, long edgesVisited, long maxDepth) {
+        if (metrics == null) {
+            return 0;
+        }
+        long nanos = System.nanoTime() - startNanos;
+        metrics.record(nanos, verticesVisited, edgesVisited, maxDepth, Math.max(0, allocatedBytes() - startBytes));
+        return nanos;
+    }
+
+    /**
+     * Ends the invocation and records only its wall time and allocation; the vertex, edge and depth histograms
+     * get no entry.
+     * @return the wall time in ns (0 for `DISABLED`)
+     */
+    public long finishTimed() {
+        if (metrics == null) {
+            return 0;
+        }
+        long nanos = System.nanoTime() - startNanos;
+        metrics.record(nanos, Math.max(0, allocatedBytes() - startBytes));
+        return nanos;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Get the thread bean if it can measure allocation (a HotSpot extension), else null.
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threads;
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean;
+            }
+        }
+        return null;
+    }
+}
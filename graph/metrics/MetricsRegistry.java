@@ -0,0 +1,166 @@
+package graph.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The metrics of instrumented operations (see `GraphOps`), keyed by operation name.
+ * Read them by pulling `snapshot()`, or over JMX once `registerMBeans()` was called: every operation is an
+ * `OperationMetricsMXBean` named `graph:type=GraphOps,name=<operation>`.
+ *
+ * Recording is off by default and costs a volatile read per invocation while off. Start the JVM with
+ * `-Dgraph.metrics=true` to enable it and register the MBeans of the default registry from the start.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry DEFAULT = createDefault();
+
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+
+    private MBeanServer server;
+
+    /**
+     * Constructor
+     * @param enabled whether invocations are recorded from the start
+     */
+    public MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    private static MetricsRegistry createDefault() {
+        boolean enabled = Boolean.getBoolean("graph.metrics");
+        MetricsRegistry registry = new MetricsRegistry(enabled);
+        if (enabled) {
+            registry.registerMBeans();
+        }
+        return registry;
+    }
+
+    /**
+     * Get the registry `GraphOps` records to
+     * @return the default registry
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Whether invocations are recorded
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns recording on or off; invocations already started are still recorded.
+     * @param enabled true to record
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Starts an invocation of an operation.
+     * @param operation name of the operation
+     * @return the invocation, or `Invocation.DISABLED` when recording is off
+     */
+    public Invocation start(String operation) {
+        if (!enabled) {
+            return Invocation.DISABLED;
+        }
+        return new Invocation(getOperation(operation));
+    }
+
+    /**
+     * Get the metrics of an operation (created on first use)
+     * @param operation name of the operation
+     * @return the live metrics
+     */
+    public OperationMetrics getOperation(String operation) {
+        OperationMetrics metrics = operations.get(operation);
+        if (metrics != null) {
+            return metrics;
+        }
+        metrics = operations.computeIfAbsent(operation, OperationMetrics::new);
+        synchronized (this) {
+            if (server != null) {
+                register(metrics);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Get a copy of the metrics of every operation
+     * @return snapshots sorted by operation name
+     */
+    public Map<String, OperationMetrics.Snapshot> snapshot() {
+        Map<String, OperationMetrics.Snapshot> snapshots = new TreeMap<>();
+        operations.forEach((name, metrics) -> snapshots.put(name, metrics.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * Forgets every recorded invocation; the operations (and their MBeans) stay.
+     */
+    public void reset() {
+        operations.values().forEach(OperationMetrics::reset);
+    }
+
+    /**
+     * Registers the metrics of every operation, present and future, with the platform MBean server.
+     * @throws IllegalStateException when the MBean server refuses a registration.
+     */
+    public synchronized void registerMBeans() {
+        if (server != null) {
+            return;
+        }
+        server = ManagementFactory.getPlatformMBeanServer();
+        operations.values().forEach(this::register);
+    }
+
+    /**
+     * Removes the MBeans registered by `registerMBeans()`.
+     * @throws IllegalStateException when the MBean server refuses an unregistration.
+     */
+    public synchronized void unregisterMBeans() {
+        if (server == null) {
+            return;
+        }
+        try {
+            for (String name : operations.keySet()) {
+                ObjectName objectName = objectName(name);
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister the graph metrics", e);
+        } finally {
+            server = null;
+        }
+    }
+
+    private void register(OperationMetrics metrics) {
+        try {
+            ObjectName name = objectName(metrics.getName());
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register the metrics of " + metrics.getName(), e);
+        }
+    }
+
+    private static ObjectName objectName(String operation) throws JMException {
+        return new ObjectName("graph:type=GraphOps,name=" + ObjectName.quote(operation));
+    }
+}
@@ -0,0 +1,211 @@
+package graph.metrics;
+
+/**
+ * The recorded invocations of one operation: a histogram per measure (wall time, vertices and edges
+ * visited, max stack/frontier depth, allocated bytes). Thread-safe; recording never allocates.
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+    private final String name;
+    private final Histogram time = new Histogram();
+    private final Histogram vertices = new Histogram();
+    private final Histogram edges = new Histogram();
+    private final Histogram depth = new Histogram();
+    private final Histogram allocation = new Histogram();
+
+    /**
+     * Constructor
+     * @param name name of the operation
+     */
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records one invocation.
+     * @param nanos wall time
+     * @param verticesVisited vertices visited
+     * @param edgesVisited edges (adjacency entries) examined
+     * @param maxDepth deepest stack or widest frontier
+     * @param allocatedBytes bytes allocated by the calling thread
+     */
+    void record(long nanos, long verticesVisited, long edgesVisited, long maxDepth, long allocatedBytes) {
+        time.record(nanos);
+        vertices.record(verticesVisited);
+        edges.record(edgesVisited);
+        depth.record(maxDepth);
+        allocation.record(allocatedBytes);
+    }
+
+    /**
+     * Records one invocation that did not count its work: only the time and allocation histograms get an entry.
+     * @param nanos wall time
+     * @param allocatedBytes bytes allocated by the calling thread
+     */
+    void record(long nanos, long allocatedBytes) {
+        time.record(nanos);
+        allocation.record(allocatedBytes);
+    }
+
+    /**
+     * Get a copy of the histograms, for pull-based reporting
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(name, time.snapshot(), vertices.snapshot(), edges.snapshot(), depth.snapshot(),
+            allocation.snapshot());
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getInvocationCount() {
+        return time.snapshot().getCount();
+    }
+
+    @Override
+    public long getTotalTimeNanos() {
+        return time.snapshot().getSum();
+    }
+
+    @Override
+    public double getMeanTimeNanos() {
+        return time.snapshot().getMean();
+    }
+
+    @Override
+    public long getMedianTimeNanos() {
+        return time.snapshot().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getP99TimeNanos() {
+        return time.snapshot().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getMaxTimeNanos() {
+        return time.snapshot().getMax();
+    }
+
+    @Override
+    public long getVerticesVisited() {
+        return vertices.snapshot().getSum();
+    }
+
+    @Override
+    public long getEdgesVisited() {
+        return edges.snapshot().getSum();
+    }
+
+    @Override
+    public long getMaxDepth() {
+        return depth.snapshot().getMax();
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return allocation.snapshot().getSum();
+    }
+
+    @Override
+    public void reset() {
+        time.reset();
+        vertices.reset();
+        edges.reset();
+        depth.reset();
+        allocation.reset();
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * An immutable copy of the metrics of an operation.
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final Histogram.Snapshot time;
+        private final Histogram.Snapshot vertices;
+        private final Histogram.Snapshot edges;
+        private final Histogram.Snapshot depth;
+        private final Histogram.Snapshot allocation;
+
+        Snapshot(String name, Histogram.Snapshot time, Histogram.Snapshot vertices, Histogram.Snapshot edges,
+                Histogram.Snapshot depth, Histogram.Snapshot allocation) {
+            this.name = name;
+            this.time = time;
+            this.vertices = vertices;
+            this.edges = edges;
+            this.depth = depth;
+            this.allocation = allocation;
+        }
+
+        /**
+         * Get the name of the operation
+         * @return operation name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the number of recorded invocations
+         * @return invocation count
+         */
+        public long getInvocationCount() {
+            return time.getCount();
+        }
+
+        /**
+         * Get the wall times of the invocations
+         * @return histogram of the time in ns
+         */
+        public Histogram.Snapshot getTimeNanos() {
+            return time;
+        }
+
+        /**
+         * Get the vertices visited per invocation
+         * @return histogram of the vertex visits
+         */
+        public Histogram.Snapshot getVerticesVisited() {
+            return vertices;
+        }
+
+        /**
+         * Get the edges (adjacency entries) examined per invocation
+         * @return histogram of the edge visits
+         */
+        public Histogram.Snapshot getEdgesVisited() {
+            return edges;
+        }
+
+        /**
+         * Get the deepest stack or widest frontier per invocation
+         * @return histogram of the depth
+         */
+        public Histogram.Snapshot getMaxDepth() {
+            return depth;
+        }
+
+        /**
+         * Get the bytes allocated by the calling thread per invocation
+         * @return histogram of the allocation
+         */
+        public Histogram.Snapshot getAllocatedBytes() {
+            return allocation;
+        }
+
+        @Override
+        public String toString() {
+            return name + "{time ns: " + time + "; vertices: " + vertices + "; edges: " + edges + "; depth: "
+                + depth + "; bytes: " + allocation + "}";
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package graph.metrics;
+
+/**
+ * The JMX view of an `OperationMetrics`, registered as `graph:type=GraphOps,name=<operation>`.
+ * Times are in nanoseconds; percentiles are within 12.5% (see `Histogram`).
+ */
+public interface OperationMetricsMXBean {
+
+    /**
+     * Get the name of the operation
+     * @return operation name
+     */
+    String getName();
+
+    /**
+     * Get the number of recorded invocations
+     * @return invocation count
+     */
+    long getInvocationCount();
+
+    /**
+     * Get the wall time of all recorded invocations
+     * @return total time in ns
+     */
+    long getTotalTimeNanos();
+
+    /**
+     * Get the mean wall time of an invocation
+     * @return mean time in ns
+     */
+    double getMeanTimeNanos();
+
+    /**
+     * Get the median wall time of an invocation
+     * @return median time in ns
+     */
+    long getMedianTimeNanos();
+
+    /**
+     * Get the 99th percentile of the wall time of an invocation
+     * @return 99th percentile time in ns
+     */
+    long getP99TimeNanos();
+
+    /**
+     * Get the longest wall time of an invocation
+     * @return max time in ns
+     */
+    long getMaxTimeNanos();
+
+    /**
+     * Get the number of vertices visited by all recorded invocations (those ended by `finishTimed` add nothing)
+     * @return vertices visited
+     */
+    long getVerticesVisited();
+
+    /**
+     * Get the number of edges (adjacency entries) examined by all recorded invocations (those ended by
+     * `finishTimed` add nothing)
+     * @return edges visited
+     */
+    long getEdgesVisited();
+
+    /**
+     * Get the deepest stack or widest frontier of any recorded invocation that counted it
+     * @return max depth
+     */
+    long getMaxDepth();
+
+    /**
+     * Get the bytes allocated by the calling threads of all recorded invocations
+     * @return allocated bytes (0 when the JVM does not measure allocation)
+     */
+    long getAllocatedBytes();
+
+    /**
+     * Forgets every recorded invocation.
+     */
+    void reset();
+}
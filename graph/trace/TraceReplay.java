@@ -0,0 +1,232 @@
+package graph.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads a trace recorded by `TraceWriter` and replays it, e.g. to regenerate the
+ * `demo_step_XXXXX.txt` frames consumed by the Python demo (`python_demo/us_cities_live_demo.py`).
+ *
+ * Usage: `java graph.trace.TraceReplay <trace file> <output directory> [step interval]`
+ */
+public final class TraceReplay {
+
+    /**
+     * Private constructor to hide the default one.
+     */
+    private TraceReplay() {}
+
+    /**
+     * Decodes a trace file and feeds its events to a listener.
+     * @param tracePath path of the trace file
+     * @param listener receiver of the events
+     * @throws IOException when the file cannot be read or is not a trace.
+     */
+    public static void replay(String tracePath, TraversalListener listener) throws IOException {
+        try (InputStream in = new FileInputStream(tracePath)) {
+            replay(in, listener);
+        }
+    }
+
+    /**
+     * Decodes a trace and feeds its events to a listener.
+     * @param stream the trace (not closed)
+     * @param listener receiver of the events
+     * @throws IOException when the stream cannot be read or is not a trace.
+     */
+    public static void replay(InputStream stream, TraversalListener listener) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+        byte[] magic = new byte[TraceWriter.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, TraceWriter.MAGIC)) {
+            throw new IOException("Not a traversal trace");
+        }
+        int previous = 0;
+        int n = readVarint(in);
+        int[] vertices = new int[n];
+        for (int i = 0; i < n; i++) {
+            previous += unzigzag(readVarint(in));
+            vertices[i] = previous;
+        }
+        listener.onStart(vertices);
+        int tag;
+        while ((tag = in.read()) != -1) {
+            if (tag == TraceWriter.FINISH) {
+                listener.onFinish();
+                continue;
+            }
+            previous += unzigzag(readVarint(in));
+            switch (tag) {
+                case TraceWriter.VISIT:
+                    listener.onVisit(previous);
+                    break;
+                case TraceWriter.DISCOVER:
+                    listener.onDiscover(previous, readVarint(in));
+                    break;
+                case TraceWriter.LOW_UPDATE:
+                    listener.onLowUpdate(previous, readVarint(in));
+                    break;
+                case TraceWriter.ARTICULATION_POINT:
+                    listener.onArticulationPoint(previous);
+                    break;
+                default:
+                    throw new IOException("Corrupted trace: unknown event " + tag);
+            }
+        }
+    }
+
+    /**
+     * Regenerates the demo frames of a trace: `demo_step_XXXXX.txt` every `stepInterval` steps and
+     * `demo_step_final.txt` at the end. Each line of a frame reads `value visited isAP ` (0/1 flags).
+     * @param tracePath path of the trace file
+     * @param outputDir directory the frames are written to (with a trailing separator)
+     * @param stepInterval number of steps between two frames
+     * @return number of frames written
+     * @throws IOException when the trace cannot be read or a frame cannot be written.
+     */
+    public static int writeFrames(String tracePath, String outputDir, int stepInterval) throws IOException {
+        FrameWriter frames = new FrameWriter(outputDir, stepInterval);
+        try {
+            replay(tracePath, frames);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return frames.frameCount;
+    }
+
+    /**
+     * Rebuilds the visited / articulation point flags from the events and dumps them as frames.
+     */
+    private static final class FrameWriter implements TraversalListener {
+        private static final byte[] NEW_LINE = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+        private final String outputDir;
+        private final int stepInterval;
+        private int[] sortedValues;
+        private int[] positions;
+        private byte[][] valueBytes;
+        private boolean[] visited;
+        private boolean[] articulationPoint;
+        private long step;
+        private int frameCount;
+
+        FrameWriter(String outputDir, int stepInterval) {
+            this.outputDir = outputDir;
+            this.stepInterval = stepInterval;
+        }
+
+        @Override
+        public void onStart(int[] vertices) {
+            int n = vertices.length;
+            long[] pairs = new long[n];
+            valueBytes = new byte[n][];
+            for (int i = 0; i < n; i++) {
+                pairs[i] = ((long) vertices[i] << 32) | i;
+                valueBytes[i] = String.valueOf(vertices[i]).getBytes(StandardCharsets.US_ASCII);
+            }
+            Arrays.sort(pairs);
+            sortedValues = new int[n];
+            positions = new int[n];
+            for (int i = 0; i < n; i++) {
+                sortedValues[i] = (int) (pairs[i] >> 32);
+                positions[i] = (int) pairs[i];
+            }
+            visited = new boolean[n];
+            articulationPoint = new boolean[n];
+            step = 0;
+        }
+
+        @Override
+        public void onVisit(int vertex) {
+            step++;
+            if (step % stepInterval == 0) {
+                write(String.format("%05d", step));
+            }
+        }
+
+        @Override
+        public void onDiscover(int vertex, int discoveryTime) {
+            visited[position(vertex)] = true;
+        }
+
+        @Override
+        public void onArticulationPoint(int vertex) {
+            articulationPoint[position(vertex)] = true;
+        }
+
+        @Override
+        public void onFinish() {
+            write("final");
+        }
+
+        private int position(int vertex) {
+            int i = Arrays.binarySearch(sortedValues, vertex);
+            if (i < 0) {
+                throw new UncheckedIOException(new IOException("Corrupted trace: unknown vertex " + vertex));
+            }
+            return positions[i];
+        }
+
+        private void write(String step) {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputDir + "demo_step_" + step + ".txt"), 1 << 16)) {
+                for (int i = 0; i < valueBytes.length; i++) {
+                    out.write(valueBytes[i]);
+                    out.write(' ');
+                    out.write(visited[i] ? '1' : '0');
+                    out.write(' ');
+                    out.write(articulationPoint[i] ? '1' : '0');
+                    out.write(' ');
+                    out.write(NEW_LINE);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            frameCount++;
+        }
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Truncated trace");
+            }
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupted trace: varint too long");
+    }
+
+    /**
+     * Main method
+     * @param args trace file, output directory, optional step interval (default 10)
+     * @throws IOException when the trace cannot be read or a frame cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java graph.trace.TraceReplay <trace file> <output directory> [step interval]");
+            return;
+        }
+        String outputDir = args[1].endsWith("/") ? args[1] : args[1] + "/";
+        int stepInterval = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int frames = writeFrames(args[0], outputDir, stepInterval);
+        System.out.println(frames + " frames written to " + outputDir);
+    }
+}
@@ -0,0 +1,260 @@
+package graph.trace;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A `TraversalListener` that records the events to a file without blocking the traversal on disk I/O.
+ * Events are appended to a primitive batch; full batches are handed to a background thread that encodes
+ * and writes them, and the emptied buffers come back to be reused, so recording does not allocate.
+ * When the writer falls behind, the traversal waits for a free buffer instead of buffering without bound.
+ *
+ * File format (see `TraceReplay`): the magic `JGTRACE1`, the number of vertices and their values, then one
+ * tag byte per event followed by its arguments. Vertices are written as zig-zag varint deltas from the
+ * vertex of the previous event, discovery times and low values as varints.
+ */
+public class TraceWriter implements TraversalListener, AutoCloseable {
+
+    static final byte[] MAGIC = {'J', 'G', 'T', 'R', 'A', 'C', 'E', '1'};
+    static final int VISIT = 1;
+    static final int DISCOVER = 2;
+    static final int LOW_UPDATE = 3;
+    static final int ARTICULATION_POINT = 4;
+    static final int FINISH = 5;
+
+    private static final int BATCH_EVENTS = 1 << 14;
+    private static final int BUFFERS = 4;
+    private static final int[] END_OF_STREAM = new int[0];
+
+    private final BlockingQueue<int[]> full = new ArrayBlockingQueue<>(BUFFERS + 1);
+    private final BlockingQueue<int[]> free = new ArrayBlockingQueue<>(BUFFERS);
+    private final Thread writerThread;
+    private final OutputStream out;
+    private final byte[] bytes = new byte[1 << 16];
+    private int byteCount;
+    private volatile IOException failure;
+    private int[] batch;
+    private int size;
+    private boolean closed;
+
+    /**
+     * Constructor
+     * @param filePath path of the trace file (overwritten)
+     * @throws IOException when the file cannot be created.
+     */
+    public TraceWriter(String filePath) throws IOException {
+        this(new FileOutputStream(filePath));
+    }
+
+    /**
+     * Constructor
+     * @param stream where the trace is written; closed by `close()`
+     */
+    public TraceWriter(OutputStream stream) {
+        this.out = stream;
+        for (int i = 0; i < BUFFERS - 1; i++) {
+            free.add(new int[3 * BATCH_EVENTS]);
+        }
+        this.batch = new int[3 * BATCH_EVENTS];
+        this.size = 0;
+        this.writerThread = new Thread(this::drain, "trace-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void onStart(int[] vertices) {
+        flushBatch();
+        // The header travels as a batch of its own: [-1, n, values...]
+        int[] header = new int[vertices.length + 2];
+        header[0] = -1;
+        header[1] = vertices.length;
+        System.arraycopy(vertices, 0, header, 2, vertices.length);
+        hand(header);
+    }
+
+    @Override
+    public void onVisit(int vertex) {
+        add(VISIT, vertex, 0);
+    }
+
+    @Override
+    public void onDiscover(int vertex, int discoveryTime) {
+        add(DISCOVER, vertex, discoveryTime);
+    }
+
+    @Override
+    public void onLowUpdate(int vertex, int low) {
+        add(LOW_UPDATE, vertex, low);
+    }
+
+    @Override
+    public void onArticulationPoint(int vertex) {
+        add(ARTICULATION_POINT, vertex, 0);
+    }
+
+    @Override
+    public void onFinish() {
+        add(FINISH, 0, 0);
+        flushBatch();
+    }
+
+    private void add(int tag, int a, int b) {
+        int[] buffer = batch;
+        int s = size;
+        buffer[s] = tag;
+        buffer[s + 1] = a;
+        buffer[s + 2] = b;
+        size = s + 3;
+        if (size == buffer.length) {
+            flushBatch();
+        }
+    }
+
+    /**
+     * Hands the current batch (if not empty) to the writer thread and takes a free buffer.
+     */
+    private void flushBatch() {
+        if (size == 0) {
+            return;
+        }
+        if (size < batch.length) {
+            batch[size] = 0; // end marker of a partial batch
+        }
+        hand(batch);
+        try {
+            batch = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch = new int[3 * BATCH_EVENTS];
+        }
+        size = 0;
+    }
+
+    private void hand(int[] buffer) {
+        try {
+            full.put(buffer);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writer thread: encodes the batches in arrival order.
+     */
+    private void drain() {
+        int previous = 0;
+        boolean ended = false;
+        try {
+            System.arraycopy(MAGIC, 0, bytes, 0, MAGIC.length);
+            byteCount = MAGIC.length;
+            while (true) {
+                int[] buffer = full.take();
+                if (buffer == END_OF_STREAM) {
+                    ended = true;
+                    break;
+                }
+                if (buffer.length > 0 && buffer[0] == -1) {
+                    writeVarint(buffer[1]);
+                    for (int i = 0; i < buffer[1]; i++) {
+                        writeVarint(zigzag(buffer[2 + i] - previous));
+                        previous = buffer[2 + i];
+                    }
+                    continue;
+                }
+                for (int i = 0; i < buffer.length && buffer[i] != 0; i += 3) {
+                    int tag = buffer[i];
+                    if (byteCount > bytes.length - 16) {
+                        writeBytes();
+                    }
+                    bytes[byteCount++] = (byte) tag;
+                    if (tag == FINISH) {
+                        continue;
+                    }
+                    writeVarint(zigzag(buffer[i + 1] - previous));
+                    previous = buffer[i + 1];
+                    if (tag == DISCOVER || tag == LOW_UPDATE) {
+                        writeVarint(buffer[i + 2]);
+                    }
+                }
+                free.put(buffer);
+            }
+            writeBytes();
+            out.flush();
+        } catch (IOException e) {
+            failure = e;
+            // Keep handing buffers back so that the traversal never blocks on a dead writer;
+            // once the end marker is consumed nobody is left to hand any more
+            if (!ended) {
+                recycle();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void recycle() {
+        try {
+            while (true) {
+                int[] buffer = full.take();
+                if (buffer == END_OF_STREAM) {
+                    return;
+                }
+                if (buffer.length == 3 * BATCH_EVENTS) {
+                    free.put(buffer);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Appends a varint to the encoding buffer (at most 5 bytes).
+     */
+    private void writeVarint(int value) throws IOException {
+        if (byteCount > bytes.length - 5) {
+            writeBytes();
+        }
+        while ((value & ~0x7f) != 0) {
+            bytes[byteCount++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        bytes[byteCount++] = (byte) value;
+    }
+
+    private void writeBytes() throws IOException {
+        out.write(bytes, 0, byteCount);
+        byteCount = 0;
+    }
+
+    /**
+     * Writes the pending events and closes the file.
+     * @throws IOException when writing the trace failed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flushBatch();
+        hand(END_OF_STREAM);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
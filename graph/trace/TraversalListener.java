@@ -0,0 +1,51 @@
+package graph.trace;
+
+/**
+ * Receives the events of a traversal as it runs.
+ * Vertices are identified by their `Node` value. Every method has an empty default, so a listener only
+ * overrides what it needs; `NONE` ignores everything and costs nothing once the JIT has inlined it.
+ */
+public interface TraversalListener {
+
+    /**
+     * A listener that ignores every event.
+     */
+    TraversalListener NONE = new TraversalListener() {};
+
+    /**
+     * The traversal starts.
+     * @param vertices values of all vertices, in the order the traversal iterates them
+     */
+    default void onStart(int[] vertices) {}
+
+    /**
+     * One step of the traversal: a vertex is considered as a root or as the neighbor of the vertex on top of the stack.
+     * @param vertex value of the vertex
+     */
+    default void onVisit(int vertex) {}
+
+    /**
+     * A vertex is reached for the first time.
+     * @param vertex value of the vertex
+     * @param discoveryTime depth (or discovery time) of the vertex in the DFS tree
+     */
+    default void onDiscover(int vertex, int discoveryTime) {}
+
+    /**
+     * The low-point value of a vertex decreases.
+     * @param vertex value of the vertex
+     * @param low new low-point value
+     */
+    default void onLowUpdate(int vertex, int low) {}
+
+    /**
+     * A vertex is found to be an articulation point (reported once per vertex).
+     * @param vertex value of the vertex
+     */
+    default void onArticulationPoint(int vertex) {}
+
+    /**
+     * The traversal is done.
+     */
+    default void onFinish() {}
+}
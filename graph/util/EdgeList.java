@@ -0,0 +1,149 @@
+package graph.util;
+
+import graph.CSRGraph;
+import graph.Graph;
+import graph.GraphNode;
+import graph.IntGraph;
+import graph.Node;
+
+/**
+ * A parsed edge list held in primitive arrays (0-indexed vertex ids).
+ */
+public class EdgeList {
+    private final int vertexCount;
+    private final int[] src;
+    private final int[] dest;
+    private final double[] weights;
+    private final int edgeCount;
+    private final boolean isSymmetric;
+
+    /**
+     * Constructor
+     * @param vertexCount number of vertices (ids lie in `[0, vertexCount)`)
+     * @param src source ids
+     * @param dest destination ids
+     * @param weights edge weights, or null if the file carries no values
+     * @param edgeCount number of valid entries in the arrays
+     * @param isSymmetric whether the file stores a symmetric matrix (each edge listed once)
+     */
+    public EdgeList(int vertexCount, int[] src, int[] dest, double[] weights, int edgeCount, boolean isSymmetric) {
+        this.vertexCount = vertexCount;
+        this.src = src;
+        this.dest = dest;
+        this.weights = weights;
+        this.edgeCount = edgeCount;
+        this.isSymmetric = isSymmetric;
+    }
+
+    /**
+     * Get the number of vertices
+     * @return number of vertices
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Get the number of edges
+     * @return number of edges
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Get the source of edge `i`
+     * @param i edge index
+     * @return vertex id
+     */
+    public int getSource(int i) {
+        return src[i];
+    }
+
+    /**
+     * Get the destination of edge `i`
+     * @param i edge index
+     * @return vertex id
+     */
+    public int getDestination(int i) {
+        return dest[i];
+    }
+
+    /**
+     * Get the weight of edge `i` (0.0 if the file carries no values)
+     * @param i edge index
+     * @return weight value (double)
+     */
+    public double getWeight(int i) {
+        return weights == null ? 0.0 : weights[i];
+    }
+
+    /**
+     * Whether the edges carry weights
+     * @return true if weights were read from the file
+     */
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    /**
+     * Whether the file declared a symmetric matrix
+     * @return true if each undirected edge is listed once
+     */
+    public boolean isSymmetric() {
+        return isSymmetric;
+    }
+
+    /**
+     * Build a CSR graph from the edges.
+     * @param isUndirected Whether the graph is undirected or not.
+     * @return graph with compressed sparse row representation.
+     */
+    public CSRGraph toCSRGraph(boolean isUndirected) {
+        return CSRGraph.fromEdgeList(vertexCount, src, dest, weights, edgeCount, isUndirected);
+    }
+
+    /**
+     * Build an adjacency-list graph from the edges (self-edges are filtered).
+     * One `GraphNode` is created per vertex and shared by all of its edges; the values are kept as edge weights.
+     * @param isUndirected Whether the graph is undirected or not.
+     * @return graph with adjacency list representation.
+     */
+    public Graph<Node> toGraph(boolean isUndirected) {
+        Graph<Node> graph = new Graph<>(isUndirected);
+        GraphNode[] nodes = new GraphNode[vertexCount];
+        for (int i = 0; i < edgeCount; i++) {
+            int s = src[i];
+            int d = dest[i];
+            if (s == d) {
+                continue;
+            }
+            if (nodes[s] == null) {
+                nodes[s] = new GraphNode(s);
+            }
+            if (nodes[d] == null) {
+                nodes[d] = new GraphNode(d);
+            }
+            graph.addEdge(nodes[s], nodes[d], weights == null ? 0.0 : weights[i]);
+        }
+        return graph;
+    }
+
+    /**
+     * Build an int-keyed graph from the edges (self-edges are filtered); vertex ids are kept as they are.
+     * @param isUndirected Whether the graph is undirected or not.
+     * @return graph with primitive adjacency lists.
+     */
+    public IntGraph toIntGraph(boolean isUndirected) {
+        IntGraph graph = new IntGraph(isUndirected, vertexCount);
+        if (vertexCount > 0) {
+            graph.addVertex(vertexCount - 1);
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            if (src[i] != dest[i]) {
+                graph.addEdge(src[i], dest[i]);
+            }
+        }
+        return graph;
+    }
+}
@@ -1,5 +1,6 @@
 package graph.util;
 
+import graph.CSRGraph;
 import graph.Graph;
 import graph.GraphNode;
 import graph.Node;
@@ -17,31 +18,15 @@ public class GraphCreator {
     }
 
     /**
-     * Creates a graph from a file
+     * Creates a graph from a MatrixMarket file (see `MatrixMarketLoader`).
+     * The `rows cols nnz` size line is not treated as an edge, and one `GraphNode` is shared by all edges of a vertex.
      * @param filePath absolute (or relative to this directory) path (including the name of the file).
      * @param isUndirected Whether the graph is directed or not. `true` if undirected.
      * @throws IOException when an error occurs while opening the file, reading the file, or closing the reader object.
      * @return graph with adjacency list representation.
      */
     public Graph<Node> createGraph(String filePath, boolean isUndirected) throws IOException {
-        Graph<Node> graph = new Graph<>(isUndirected);
-        FileReader fr = new FileReader(filePath);
-        this.reader = new BufferedReader(fr);
-        String line = reader.readLine();
-        while(line != null) {
-            if (!line.startsWith("%")) {
-                String[] tokens = line.split("\\s+"); // Split the line around whitespace
-                GraphNode src = new GraphNode(Integer.parseInt(tokens[0])-1); // 1-indexed to 0-indexed
-                GraphNode dest = new GraphNode(Integer.parseInt(tokens[1])-1);
-                // Filtering self-edges
-                if(!src.equals(dest)) { 
-                    graph.addEdge(src, dest);
-                }
-            }
-            line = reader.readLine();
-        }
-        this.reader.close();
-        return graph;
+        return MatrixMarketLoader.load(filePath).toGraph(isUndirected);
     }
 
     /**
@@ -76,4 +61,16 @@ public class GraphCreator {
         this.reader.close();
         return graph;
     }
+
+    /**
+     * Creates a CSR graph straight from a MatrixMarket file, without building `GraphNode` objects.
+     * The value field of each entry is kept as the edge weight (see `MatrixMarketLoader`).
+     * @param filePath absolute (or relative to this directory) path (including the name of the file).
+     * @param isUndirected Whether the graph is directed or not. `true` if undirected.
+     * @return graph with compressed sparse row representation.
+     * @throws IOException when an error occurs while opening, mapping or parsing the file.
+     */
+    public CSRGraph createCSRGraph(String filePath, boolean isUndirected) throws IOException {
+        return MatrixMarketLoader.load(filePath).toCSRGraph(isUndirected);
+    }
 }
@@ -0,0 +1,418 @@
+package graph.util;
+
+import graph.CSRGraph;
+import graph.Graph;
+import graph.IndexedGraph;
+import graph.Node;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * A versioned binary snapshot of a graph that is used straight from a memory mapping.
+ *
+ * Layout (little-endian, every section starts on an 8-byte boundary):
+ * <pre>
+ * header (64 bytes): magic "JGRAPHSN", version, flags, |V|, #adjacency entries, #label bytes, CRC32C
+ * offsets          : (|V| + 1) x int32
+ * targets          : entries x int32
+ * weights          : entries x float64           (flag WEIGHTED)
+ * values           : |V| x int32                 (flag VALUES; increasing unless flag UNSORTED_VALUES)
+ * label offsets    : (|V| + 1) x int64           (flag LABELS)
+ * label bytes      : UTF-8                       (flag LABELS)
+ * </pre>
+ * The CRC32C covers the payload and then the header with its checksum field zeroed, so a flipped
+ * flag or count is caught as well as a damaged array.
+ * Opening a snapshot maps the file and reads the arrays in place; nothing is copied onto the heap,
+ * so startup cost does not grow with the graph (beyond the optional checksum pass).
+ */
+public class GraphSnapshot implements IndexedGraph {
+
+    private static final long MAGIC = bytesToLong("JGRAPHSN");
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int FLAG_UNDIRECTED = 1;
+    private static final int FLAG_WEIGHTED = 2;
+    private static final int FLAG_VALUES = 4;
+    private static final int FLAG_LABELS = 8;
+    private static final int FLAG_UNSORTED_VALUES = 16;
+    private static final int WINDOW_BITS = 30;
+    private static final long WINDOW_SIZE = 1L << WINDOW_BITS;
+
+    private final MappedByteBuffer[] windows;
+    private final int vertexCount;
+    private final int arcCount;
+    private final int flags;
+    private final long offsetsPos;
+    private final long targetsPos;
+    private final long weightsPos;
+    private final long valuesPos;
+    private final long labelOffsetsPos;
+    private final long labelBytesPos;
+
+    private static long bytesToLong(String s) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value |= ((long) s.charAt(i) & 0xff) << (8 * i);
+        }
+        return value;
+    }
+
+    /**
+     * Constructor: maps an existing snapshot.
+     */
+    private GraphSnapshot(String filePath, boolean verify) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r"); FileChannel channel = file.getChannel()) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException(filePath + " is too small to be a graph snapshot");
+            }
+            int count = (int) ((size + WINDOW_SIZE - 1) >>> WINDOW_BITS);
+            this.windows = new MappedByteBuffer[count];
+            for (int w = 0; w < count; w++) {
+                long offset = (long) w << WINDOW_BITS;
+                // Windows overlap by 8 bytes so that no primitive straddles two of them
+                windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE + 8, size - offset));
+                windows[w].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            if (getLong(0) != MAGIC) {
+                throw new IOException(filePath + " is not a graph snapshot");
+            }
+            int version = getInt(8);
+            if (version != VERSION) {
+                throw new IOException(filePath + " has unsupported snapshot version " + version);
+            }
+            this.flags = getInt(12);
+            long n = getLong(16);
+            long arcs = getLong(24);
+            long labelBytes = getLong(32);
+            long checksum = getLong(40);
+            if (n < 0 || n >= Integer.MAX_VALUE || arcs < 0 || arcs > Integer.MAX_VALUE || labelBytes < 0) {
+                throw new IOException(filePath + " has a corrupted header");
+            }
+            this.vertexCount = (int) n;
+            this.arcCount = (int) arcs;
+            this.offsetsPos = HEADER_SIZE;
+            this.targetsPos = align(offsetsPos + 4L * (n + 1));
+            this.weightsPos = align(targetsPos + 4L * arcs);
+            this.valuesPos = (flags & FLAG_WEIGHTED) != 0 ? align(weightsPos + 8L * arcs) : weightsPos;
+            this.labelOffsetsPos = (flags & FLAG_VALUES) != 0 ? align(valuesPos + 4L * n) : valuesPos;
+            this.labelBytesPos = (flags & FLAG_LABELS) != 0 ? labelOffsetsPos + 8L * (n + 1) : labelOffsetsPos;
+            long expectedSize = (flags & FLAG_LABELS) != 0 ? labelBytesPos + labelBytes : labelBytesPos;
+            if (expectedSize != size) {
+                throw new IOException(filePath + " is truncated or corrupted (" + size + " bytes, expected " + expectedSize + ")");
+            }
+            if (verify && checksum(size) != checksum) {
+                throw new IOException(filePath + " failed checksum verification");
+            }
+        }
+    }
+
+    /**
+     * Opens a snapshot and verifies its checksum.
+     * @param filePath path of the snapshot file
+     * @return the mapped graph
+     * @throws IOException when the file cannot be mapped, is not a snapshot, or is corrupted.
+     */
+    public static GraphSnapshot open(String filePath) throws IOException {
+        return new GraphSnapshot(filePath, true);
+    }
+
+    /**
+     * Opens a snapshot.
+     * @param filePath path of the snapshot file
+     * @param verify whether to verify the checksum (reads the whole file once)
+     * @return the mapped graph
+     * @throws IOException when the file cannot be mapped, is not a snapshot, or is corrupted.
+     */
+    public static GraphSnapshot open(String filePath, boolean verify) throws IOException {
+        return new GraphSnapshot(filePath, verify);
+    }
+
+    /**
+     * Saves the alive part of a `Graph` (see `CSRGraph.fromGraph`).
+     * @param graph the graph object
+     * @param filePath path of the snapshot file
+     * @throws IOException when the file cannot be written.
+     */
+    public static <T extends Node> void save(Graph<T> graph, String filePath) throws IOException {
+        save(CSRGraph.fromGraph(graph), filePath);
+    }
+
+    /**
+     * Saves a graph.
+     * @param graph the graph object
+     * @param filePath path of the snapshot file
+     * @throws IOException when the file cannot be written.
+     */
+    public static void save(IndexedGraph graph, String filePath) throws IOException {
+        int n = graph.getVertexCount();
+        int arcs = graph.getArcCount();
+        boolean hasValues = false;
+        boolean sortedValues = true;
+        for (int v = 0; v < n; v++) {
+            hasValues |= graph.getValue(v) != v;
+            sortedValues &= v == 0 || graph.getValue(v - 1) < graph.getValue(v);
+        }
+        int flags = (graph.isUndirected() ? FLAG_UNDIRECTED : 0)
+            | (graph.isWeighted() ? FLAG_WEIGHTED : 0)
+            | (hasValues ? FLAG_VALUES : 0)
+            | (sortedValues ? 0 : FLAG_UNSORTED_VALUES)
+            | FLAG_LABELS;
+
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "rw"); FileChannel channel = file.getChannel()) {
+            channel.truncate(0);
+            Writer writer = new Writer(channel);
+            writer.position(HEADER_SIZE);
+            for (int v = 0; v < n; v++) {
+                writer.putInt(graph.adjStart(v));
+            }
+            writer.putInt(n == 0 ? 0 : graph.adjEnd(n - 1));
+            writer.align();
+            for (int i = 0; i < arcs; i++) {
+                writer.putInt(graph.getTarget(i));
+            }
+            writer.align();
+            if (graph.isWeighted()) {
+                for (int i = 0; i < arcs; i++) {
+                    writer.putDouble(graph.getWeight(i));
+                }
+            }
+            if (hasValues) {
+                for (int v = 0; v < n; v++) {
+                    writer.putInt(graph.getValue(v));
+                }
+                writer.align();
+            }
+            long labelBytes = 0;
+            writer.putLong(0);
+            for (int v = 0; v < n; v++) {
+                labelBytes += graph.getLabel(v).getBytes(StandardCharsets.UTF_8).length;
+                writer.putLong(labelBytes);
+            }
+            for (int v = 0; v < n; v++) {
+                writer.putBytes(graph.getLabel(v).getBytes(StandardCharsets.UTF_8));
+            }
+            writer.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(flags);
+            header.putLong(n);
+            header.putLong(arcs);
+            header.putLong(labelBytes);
+            header.putLong(0);
+            header.rewind();
+            writer.crc.update(header.duplicate());
+            header.putLong(40, writer.crc.getValue());
+            channel.write(header, 0);
+        }
+    }
+
+    /**
+     * Buffered little-endian writer that checksums the payload it writes after the header.
+     */
+    private static final class Writer {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C crc = new CRC32C();
+        private long position;
+
+        Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void position(long p) {
+            this.position = p;
+        }
+
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            for (int i = 0; i < bytes.length; ) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - i);
+                buffer.put(bytes, i, length);
+                i += length;
+            }
+        }
+
+        void align() throws IOException {
+            while (((position + buffer.position()) & 7) != 0) {
+                ensure(1);
+                buffer.put((byte) 0);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            ByteBuffer view = buffer.duplicate();
+            crc.update(view);
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static long align(long p) {
+        return (p + 7) & ~7L;
+    }
+
+    /**
+     * CRC32C of the payload followed by the header with the checksum field zeroed.
+     */
+    private long checksum(long size) {
+        CRC32C crc = new CRC32C();
+        update(crc, HEADER_SIZE, size);
+        update(crc, 0, 40);
+        crc.update(new byte[8]);
+        update(crc, 48, HEADER_SIZE);
+        return crc.getValue();
+    }
+
+    private void update(CRC32C crc, long from, long to) {
+        for (long p = from; p < to; ) {
+            int w = (int) (p >>> WINDOW_BITS);
+            int offset = (int) (p & (WINDOW_SIZE - 1));
+            int length = (int) Math.min(to - p, WINDOW_SIZE - offset);
+            ByteBuffer slice = windows[w].duplicate();
+            slice.position(offset).limit(offset + length);
+            crc.update(slice);
+            p += length;
+        }
+    }
+
+    private int getInt(long p) {
+        return windows[(int) (p >>> WINDOW_BITS)].getInt((int) (p & (WINDOW_SIZE - 1)));
+    }
+
+    private long getLong(long p) {
+        return windows[(int) (p >>> WINDOW_BITS)].getLong((int) (p & (WINDOW_SIZE - 1)));
+    }
+
+    private double getDouble(long p) {
+        return windows[(int) (p >>> WINDOW_BITS)].getDouble((int) (p & (WINDOW_SIZE - 1)));
+    }
+
+    @Override
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int getEdgesCount() {
+        return isUndirected() ? arcCount / 2 : arcCount;
+    }
+
+    @Override
+    public int getArcCount() {
+        return arcCount;
+    }
+
+    @Override
+    public boolean isUndirected() {
+        return (flags & FLAG_UNDIRECTED) != 0;
+    }
+
+    @Override
+    public boolean isWeighted() {
+        return (flags & FLAG_WEIGHTED) != 0;
+    }
+
+    @Override
+    public int adjStart(int v) {
+        return getInt(offsetsPos + 4L * v);
+    }
+
+    @Override
+    public int adjEnd(int v) {
+        return getInt(offsetsPos + 4L * (v + 1));
+    }
+
+    @Override
+    public int getTarget(int i) {
+        return getInt(targetsPos + 4L * i);
+    }
+
+    @Override
+    public double getWeight(int i) {
+        return isWeighted() ? getDouble(weightsPos + 8L * i) : 0.0;
+    }
+
+    @Override
+    public int getValue(int v) {
+        return (flags & FLAG_VALUES) != 0 ? getInt(valuesPos + 4L * v) : v;
+    }
+
+    @Override
+    public int indexOf(int value) {
+        if ((flags & FLAG_VALUES) == 0) {
+            return (value >= 0 && value < vertexCount) ? value : -1;
+        }
+        if ((flags & FLAG_UNSORTED_VALUES) != 0) {
+            // Reordered graph: no index is kept on the heap
+            for (int v = 0; v < vertexCount; v++) {
+                if (getValue(v) == value) {
+                    return v;
+                }
+            }
+            return -1;
+        }
+        // Values are stored in increasing order
+        int lo = 0;
+        int hi = vertexCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midValue = getValue(mid);
+            if (midValue < value) {
+                lo = mid + 1;
+            } else if (midValue > value) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    @Override
+    public String getLabel(int v) {
+        if ((flags & FLAG_LABELS) == 0) {
+            return String.valueOf(getValue(v));
+        }
+        long start = getLong(labelOffsetsPos + 8L * v);
+        long end = getLong(labelOffsetsPos + 8L * (v + 1));
+        byte[] bytes = new byte[(int) (end - start)];
+        for (int i = 0; i < bytes.length; i++) {
+            long p = labelBytesPos + start + i;
+            bytes[i] = windows[(int) (p >>> WINDOW_BITS)].get((int) (p & (WINDOW_SIZE - 1)));
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,321 @@
+package graph.util;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A read-only memory-mapped file addressed by absolute byte positions.
+ * Files larger than 2 GiB are mapped in 1 GiB windows. Text is scanned through `Cursor`s, which parse
+ * numbers straight from the mapped bytes; several cursors can scan disjoint ranges concurrently.
+ */
+class MappedFile {
+
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final MappedByteBuffer[] chunks;
+    private final long size;
+
+    /**
+     * Constructor: maps the file read-only.
+     * @param filePath absolute (or relative to this directory) path (including the name of the file).
+     * @throws IOException when the file cannot be opened or mapped.
+     */
+    MappedFile(String filePath) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r"); FileChannel channel = file.getChannel()) {
+            this.size = channel.size();
+            int count = (int) ((size + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+            this.chunks = new MappedByteBuffer[count];
+            for (int c = 0; c < count; c++) {
+                long offset = (long) c << CHUNK_BITS;
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(CHUNK_SIZE, size - offset));
+            }
+        }
+    }
+
+    /**
+     * Get the size of the file
+     * @return size in bytes
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Byte at an absolute file position.
+     * @param p position in `[0, size())`
+     * @return the byte
+     */
+    byte at(long p) {
+        return chunks[(int) (p >>> CHUNK_BITS)].get((int) (p & (CHUNK_SIZE - 1)));
+    }
+
+    /**
+     * Position of the first byte after the line feed at or after `p` (or `size()`).
+     * @param p position to start from
+     * @return start of the next line
+     */
+    long nextLineStart(long p) {
+        while (p < size && at(p) != '\n') {
+            p++;
+        }
+        return Math.min(size, p + 1);
+    }
+
+    /**
+     * Number of the line holding position `p` (meant for error messages: the lines before `p` are counted).
+     * @param p position in the file
+     * @return 1-based line number
+     */
+    long lineNumber(long p) {
+        long line = 1;
+        for (long q = 0; q < p; q++) {
+            if (at(q) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    /**
+     * The line starting at `lineStart`, trimmed (meant for error messages).
+     * @param lineStart position of the first byte of the line
+     * @return the text of the line
+     */
+    String lineAt(long lineStart) {
+        long next = nextLineStart(lineStart);
+        long lineEnd = next > lineStart && at(next - 1) == '\n' ? next - 1 : next;
+        return readString(lineStart, lineEnd).trim();
+    }
+
+    /**
+     * Position of the first `b` in `[from, to)`.
+     * @param b byte to look for
+     * @param from start position (inclusive)
+     * @param to end position (exclusive)
+     * @return position of the byte, or -1 if it does not occur
+     */
+    long indexOf(byte b, long from, long to) {
+        for (long p = from; p < to; p++) {
+            if (at(p) == b) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Create a cursor at the given position.
+     * @param p start position
+     * @return a new cursor
+     */
+    Cursor cursor(long p) {
+        return new Cursor(p);
+    }
+
+    /**
+     * A scanning position in the file. Not thread-safe; use one cursor per thread.
+     */
+    final class Cursor {
+        long pos;
+
+        Cursor(long pos) {
+            this.pos = pos;
+        }
+
+        /**
+         * Whether the cursor reached the end of the file.
+         */
+        boolean atEnd() {
+            return pos >= size;
+        }
+
+        /**
+         * Current byte (the cursor must not be at the end).
+         */
+        byte peek() {
+            return at(pos);
+        }
+
+        /**
+         * Whether the cursor is at a line feed or at the end of the file.
+         */
+        boolean atLineEnd() {
+            return pos >= size || at(pos) == '\n';
+        }
+
+        /**
+         * Whether the bytes at the cursor spell `prefix`.
+         */
+        boolean startsWith(String prefix) {
+            if (size - pos < prefix.length()) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length(); i++) {
+                if (at(pos + i) != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Reads the rest of the line into a string (meant for headers, not for entries).
+         */
+        String readLine() {
+            long start = pos;
+            while (pos < size && at(pos) != '\n') {
+                pos++;
+            }
+            String line = readString(start, pos);
+            if (pos < size) {
+                pos++;
+            }
+            return line;
+        }
+
+        /**
+         * Skips spaces, tabs and carriage returns (not line feeds).
+         */
+        void skipBlanks() {
+            while (pos < size) {
+                byte b = at(pos);
+                if (b != ' ' && b != '\t' && b != '\r') {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        /**
+         * Skips past the next line feed.
+         */
+        void skipLine() {
+            pos = nextLineStart(pos);
+        }
+
+        /**
+         * Whether the token at the cursor consists of digits only.
+         */
+        boolean isIntegerToken() {
+            long p = pos;
+            boolean digits = false;
+            while (p < size) {
+                byte b = at(p);
+                if (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                    break;
+                }
+                if (b < '0' || b > '9') {
+                    return false;
+                }
+                digits = true;
+                p++;
+            }
+            return digits;
+        }
+
+        /**
+         * Parses an optionally signed decimal integer.
+         * @throws NumberFormatException when no digits are found.
+         */
+        long parseLong() {
+            boolean negative = false;
+            if (pos < size && (at(pos) == '-' || at(pos) == '+')) {
+                negative = at(pos) == '-';
+                pos++;
+            }
+            long start = pos;
+            long value = 0;
+            while (pos < size) {
+                byte b = at(pos);
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                value = value * 10 + (b - '0');
+                pos++;
+            }
+            if (pos == start) {
+                throw new NumberFormatException("Expected an integer at byte " + pos);
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Parses a real number (`[+-]digits[.digits][(e|E)[+-]digits]`) without allocating.
+         * The result may differ from `Double.parseDouble` in the last bit.
+         * @throws NumberFormatException when no digits are found.
+         */
+        double parseDouble() {
+            boolean negative = false;
+            if (pos < size && (at(pos) == '-' || at(pos) == '+')) {
+                negative = at(pos) == '-';
+                pos++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean seenDigit = false;
+            boolean fraction = false;
+            while (pos < size) {
+                byte b = at(pos);
+                if (b >= '0' && b <= '9') {
+                    seenDigit = true;
+                    if (digits < 18) {
+                        mantissa = mantissa * 10 + (b - '0');
+                        if (mantissa != 0) {
+                            digits++;
+                        }
+                        if (fraction) {
+                            exponent--;
+                        }
+                    } else if (!fraction) {
+                        exponent++;
+                    }
+                } else if (b == '.' && !fraction) {
+                    fraction = true;
+                } else {
+                    break;
+                }
+                pos++;
+            }
+            if (!seenDigit) {
+                throw new NumberFormatException("Expected a number at byte " + pos);
+            }
+            if (pos < size && (at(pos) == 'e' || at(pos) == 'E')) {
+                pos++;
+                exponent += (int) parseLong();
+            }
+            double value = mantissa;
+            if (exponent < 0) {
+                value = exponent < -22 ? value / Math.pow(10, -exponent) : value / POWERS_OF_TEN[-exponent];
+            } else if (exponent > 0) {
+                value = exponent > 22 ? value * Math.pow(10, exponent) : value * POWERS_OF_TEN[exponent];
+            }
+            return negative ? -value : value;
+        }
+    }
+
+    /**
+     * Decodes the bytes `[start, end)` as UTF-8, dropping a trailing carriage return.
+     * @param start start position (inclusive)
+     * @param end end position (exclusive)
+     * @return the decoded string
+     */
+    String readString(long start, long end) {
+        if (end > start && at(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[(int) (end - start)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = at(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,214 @@
+package graph.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Loads MatrixMarket (`.mtx`) coordinate files through a memory-mapped view of the file.
+ * Integers and reals are parsed directly from the mapped bytes, so the per-entry work allocates nothing;
+ * the edge buffers are pre-sized from the declared number of entries.
+ *
+ * The `%%MatrixMarket matrix coordinate <field> <symmetry>` header is honored: `pattern` files produce no
+ * weights, `complex` files keep the real part, and `symmetric`, `skew-symmetric` and `hermitian` files are
+ * reported as symmetric. Some files in the wild (including two of the bundled power networks) omit the
+ * `rows cols nnz` size line, so the first data line is only taken as the size line when it consists of
+ * three integers (two integers would be a `pattern` entry, a real third field a value).
+ */
+public class MatrixMarketLoader {
+
+    private final MappedFile file;
+    private final String filePath;
+    private boolean isPattern;
+    private boolean isSymmetric;
+    private long declaredRows;
+    private long declaredCols;
+    private int declaredVertexCount;
+    private long declaredEntries;
+    private long dataStart;
+
+    /**
+     * Constructor: maps the file read-only and reads the header and the size line.
+     * @param filePath absolute (or relative to this directory) path (including the name of the file).
+     * @throws IOException when the file cannot be mapped or is not a coordinate MatrixMarket file.
+     */
+    public MatrixMarketLoader(String filePath) throws IOException {
+        this.file = new MappedFile(filePath);
+        this.filePath = filePath;
+        readHeader();
+    }
+
+    /**
+     * Loads a MatrixMarket file.
+     * @param filePath absolute (or relative to this directory) path (including the name of the file).
+     * @return the 0-indexed edge list
+     * @throws IOException when the file cannot be read, is not a coordinate MatrixMarket file, or has an id
+     * outside the dimensions of its size line.
+     */
+    public static EdgeList load(String filePath) throws IOException {
+        return new MatrixMarketLoader(filePath).parse();
+    }
+
+    /**
+     * Reads the banner, the comments and the size line (if any), leaving `dataStart` at the first entry.
+     * @throws IOException when the file is not a coordinate MatrixMarket file.
+     */
+    private void readHeader() throws IOException {
+        MappedFile.Cursor cursor = file.cursor(0);
+        declaredEntries = -1;
+        if (cursor.startsWith("%%MatrixMarket")) {
+            String[] header = cursor.readLine().trim().toLowerCase().split("\\s+");
+            if (header.length < 5 || !header[2].equals("coordinate")) {
+                throw new IOException("Only MatrixMarket coordinate files are supported: " + String.join(" ", header));
+            }
+            isPattern = header[3].equals("pattern");
+            isSymmetric = !header[4].equals("general");
+        }
+        while (!cursor.atEnd()) {
+            long lineStart = cursor.pos;
+            cursor.skipBlanks();
+            if (cursor.atLineEnd() || cursor.peek() == '%') {
+                cursor.skipLine();
+                continue;
+            }
+            long rows = cursor.parseLong();
+            cursor.skipBlanks();
+            long cols = cursor.parseLong();
+            cursor.skipBlanks();
+            if (!cursor.atLineEnd() && cursor.isIntegerToken()) {
+                // Size line: rows cols nnz
+                declaredEntries = cursor.parseLong();
+                declaredRows = rows;
+                declaredCols = cols;
+                declaredVertexCount = (int) Math.max(rows, cols);
+                cursor.skipLine();
+                dataStart = cursor.pos;
+            } else {
+                dataStart = lineStart;
+            }
+            return;
+        }
+        dataStart = cursor.pos;
+    }
+
+    /**
+     * Parses the entries of the file.
+     * @return the 0-indexed edge list
+     * @throws IOException when a row or column lies outside the dimensions of the size line (outside
+     * `[1, 2^31 - 1]` when the file has no size line).
+     */
+    public EdgeList parse() throws IOException {
+        long maxRow = getRowBound();
+        long maxCol = getColumnBound();
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8,
+            Math.max(1, declaredEntries >= 0 ? declaredEntries : (file.size() - dataStart) / 8));
+        int[] src = new int[capacity];
+        int[] dest = new int[capacity];
+        double[] weights = isPattern ? null : new double[capacity];
+        int vertexCount = declaredVertexCount;
+        int edgeCount = 0;
+        MappedFile.Cursor cursor = file.cursor(dataStart);
+        while (!cursor.atEnd()) {
+            long lineStart = cursor.pos;
+            cursor.skipBlanks();
+            if (cursor.atLineEnd() || cursor.peek() == '%') {
+                cursor.skipLine();
+                continue;
+            }
+            if (edgeCount == src.length) {
+                int grown = (int) Math.min(Integer.MAX_VALUE - 8, 2L * edgeCount);
+                src = Arrays.copyOf(src, grown);
+                dest = Arrays.copyOf(dest, grown);
+                if (weights != null) {
+                    weights = Arrays.copyOf(weights, grown);
+                }
+            }
+            long row = cursor.parseLong();
+            cursor.skipBlanks();
+            long col = cursor.parseLong();
+            cursor.skipBlanks();
+            if (row < 1 || row > maxRow || col < 1 || col > maxCol) {
+                throw new IOException("Vertex id outside " + getIdRange() + " on line " + file.lineNumber(lineStart)
+                    + " of " + filePath + ": " + file.lineAt(lineStart));
+            }
+            src[edgeCount] = (int) row - 1; // 1-indexed to 0-indexed
+            dest[edgeCount] = (int) col - 1;
+            if (weights != null) {
+                // For complex files the imaginary part is skipped with the rest of the line
+                weights[edgeCount] = cursor.atLineEnd() ? 1.0 : cursor.parseDouble();
+            }
+            vertexCount = Math.max(vertexCount, (int) Math.max(row, col));
+            edgeCount++;
+            cursor.skipLine();
+        }
+        return new EdgeList(vertexCount, src, dest, weights, edgeCount, isSymmetric);
+    }
+
+    /**
+     * Whether the header declared a `pattern` field (no values)
+     * @return true for pattern files
+     */
+    public boolean isPattern() {
+        return isPattern;
+    }
+
+    /**
+     * Whether the header declared a non-general symmetry
+     * @return true for symmetric, skew-symmetric and hermitian files
+     */
+    public boolean isSymmetric() {
+        return isSymmetric;
+    }
+
+    /**
+     * Get the vertex count from the size line
+     * @return max(rows, cols), or 0 if there is no size line
+     */
+    public int getDeclaredVertexCount() {
+        return declaredVertexCount;
+    }
+
+    /**
+     * Get the number of entries from the size line
+     * @return nnz, or -1 if there is no size line
+     */
+    public long getDeclaredEntries() {
+        return declaredEntries;
+    }
+
+    /**
+     * Largest valid row: the declared number of rows, or `2^31 - 1` without a size line.
+     */
+    long getRowBound() {
+        return declaredRows > 0 ? declaredRows : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Largest valid column: the declared number of columns, or `2^31 - 1` without a size line.
+     */
+    long getColumnBound() {
+        return declaredCols > 0 ? declaredCols : Integer.MAX_VALUE;
+    }
+
+    /**
+     * The valid (1-based) ids for error messages, e.g. `[1, 494]` or `[1, 3] x [1, 5]`.
+     */
+    String getIdRange() {
+        long maxRow = getRowBound();
+        long maxCol = getColumnBound();
+        return maxRow == maxCol ? "[1, " + maxRow + "]" : "[1, " + maxRow + "] x [1, " + maxCol + "]";
+    }
+
+    /**
+     * The mapped file (shared with the parallel loader).
+     */
+    MappedFile getFile() {
+        return file;
+    }
+
+    /**
+     * Position of the first entry after the header and the size line.
+     */
+    long getDataStart() {
+        return dataStart;
+    }
+}
@@ -0,0 +1,413 @@
+package graph.util;
+
+import graph.IndexedGraph;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A compressed sparse row graph whose arrays live outside the Java heap, in direct `ByteBuffer`s.
+ * Offsets, targets, weights, vertex values and labels are all stored off-heap, so the collector only ever
+ * sees a handful of small objects, whatever the size of the graph: heap size and GC pauses stay flat.
+ * Every `IndexedGraph` algorithm (`GraphOps`, `graph.algo`) runs on it unchanged.
+ *
+ * The memory is released by `close`, not by the collector. Using the graph after `close` fails with an
+ * `IndexOutOfBoundsException` (freed memory is never read), but `close` must not race with readers.
+ * Direct memory is capped by `-XX:MaxDirectMemorySize`, which defaults to the maximum heap size; raise it
+ * for graphs larger than the heap.
+ */
+public class OffHeapGraph implements IndexedGraph, AutoCloseable {
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    private final int vertexCount;
+    private final int arcCount;
+    private final boolean isUndirected;
+    private final boolean sortedValues;
+    private final Region offsets;
+    private final Region targets;
+    private final Region weights;
+    private final Region values;
+    private final Region labelOffsets;
+    private final Region labelBytes;
+
+    /**
+     * Constructor: takes ownership of the regions (`weights`, `values` and the label regions may be null).
+     */
+    private OffHeapGraph(int vertexCount, int arcCount, boolean isUndirected, Region offsets, Region targets,
+                         Region weights, Region values, Region labelOffsets, Region labelBytes) {
+        this.vertexCount = vertexCount;
+        this.arcCount = arcCount;
+        this.isUndirected = isUndirected;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.values = values;
+        this.labelOffsets = labelOffsets;
+        this.labelBytes = labelBytes;
+        boolean sorted = true;
+        for (int v = 1; v < vertexCount && sorted && values != null; v++) {
+            sorted = values.getInt(4L * (v - 1)) < values.getInt(4L * v);
+        }
+        this.sortedValues = sorted;
+    }
+
+    /**
+     * Copies a graph off the heap.
+     * Values are only stored when they differ from the ids, labels only when they differ from the values.
+     * @param graph the graph object (e.g. a `CSRGraph` or a `GraphSnapshot`)
+     * @return the off-heap copy
+     * @throws OutOfMemoryError when the direct memory limit is reached.
+     */
+    public static OffHeapGraph copyOf(IndexedGraph graph) {
+        int n = graph.getVertexCount();
+        int arcs = graph.getArcCount();
+        boolean hasValues = false;
+        boolean hasLabels = false;
+        long labelSize = 0;
+        for (int v = 0; v < n; v++) {
+            hasValues |= graph.getValue(v) != v;
+            String label = graph.getLabel(v);
+            hasLabels |= !label.equals(String.valueOf(graph.getValue(v)));
+            labelSize += label.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        Region offsets = new Region(4L * (n + 1));
+        Region targets = null;
+        Region weights = null;
+        Region values = null;
+        Region labelOffsets = null;
+        Region labelBytes = null;
+        try {
+            targets = new Region(4L * arcs);
+            for (int v = 0; v < n; v++) {
+                offsets.putInt(4L * v, graph.adjStart(v));
+            }
+            offsets.putInt(4L * n, n == 0 ? 0 : graph.adjEnd(n - 1));
+            for (int i = 0; i < arcs; i++) {
+                targets.putInt(4L * i, graph.getTarget(i));
+            }
+            if (graph.isWeighted()) {
+                weights = new Region(8L * arcs);
+                for (int i = 0; i < arcs; i++) {
+                    weights.putDouble(8L * i, graph.getWeight(i));
+                }
+            }
+            if (hasValues) {
+                values = new Region(4L * n);
+                for (int v = 0; v < n; v++) {
+                    values.putInt(4L * v, graph.getValue(v));
+                }
+            }
+            if (hasLabels) {
+                labelOffsets = new Region(8L * (n + 1));
+                labelBytes = new Region(labelSize);
+                long p = 0;
+                for (int v = 0; v < n; v++) {
+                    labelOffsets.putLong(8L * v, p);
+                    for (byte b : graph.getLabel(v).getBytes(StandardCharsets.UTF_8)) {
+                        labelBytes.put(p++, b);
+                    }
+                }
+                labelOffsets.putLong(8L * n, p);
+            }
+        } catch (RuntimeException | Error e) {
+            free(offsets, targets, weights, values, labelOffsets, labelBytes);
+            throw e;
+        }
+        return new OffHeapGraph(n, arcs, graph.isUndirected(), offsets, targets, weights, values, labelOffsets, labelBytes);
+    }
+
+    /**
+     * Builds an off-heap graph straight from an edge list with a counting sort on the source ids, without
+     * an on-heap copy of the adjacency. Self-edges are dropped. For undirected graphs each edge is inserted
+     * in both directions.
+     * @param edges the edge list (e.g. from `MatrixMarketLoader.load`)
+     * @param isUndirected Whether the graph is undirected or not.
+     * @return the off-heap graph
+     * @throws IndexOutOfBoundsException when an edge endpoint is outside `[0, edges.getVertexCount())`.
+     * @throws OutOfMemoryError when the direct memory limit is reached.
+     */
+    public static OffHeapGraph fromEdgeList(EdgeList edges, boolean isUndirected) {
+        int n = edges.getVertexCount();
+        int m = edges.getEdgeCount();
+        Region offsets = new Region(4L * (n + 1));
+        Region cursor = null;
+        Region targets = null;
+        Region weights = null;
+        try {
+            long arcs = 0;
+            for (int i = 0; i < m; i++) {
+                int s = edges.getSource(i);
+                int d = edges.getDestination(i);
+                if (s < 0 || s >= n || d < 0 || d >= n) {
+                    throw new IndexOutOfBoundsException("Edge (" + s + ", " + d + ") is out of range [0, " + n + ")");
+                }
+                if (s != d) {
+                    offsets.putInt(4L * (s + 1), offsets.getInt(4L * (s + 1)) + 1);
+                    arcs++;
+                    if (isUndirected) {
+                        offsets.putInt(4L * (d + 1), offsets.getInt(4L * (d + 1)) + 1);
+                        arcs++;
+                    }
+                }
+            }
+            if (arcs > Integer.MAX_VALUE) {
+                throw new IndexOutOfBoundsException(arcs + " adjacency entries do not fit into int indices");
+            }
+            cursor = new Region(4L * n);
+            for (int v = 0; v < n; v++) {
+                int start = offsets.getInt(4L * v);
+                offsets.putInt(4L * (v + 1), offsets.getInt(4L * (v + 1)) + start);
+                cursor.putInt(4L * v, start);
+            }
+            targets = new Region(4L * arcs);
+            weights = edges.isWeighted() ? new Region(8L * arcs) : null;
+            for (int i = 0; i < m; i++) {
+                int s = edges.getSource(i);
+                int d = edges.getDestination(i);
+                if (s == d) {
+                    continue;
+                }
+                double w = edges.getWeight(i);
+                append(cursor, targets, weights, s, d, w);
+                if (isUndirected) {
+                    append(cursor, targets, weights, d, s, w);
+                }
+            }
+            return new OffHeapGraph(n, (int) arcs, isUndirected, offsets, targets, weights, null, null, null);
+        } catch (RuntimeException | Error e) {
+            free(offsets, targets, weights);
+            throw e;
+        } finally {
+            free(cursor);
+        }
+    }
+
+    private static void append(Region cursor, Region targets, Region weights, int s, int d, double w) {
+        int i = cursor.getInt(4L * s);
+        cursor.putInt(4L * s, i + 1);
+        targets.putInt(4L * i, d);
+        if (weights != null) {
+            weights.putDouble(8L * i, w);
+        }
+    }
+
+    /**
+     * Get the number of off-heap bytes held by the graph
+     * @return allocated bytes (0 once closed)
+     */
+    public long getAllocatedBytes() {
+        long total = 0;
+        for (Region r : new Region[] {offsets, targets, weights, values, labelOffsets, labelBytes}) {
+            total += r == null ? 0 : r.size;
+        }
+        return total;
+    }
+
+    /**
+     * Releases the off-heap memory. Closing twice has no effect.
+     */
+    @Override
+    public void close() {
+        free(offsets, targets, weights, values, labelOffsets, labelBytes);
+    }
+
+    private static void free(Region... regions) {
+        for (Region r : regions) {
+            if (r != null) {
+                r.free();
+            }
+        }
+    }
+
+    @Override
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int getEdgesCount() {
+        return isUndirected ? arcCount / 2 : arcCount;
+    }
+
+    @Override
+    public int getArcCount() {
+        return arcCount;
+    }
+
+    @Override
+    public boolean isUndirected() {
+        return isUndirected;
+    }
+
+    @Override
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    @Override
+    public int adjStart(int v) {
+        return offsets.getInt(4L * v);
+    }
+
+    @Override
+    public int adjEnd(int v) {
+        return offsets.getInt(4L * (v + 1));
+    }
+
+    @Override
+    public int getTarget(int i) {
+        return targets.getInt(4L * i);
+    }
+
+    @Override
+    public double getWeight(int i) {
+        return weights == null ? 0.0 : weights.getDouble(8L * i);
+    }
+
+    @Override
+    public int getValue(int v) {
+        return values == null ? v : values.getInt(4L * v);
+    }
+
+    @Override
+    public int indexOf(int value) {
+        if (values == null) {
+            return (value >= 0 && value < vertexCount) ? value : -1;
+        }
+        if (!sortedValues) {
+            for (int v = 0; v < vertexCount; v++) {
+                if (getValue(v) == value) {
+                    return v;
+                }
+            }
+            return -1;
+        }
+        int lo = 0;
+        int hi = vertexCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midValue = getValue(mid);
+            if (midValue < value) {
+                lo = mid + 1;
+            } else if (midValue > value) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    @Override
+    public String getLabel(int v) {
+        if (labelOffsets == null) {
+            return String.valueOf(getValue(v));
+        }
+        long start = labelOffsets.getLong(8L * v);
+        byte[] bytes = new byte[(int) (labelOffsets.getLong(8L * (v + 1)) - start)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = labelBytes.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A zeroed block of direct memory of any size, split into 1 GiB buffers. Regions hold a single
+     * primitive type, so no element straddles two buffers.
+     */
+    private static final class Region {
+        private ByteBuffer[] segments;
+        private long size;
+
+        Region(long size) {
+            int count = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+            this.segments = new ByteBuffer[count];
+            try {
+                for (int s = 0; s < count; s++) {
+                    long length = Math.min(SEGMENT_SIZE, size - ((long) s << SEGMENT_BITS));
+                    segments[s] = ByteBuffer.allocateDirect((int) length).order(ByteOrder.nativeOrder());
+                }
+            } catch (OutOfMemoryError e) {
+                this.size = size;
+                free();
+                throw e;
+            }
+            this.size = size;
+        }
+
+        int getInt(long p) {
+            return segments[(int) (p >>> SEGMENT_BITS)].getInt((int) (p & (SEGMENT_SIZE - 1)));
+        }
+
+        void putInt(long p, int value) {
+            segments[(int) (p >>> SEGMENT_BITS)].putInt((int) (p & (SEGMENT_SIZE - 1)), value);
+        }
+
+        long getLong(long p) {
+            return segments[(int) (p >>> SEGMENT_BITS)].getLong((int) (p & (SEGMENT_SIZE - 1)));
+        }
+
+        void putLong(long p, long value) {
+            segments[(int) (p >>> SEGMENT_BITS)].putLong((int) (p & (SEGMENT_SIZE - 1)), value);
+        }
+
+        double getDouble(long p) {
+            return segments[(int) (p >>> SEGMENT_BITS)].getDouble((int) (p & (SEGMENT_SIZE - 1)));
+        }
+
+        void putDouble(long p, double value) {
+            segments[(int) (p >>> SEGMENT_BITS)].putDouble((int) (p & (SEGMENT_SIZE - 1)), value);
+        }
+
+        byte get(long p) {
+            return segments[(int) (p >>> SEGMENT_BITS)].get((int) (p & (SEGMENT_SIZE - 1)));
+        }
+
+        void put(long p, byte value) {
+            segments[(int) (p >>> SEGMENT_BITS)].put((int) (p & (SEGMENT_SIZE - 1)), value);
+        }
+
+        /**
+         * Drops the buffers first, so that later reads fail on the empty segment table, then frees them.
+         */
+        void free() {
+            ByteBuffer[] old = segments;
+            segments = new ByteBuffer[0];
+            size = 0;
+            for (ByteBuffer buffer : old) {
+                if (buffer != null && INVOKE_CLEANER != null) {
+                    try {
+                        INVOKE_CLEANER.invokeExact(buffer);
+                    } catch (Throwable e) {
+                        // Left to the collector
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * `sun.misc.Unsafe.invokeCleaner` frees a direct buffer right away; without it the memory is only
+     * returned once the collector finds the buffer unreachable.
+     */
+    private static MethodHandle invokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package graph.util;
+
+import graph.CSRGraph;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Multi-threaded graph ingestion.
+ * The file is memory-mapped and split into byte ranges at line boundaries; the ranges are parsed in
+ * parallel into per-range primitive edge buffers, and the CSR adjacency is then built with a parallel
+ * counting sort (atomic degree counts, parallel prefix sum, atomic scatter, per-row sort).
+ * Rows are sorted by neighbor id, so the result does not depend on thread scheduling.
+ *
+ * Two formats are supported: MatrixMarket coordinate files (as read by `MatrixMarketLoader`) and the
+ * `src#dest#srcLabel#destLabel` format of the US cities demo (`GraphCreator.createGraphForDemo`).
+ */
+public class ParallelGraphLoader {
+
+    private static final VarHandle INT_ARRAY = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle LONG_ARRAY = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int LABEL_LENGTH_BITS = 23;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor (uses the common `ForkJoinPool`)
+     */
+    public ParallelGraphLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     * @param pool the pool parsing and construction run on
+     */
+    public ParallelGraphLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Edges parsed from one byte range of the file.
+     */
+    private static final class Part {
+        private final long start;
+        private final long end;
+        private int[] src;
+        private int[] dest;
+        private double[] weights;
+        private long[] srcLabels;
+        private long[] destLabels;
+        private int count;
+        private int maxId;
+        private int malformed;
+        private long badLine;
+
+        Part(long start, long end, boolean weighted, boolean labelled) {
+            this.start = start;
+            this.end = end;
+            int capacity = (int) Math.max(16, Math.min(Integer.MAX_VALUE - 8, (end - start) / 8));
+            this.src = new int[capacity];
+            this.dest = new int[capacity];
+            this.weights = weighted ? new double[capacity] : null;
+            this.srcLabels = labelled ? new long[capacity] : null;
+            this.destLabels = labelled ? new long[capacity] : null;
+            this.maxId = -1;
+            this.badLine = -1;
+        }
+
+        void ensureCapacity() {
+            if (count < src.length) {
+                return;
+            }
+            int grown = (int) Math.min(Integer.MAX_VALUE - 8, 2L * count);
+            src = Arrays.copyOf(src, grown);
+            dest = Arrays.copyOf(dest, grown);
+            if (weights != null) {
+                weights = Arrays.copyOf(weights, grown);
+            }
+            if (srcLabels != null) {
+                srcLabels = Arrays.copyOf(srcLabels, grown);
+                destLabels = Arrays.copyOf(destLabels, grown);
+            }
+        }
+    }
+
+    /**
+     * Loads a MatrixMarket coordinate file in parallel.
+     * @param filePath absolute (or relative to this directory) path (including the name of the file).
+     * @param isUndirected Whether the graph is directed or not. `true` if undirected.
+     * @return graph with compressed sparse row representation.
+     * @throws IOException when the file cannot be mapped or contains a malformed entry, or an id outside the
+     * dimensions of the size line (outside `[1, 2^31 - 1]` when the file has no size line).
+     */
+    public CSRGraph loadMatrixMarket(String filePath, boolean isUndirected) throws IOException {
+        MatrixMarketLoader header = new MatrixMarketLoader(filePath);
+        MappedFile file = header.getFile();
+        boolean weighted = !header.isPattern();
+        Part[] parts = split(file, header.getDataStart(), weighted, false);
+        long maxRow = header.getRowBound();
+        long maxCol = header.getColumnBound();
+        try {
+            parallel(parts.length, p -> parseMatrixMarket(file, parts[p], maxRow, maxCol));
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed entry in " + filePath + ": " + e.getMessage(), e);
+        }
+        checkIds(file, parts, filePath, header.getIdRange());
+        int vertexCount = header.getDeclaredVertexCount();
+        for (Part part : parts) {
+            vertexCount = Math.max(vertexCount, part.maxId + 1);
+        }
+        return build(vertexCount, parts, weighted, isUndirected, null);
+    }
+
+    /**
+     * Loads a US cities demo file (`src#dest#srcLabel#destLabel` per line, ids as given) in parallel.
+     * Lines starting with `%` are skipped, and so are lines with fewer than four fields.
+     * @param filePath absolute (or relative to this directory) path (including the name of the file).
+     * @param isUndirected Whether the graph is directed or not. `true` if undirected.
+     * @return graph with compressed sparse row representation and vertex labels.
+     * @throws IOException when the file cannot be mapped or an id is not a number or outside `[0, 2^31 - 2]`.
+     */
+    public CSRGraph loadDemo(String filePath, boolean isUndirected) throws IOException {
+        MappedFile file = new MappedFile(filePath);
+        Part[] parts = split(file, 0, false, true);
+        try {
+            parallel(parts.length, p -> parseDemo(file, parts[p]));
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed line in " + filePath + ": " + e.getMessage(), e);
+        }
+        checkIds(file, parts, filePath, "[0, " + (Integer.MAX_VALUE - 1) + "]");
+        int maxId = -1;
+        int malformed = 0;
+        for (Part part : parts) {
+            maxId = Math.max(maxId, part.maxId);
+            malformed += part.malformed;
+        }
+        int vertexCount = maxId + 1;
+        if (malformed > 0) {
+            System.err.println("There are less/more tokens in " + malformed + " line(s)! 4 needed.");
+        }
+        // First label seen for each id wins; labels are packed as (start << LABEL_LENGTH_BITS) | length
+        long[] labelRefs = new long[vertexCount];
+        parallel(parts.length, p -> {
+            Part part = parts[p];
+            for (int i = 0; i < part.count; i++) {
+                LONG_ARRAY.compareAndSet(labelRefs, part.src[i], 0L, part.srcLabels[i]);
+                LONG_ARRAY.compareAndSet(labelRefs, part.dest[i], 0L, part.destLabels[i]);
+            }
+        });
+        String[] labels = new String[vertexCount];
+        int labelParts = Math.max(1, Math.min(vertexCount, pool.getParallelism() * 4));
+        parallel(labelParts, p -> {
+            int lo = (int) ((long) vertexCount * p / labelParts);
+            int hi = (int) ((long) vertexCount * (p + 1) / labelParts);
+            for (int v = lo; v < hi; v++) {
+                long ref = labelRefs[v];
+                if (ref != 0) {
+                    long start = ref >>> LABEL_LENGTH_BITS;
+                    labels[v] = file.readString(start, start + (ref & ((1L << LABEL_LENGTH_BITS) - 1)));
+                }
+            }
+        });
+        return build(vertexCount, parts, false, isUndirected, labels);
+    }
+
+    /**
+     * Splits `[dataStart, size)` into ranges that start at line boundaries.
+     */
+    private Part[] split(MappedFile file, long dataStart, boolean weighted, boolean labelled) {
+        long length = file.size() - dataStart;
+        int count = (int) Math.max(1, Math.min(pool.getParallelism() * 4L, length / (1 << 16)));
+        long[] bounds = new long[count + 1];
+        bounds[0] = dataStart;
+        bounds[count] = file.size();
+        for (int p = 1; p < count; p++) {
+            long nominal = dataStart + length * p / count;
+            bounds[p] = Math.max(bounds[p - 1], file.nextLineStart(nominal - 1));
+        }
+        Part[] parts = new Part[count];
+        for (int p = 0; p < count; p++) {
+            parts[p] = new Part(bounds[p], bounds[p + 1], weighted, labelled);
+        }
+        return parts;
+    }
+
+    /**
+     * Throws for the first line of the file with an id out of range, if any part found one.
+     */
+    private static void checkIds(MappedFile file, Part[] parts, String filePath, String range) throws IOException {
+        for (Part part : parts) {
+            if (part.badLine >= 0) {
+                throw new IOException("Vertex id outside " + range + " on line " + file.lineNumber(part.badLine)
+                    + " of " + filePath + ": " + file.lineAt(part.badLine));
+            }
+        }
+    }
+
+    /**
+     * Parses the MatrixMarket entries of one range, stopping at the first row outside `[1, maxRow]` or column
+     * outside `[1, maxCol]`.
+     */
+    private static void parseMatrixMarket(MappedFile file, Part part, long maxRow, long maxCol) {
+        MappedFile.Cursor cursor = file.cursor(part.start);
+        while (cursor.pos < part.end) {
+            long lineStart = cursor.pos;
+            cursor.skipBlanks();
+            if (cursor.atLineEnd() || cursor.peek() == '%') {
+                cursor.skipLine();
+                continue;
+            }
+            long row = cursor.parseLong();
+            cursor.skipBlanks();
+            long col = cursor.parseLong();
+            cursor.skipBlanks();
+            if (row < 1 || row > maxRow || col < 1 || col > maxCol) {
+                part.badLine = lineStart;
+                return;
+            }
+            part.ensureCapacity();
+            int i = part.count;
+            part.src[i] = (int) row - 1; // 1-indexed to 0-indexed
+            part.dest[i] = (int) col - 1;
+            if (part.weights != null) {
+                part.weights[i] = cursor.atLineEnd() ? 1.0 : cursor.parseDouble();
+            }
+            part.maxId = Math.max(part.maxId, Math.max(part.src[i], part.dest[i]));
+            part.count++;
+            cursor.skipLine();
+        }
+    }
+
+    /**
+     * Parses the demo lines of one range, stopping at the first id outside `[0, 2^31 - 2]`. Fields after the
+     * fourth are ignored, as in `createGraphForDemo`.
+     */
+    private static void parseDemo(MappedFile file, Part part) {
+        MappedFile.Cursor cursor = file.cursor(part.start);
+        while (cursor.pos < part.end) {
+            long lineStart = cursor.pos;
+            long next = file.nextLineStart(lineStart);
+            long lineEnd = next > lineStart && file.at(next - 1) == '\n' ? next - 1 : next;
+            long h1 = file.indexOf((byte) '#', lineStart, lineEnd);
+            long h2 = h1 < 0 ? -1 : file.indexOf((byte) '#', h1 + 1, lineEnd);
+            long h3 = h2 < 0 ? -1 : file.indexOf((byte) '#', h2 + 1, lineEnd);
+            if (lineStart == lineEnd || file.at(lineStart) == '%') {
+                cursor.pos = next;
+                continue;
+            }
+            if (h3 < 0) {
+                part.malformed++;
+                cursor.pos = next;
+                continue;
+            }
+            long h4 = file.indexOf((byte) '#', h3 + 1, lineEnd);
+            long source = cursor.parseLong();
+            cursor.pos = h1 + 1;
+            long destination = cursor.parseLong();
+            cursor.pos = next;
+            if (source < 0 || source >= Integer.MAX_VALUE || destination < 0 || destination >= Integer.MAX_VALUE) {
+                part.badLine = lineStart;
+                return;
+            }
+            int s = (int) source;
+            int d = (int) destination;
+            if (s == d) {
+                // Filtering self-edges
+                continue;
+            }
+            part.ensureCapacity();
+            int i = part.count;
+            part.src[i] = s;
+            part.dest[i] = d;
+            part.srcLabels[i] = ((h2 + 1) << LABEL_LENGTH_BITS) | (h3 - h2 - 1);
+            part.destLabels[i] = ((h3 + 1) << LABEL_LENGTH_BITS) | ((h4 < 0 ? lineEnd : h4) - h3 - 1);
+            part.maxId = Math.max(part.maxId, Math.max(s, d));
+            part.count++;
+        }
+    }
+
+    /**
+     * Builds the CSR adjacency from the parsed ranges with a parallel counting sort.
+     */
+    private CSRGraph build(int vertexCount, Part[] parts, boolean weighted, boolean isUndirected, String[] labels) {
+        int[] offsets = new int[vertexCount + 1];
+        parallel(parts.length, p -> {
+            Part part = parts[p];
+            for (int i = 0; i < part.count; i++) {
+                int s = part.src[i];
+                int d = part.dest[i];
+                if (s != d) {
+                    INT_ARRAY.getAndAdd(offsets, s + 1, 1);
+                    if (isUndirected) {
+                        INT_ARRAY.getAndAdd(offsets, d + 1, 1);
+                    }
+                }
+            }
+        });
+        Arrays.parallelPrefix(offsets, Integer::sum);
+        int[] targets = new int[offsets[vertexCount]];
+        double[] csrWeights = weighted ? new double[targets.length] : null;
+        int[] cursor = Arrays.copyOf(offsets, vertexCount);
+        parallel(parts.length, p -> {
+            Part part = parts[p];
+            for (int i = 0; i < part.count; i++) {
+                int s = part.src[i];
+                int d = part.dest[i];
+                if (s == d) {
+                    continue;
+                }
+                int pos = (int) INT_ARRAY.getAndAdd(cursor, s, 1);
+                targets[pos] = d;
+                if (csrWeights != null) {
+                    csrWeights[pos] = part.weights[i];
+                }
+                if (isUndirected) {
+                    pos = (int) INT_ARRAY.getAndAdd(cursor, d, 1);
+                    targets[pos] = s;
+                    if (csrWeights != null) {
+                        csrWeights[pos] = part.weights[i];
+                    }
+                }
+            }
+        });
+        int rowParts = Math.max(1, Math.min(vertexCount, pool.getParallelism() * 4));
+        parallel(rowParts, p -> {
+            int lo = (int) ((long) vertexCount * p / rowParts);
+            int hi = (int) ((long) vertexCount * (p + 1) / rowParts);
+            for (int v = lo; v < hi; v++) {
+                sortRow(targets, csrWeights, offsets[v], offsets[v + 1]);
+            }
+        });
+        return new CSRGraph(offsets, targets, csrWeights, null, labels, isUndirected);
+    }
+
+    /**
+     * Sorts one adjacency row by (target, weight).
+     */
+    private static void sortRow(int[] targets, double[] weights, int from, int to) {
+        if (weights == null) {
+            Arrays.sort(targets, from, to);
+            return;
+        }
+        if (to - from <= 32) {
+            for (int i = from + 1; i < to; i++) {
+                int t = targets[i];
+                double w = weights[i];
+                int j = i - 1;
+                while (j >= from && (targets[j] > t || (targets[j] == t && weights[j] > w))) {
+                    targets[j + 1] = targets[j];
+                    weights[j + 1] = weights[j];
+                    j--;
+                }
+                targets[j + 1] = t;
+                weights[j + 1] = w;
+            }
+            return;
+        }
+        // Heap sort keeps long rows O(d log d) without allocating
+        int n = to - from;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(targets, weights, from, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(targets, weights, from, from + end);
+            siftDown(targets, weights, from, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] targets, double[] weights, int base, int i, int n) {
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < n && greater(targets, weights, base + left, base + largest)) {
+                largest = left;
+            }
+            if (right < n && greater(targets, weights, base + right, base + largest)) {
+                largest = right;
+            }
+            if (largest == i) {
+                return;
+            }
+            swap(targets, weights, base + i, base + largest);
+            i = largest;
+        }
+    }
+
+    private static boolean greater(int[] targets, double[] weights, int a, int b) {
+        return targets[a] > targets[b] || (targets[a] == targets[b] && weights[a] > weights[b]);
+    }
+
+    private static void swap(int[] targets, double[] weights, int a, int b) {
+        int t = targets[a];
+        targets[a] = targets[b];
+        targets[b] = t;
+        double w = weights[a];
+        weights[a] = weights[b];
+        weights[b] = w;
+    }
+
+    /**
+     * Runs `body` for every part index on the pool and waits for all of them.
+     */
+    private void parallel(int parts, IntConsumer body) {
+        RecursiveAction[] tasks = new RecursiveAction[parts];
+        for (int p = 0; p < parts; p++) {
+            int part = p;
+            tasks[p] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    body.accept(part);
+                }
+            };
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package graph.trace;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Checks that a `TraceWriter` over a stream that fails to write reports the failure from
+ * `close()` instead of hanging. Run with `java graph.trace.TraceWriterTest` after compiling
+ * the sources together with this file.
+ */
+public class TraceWriterTest {
+
+    public static void main(String[] args) throws Exception {
+        Thread test = new Thread(TraceWriterTest::closeReportsWriteFailure, "trace-writer-test");
+        test.setDaemon(true);
+        test.start();
+        test.join(10_000);
+        if (test.isAlive()) {
+            throw new AssertionError("TraceWriter.close() hung after a failed write");
+        }
+        System.out.println("TraceWriterTest passed");
+    }
+
+    private static void closeReportsWriteFailure() {
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        TraceWriter trace = new TraceWriter(failing);
+        trace.onStart(new int[]{0, 1, 2});
+        trace.onVisit(0);
+        trace.onDiscover(1, 1);
+        trace.onLowUpdate(1, 0);
+        trace.onArticulationPoint(0);
+        trace.onFinish();
+        try {
+            trace.close();
+        } catch (IOException e) {
+            return;
+        }
+        throw new AssertionError("TraceWriter.close() swallowed the write failure");
+    }
+}